@@ -0,0 +1,60 @@
+#!/usr/bin/env sh
+# Reports the time from JVM launch to the first successful POST /auth/login:
+#   baseline  - java -jar on the fat jar, as the Dockerfile ran it before the aot profile
+#   aot+cds   - the extracted jar with Spring AOT enabled and a CDS archive from a training run,
+#               as the Dockerfile runs it now
+# The jar is built once with -Paot; its AOT classes are ignored unless spring.aot.enabled is set.
+#
+# Usage (from the project root): scripts/login-startup-time.sh [runs-per-mode]
+set -eu
+
+RUNS=${1:-3}
+PORT=${PORT:-18080}
+EMAIL=${ADMIN_EMAIL:-admin@mykare.com}
+PASSWORD=${ADMIN_PASSWORD:-Admin@123}
+JAR=target/usermanagement-0.0.1-SNAPSHOT.jar
+# A throwaway signing key unless one is provided
+TOKEN_SIGNING_KEYS=${TOKEN_SIGNING_KEYS:-startup-time:$(head -c 32 /dev/urandom | base64 | tr -d '\n')}
+export TOKEN_SIGNING_KEYS
+WORK=target/startup-time
+
+sh ./mvnw -B -q -Paot -DskipTests package
+rm -rf "$WORK"
+java -Djarmode=tools -jar "$JAR" extract --destination "$WORK/application"
+EXTRACTED="$WORK/application/$(basename "$JAR")"
+
+echo "Training run for the CDS archive..."
+java -XX:ArchiveClassesAtExit="$WORK/application.jsa" -Dspring.aot.enabled=true -Dspring.context.exit=onRefresh \
+    -jar "$EXTRACTED" > "$WORK/training.log" 2>&1
+
+now_ms() {
+    echo $(($(date +%s%N) / 1000000))
+}
+
+# measure <label> <java args...>
+measure() {
+    label=$1
+    shift
+    start=$(now_ms)
+    java "$@" --server.port="$PORT" > "$WORK/$label.log" 2>&1 &
+    pid=$!
+    until curl -sf -o /dev/null -H 'Content-Type: application/json' \
+            -d "{\"email\":\"$EMAIL\",\"password\":\"$PASSWORD\"}" "http://localhost:$PORT/auth/login"; do
+        if ! kill -0 "$pid" 2>/dev/null; then
+            echo "$label: application exited, see $WORK/$label.log" >&2
+            exit 1
+        fi
+        sleep 0.05
+    done
+    elapsed=$(($(now_ms) - start))
+    kill "$pid"
+    wait "$pid" || true
+    echo "$label: first successful login after $elapsed ms"
+}
+
+i=1
+while [ "$i" -le "$RUNS" ]; do
+    measure baseline -jar "$JAR"
+    measure aot+cds -XX:SharedArchiveFile="$WORK/application.jsa" -Dspring.aot.enabled=true -jar "$EXTRACTED"
+    i=$((i + 1))
+done
@@ -1,22 +1,29 @@
 package com.mykare.usermanagement.config;
 
+import com.mykare.usermanagement.event.UserRegisteredEvent;
 import com.mykare.usermanagement.model.Role;
 import com.mykare.usermanagement.model.User;
 import com.mykare.usermanagement.repository.UserRepository;
+import com.mykare.usermanagement.service.UserStatsService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
 @Slf4j
 @Component
+@Profile("!reactive")
 @RequiredArgsConstructor
 public class DataInitializer implements CommandLineRunner {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UserStatsService userStatsService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Value("${ADMIN_EMAIL}")
     private String adminEmail;
@@ -27,14 +34,16 @@ public class DataInitializer implements CommandLineRunner {
     @Override
     public void run(String... args) {
         try {
-            if (userRepository.count() == 0) {
+            if (userStatsService.getTotal() == 0) {
                 User admin = new User();
                 admin.setName("Admin");
                 admin.setEmail(adminEmail);
                 admin.setPassword(passwordEncoder.encode(adminPassword));
                 admin.setRole(Role.ADMIN);
 
-                userRepository.save(admin);
+                User saved = userRepository.save(admin);
+                eventPublisher.publishEvent(new UserRegisteredEvent(saved.getId(), saved.getEmail(),
+                        saved.getRole(), saved.getCountry(), saved.getGender()));
                 log.info("Admin user created with email: {}", adminEmail);
             } else {
                 log.info("Users already exist, skipping admin creation.");
@@ -0,0 +1,119 @@
+package com.mykare.usermanagement.config;
+
+import com.mykare.usermanagement.model.User;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.api.MigrationVersion;
+import org.flywaydb.core.api.migration.Context;
+import org.flywaydb.core.api.migration.JavaMigration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Flyway migration 2: brings a users table created before {@code email_normalized} existed up to
+ * date. It adds the column, backfills it in ID order with {@link User#normalizeEmail}, refuses to
+ * continue if two users differ only in case or surrounding whitespace, and finally makes the column
+ * NOT NULL. Migration 3 then adds the unique constraint. Tables created by migration 1 already have
+ * the column, so on them it only reads the schema metadata.
+ */
+@Slf4j
+@Component
+public class EmailNormalizationMigration implements JavaMigration {
+
+    private static final int BATCH_SIZE = 1000;
+    private static final int MAX_REPORTED_COLLISIONS = 20;
+
+    @Override
+    public MigrationVersion getVersion() {
+        return MigrationVersion.fromVersion("2");
+    }
+
+    @Override
+    public String getDescription() {
+        return "backfill users email normalized";
+    }
+
+    @Override
+    public Integer getChecksum() {
+        return null;
+    }
+
+    /**
+     * Each backfill batch commits on its own, so a large table is not rewritten in one transaction
+     * and an interrupted run resumes from the rows still missing the column.
+     */
+    @Override
+    public boolean canExecuteInTransaction() {
+        return false;
+    }
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connection = context.getConnection();
+        Boolean nullable = columnNullability(connection, "users", "email_normalized");
+        if (nullable == Boolean.FALSE) {
+            return;
+        }
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new SingleConnectionDataSource(connection, true));
+        if (nullable == null) {
+            log.info("Adding users.email_normalized");
+            jdbcTemplate.execute("alter table users add column email_normalized varchar(255)");
+        }
+
+        long backfilled = backfill(jdbcTemplate);
+        List<String> collisions = jdbcTemplate.queryForList(
+                "select email_normalized from users group by email_normalized having count(*) > 1 order by email_normalized",
+                String.class);
+        if (!collisions.isEmpty()) {
+            throw new IllegalStateException(collisions.size() + " emails are registered more than once when compared "
+                    + "case-insensitively; merge or rename these users before starting: "
+                    + collisions.subList(0, Math.min(collisions.size(), MAX_REPORTED_COLLISIONS)));
+        }
+        jdbcTemplate.execute("alter table users alter column email_normalized set not null");
+        log.info("Backfilled users.email_normalized for {} users", backfilled);
+    }
+
+    private long backfill(JdbcTemplate jdbcTemplate) {
+        JdbcTemplate reader = new JdbcTemplate(jdbcTemplate.getDataSource());
+        reader.setMaxRows(BATCH_SIZE);
+        long afterId = Long.MIN_VALUE;
+        long total = 0;
+        while (true) {
+            List<Object[]> batch = reader.query(
+                    "select id, email from users where email_normalized is null and id > ? order by id",
+                    (rs, rowNum) -> new Object[]{User.normalizeEmail(rs.getString("email")), rs.getLong("id")},
+                    afterId);
+            if (batch.isEmpty()) {
+                return total;
+            }
+            jdbcTemplate.batchUpdate("update users set email_normalized = ? where id = ?", batch);
+            total += batch.size();
+            afterId = (Long) batch.get(batch.size() - 1)[1];
+        }
+    }
+
+    /**
+     * @return whether the column accepts nulls, or {@code null} if it does not exist.
+     */
+    private static Boolean columnNullability(Connection connection, String table, String column) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        try (ResultSet columns = metaData.getColumns(connection.getCatalog(), connection.getSchema(),
+                identifier(metaData, table), identifier(metaData, column))) {
+            return columns.next() ? columns.getInt("NULLABLE") != DatabaseMetaData.columnNoNulls : null;
+        }
+    }
+
+    private static String identifier(DatabaseMetaData metaData, String name) throws SQLException {
+        if (metaData.storesUpperCaseIdentifiers()) {
+            return name.toUpperCase(Locale.ROOT);
+        }
+        return metaData.storesLowerCaseIdentifiers() ? name.toLowerCase(Locale.ROOT) : name;
+    }
+}
@@ -0,0 +1,97 @@
+package com.mykare.usermanagement.config;
+
+import com.mykare.usermanagement.service.geo.CachingGeoIpResolver;
+import com.mykare.usermanagement.service.geo.GeoIpResolver;
+import com.mykare.usermanagement.service.geo.LocalGeoIpResolver;
+import com.mykare.usermanagement.service.geo.RemoteGeoIpResolver;
+import com.mykare.usermanagement.service.geo.ResilientGeoIpResolver;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Selects the {@link GeoIpResolver} used for country lookups.
+ * When {@code geo.resolver.dataset} points to a dataset file, lookups are answered locally
+ * and only fall back to ip-api.com if {@code geo.resolver.remote-fallback} is enabled.
+ * Without a dataset every lookup goes to ip-api.com. Remote lookups are always cached,
+ * see {@link CachingGeoIpResolver}, and guarded by a circuit breaker and bulkhead,
+ * see {@link ResilientGeoIpResolver}.
+ */
+@Slf4j
+@Configuration
+@Profile("!reactive")
+public class GeoIpConfig {
+
+    private static final String GEOIP = "geoip";
+
+    @Bean
+    public CircuitBreaker geoIpCircuitBreaker(
+            MeterRegistry meterRegistry,
+            @Value("${geo.circuit-breaker.failure-rate-threshold}") float failureRateThreshold,
+            @Value("${geo.circuit-breaker.slow-call-threshold}") Duration slowCallThreshold,
+            @Value("${geo.circuit-breaker.sliding-window-size}") int slidingWindowSize,
+            @Value("${geo.circuit-breaker.wait-in-open-state}") Duration waitInOpenState) {
+        CircuitBreakerRegistry registry = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .failureRateThreshold(failureRateThreshold)
+                .slowCallDurationThreshold(slowCallThreshold)
+                .slowCallRateThreshold(failureRateThreshold)
+                .slidingWindowSize(slidingWindowSize)
+                .minimumNumberOfCalls(Math.min(slidingWindowSize, 10))
+                .waitDurationInOpenState(waitInOpenState)
+                .automaticTransitionFromOpenToHalfOpenEnabled(true)
+                .ignoreExceptions(BulkheadFullException.class)
+                .build());
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(registry).bindTo(meterRegistry);
+        return registry.circuitBreaker(GEOIP);
+    }
+
+    @Bean
+    public Bulkhead geoIpBulkhead(MeterRegistry meterRegistry,
+                                  @Value("${geo.bulkhead.max-concurrent-calls}") int maxConcurrentCalls,
+                                  @Value("${geo.bulkhead.max-wait}") Duration maxWait) {
+        BulkheadRegistry registry = BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(maxConcurrentCalls)
+                .maxWaitDuration(maxWait)
+                .build());
+        TaggedBulkheadMetrics.ofBulkheadRegistry(registry).bindTo(meterRegistry);
+        return registry.bulkhead(GEOIP);
+    }
+
+    @Bean
+    public GeoIpResolver geoIpResolver(RestTemplate restTemplate,
+                                       CircuitBreaker geoIpCircuitBreaker,
+                                       Bulkhead geoIpBulkhead,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${geo.resolver.dataset:}") String dataset,
+                                       @Value("${geo.resolver.remote-url}") String remoteUrl,
+                                       @Value("${geo.resolver.remote-fallback}") boolean remoteFallback,
+                                       @Value("${geo.cache.maximum-size}") long cacheSize,
+                                       @Value("${geo.cache.ttl}") Duration cacheTtl,
+                                       @Value("${geo.cache.failure-ttl}") Duration cacheFailureTtl) throws IOException {
+        GeoIpResolver guarded = new ResilientGeoIpResolver(new RemoteGeoIpResolver(restTemplate, remoteUrl), geoIpCircuitBreaker, geoIpBulkhead);
+        GeoIpResolver remote = new CachingGeoIpResolver(guarded, cacheSize, cacheTtl, cacheFailureTtl)
+                .bindTo(meterRegistry, GEOIP);
+        if (dataset.isBlank()) {
+            log.info("No GeoIP dataset configured, resolving countries through ip-api.com");
+            return remote;
+        }
+        return new LocalGeoIpResolver(Path.of(dataset), remoteFallback ? remote : null);
+    }
+}
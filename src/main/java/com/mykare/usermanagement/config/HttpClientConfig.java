@@ -0,0 +1,72 @@
+package com.mykare.usermanagement.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+
+/**
+ * Outbound HTTP client used for the geo lookups.
+ * Connections are pooled and kept alive per host, and every phase of a call is bounded:
+ * waiting for a pooled connection, connecting and reading the response.
+ */
+@Configuration
+@Profile("!reactive")
+public class HttpClientConfig {
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager geoConnectionManager(
+            MeterRegistry meterRegistry,
+            @Value("${geo.http.max-connections}") int maxConnections,
+            @Value("${geo.http.max-connections-per-route}") int maxConnectionsPerRoute,
+            @Value("${geo.http.connect-timeout}") Duration connectTimeout,
+            @Value("${geo.http.read-timeout}") Duration readTimeout,
+            @Value("${geo.http.connection-ttl}") Duration connectionTtl) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnectionsPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(connectTimeout))
+                        .setSocketTimeout(Timeout.of(readTimeout))
+                        .setTimeToLive(TimeValue.of(connectionTtl))
+                        .build())
+                .build();
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "geo").bindTo(meterRegistry);
+        return connectionManager;
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient geoHttpClient(PoolingHttpClientConnectionManager geoConnectionManager,
+                                             @Value("${geo.http.pool-timeout}") Duration poolTimeout,
+                                             @Value("${geo.http.read-timeout}") Duration readTimeout) {
+        return HttpClients.custom()
+                .setConnectionManager(geoConnectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(poolTimeout))
+                        .setResponseTimeout(Timeout.of(readTimeout))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofSeconds(30))
+                .disableAutomaticRetries()
+                .build();
+    }
+
+    @Bean
+    public RestTemplate restTemplate(CloseableHttpClient geoHttpClient) {
+        return new RestTemplate(new HttpComponentsClientHttpRequestFactory(geoHttpClient));
+    }
+}
@@ -0,0 +1,55 @@
+package com.mykare.usermanagement.config;
+
+import com.mykare.usermanagement.dto.*;
+import com.mykare.usermanagement.model.EnrichmentStatus;
+import com.mykare.usermanagement.model.Role;
+import com.mykare.usermanagement.model.User;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+import java.util.List;
+
+/**
+ * Reflection and resource hints for the native image, covering what Spring AOT cannot infer.
+ * AOT registers controller payloads it sees in method signatures, but most handlers return
+ * {@code ResponseEntity<?>}; JPQL constructor expressions, Hibernate and Hibernate Validator
+ * reach their types reflectively, and Flyway and springdoc load resources by pattern.
+ */
+public class NativeRuntimeHints implements RuntimeHintsRegistrar {
+
+    /** Request and response bodies, also read and written by Jackson in the import and export. */
+    static final List<Class<?>> PAYLOADS = List.of(
+            RegisterRequest.class, LoginRequest.class, LoginResponse.class, UpdateRoleRequest.class,
+            BulkRoleUpdateRequest.class, BulkUserFilter.class, BulkOperationResult.class, UserResponse.class,
+            UserPage.class, UserSearchCriteria.class, UserImportReport.class, UserImportError.class,
+            UserStats.class, UserCount.class);
+
+    /** Instantiated by "select new" JPQL and criteria constructor expressions. */
+    static final List<Class<?>> PROJECTIONS = List.of(UserResponse.class, UserCount.class, UserIdentity.class);
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        BindingReflectionHintsRegistrar binding = new BindingReflectionHintsRegistrar();
+        for (Class<?> payload : PAYLOADS) {
+            binding.registerReflectionHints(hints.reflection(), payload);
+            // Hibernate Validator reads the constraints, including the password @Pattern, from the fields
+            hints.reflection().registerType(payload, MemberCategory.DECLARED_FIELDS);
+        }
+        for (Class<?> projection : PROJECTIONS) {
+            hints.reflection().registerType(projection, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+        }
+
+        // Field access, the no-arg constructor and the package-private @PrePersist/@PreUpdate callback
+        hints.reflection().registerType(User.class, MemberCategory.DECLARED_FIELDS,
+                MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_DECLARED_METHODS);
+        hints.reflection().registerType(Role.class, MemberCategory.INVOKE_PUBLIC_METHODS);
+        hints.reflection().registerType(EnrichmentStatus.class, MemberCategory.INVOKE_PUBLIC_METHODS);
+
+        hints.resources().registerPattern("db/migration/*/*.sql");
+        // Typesafe Config defaults read by the Caffeine JCache provider behind the second-level cache
+        hints.resources().registerPattern("reference.conf");
+        hints.resources().registerPattern("META-INF/resources/webjars/swagger-ui/**");
+    }
+}
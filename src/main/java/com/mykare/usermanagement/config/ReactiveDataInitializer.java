@@ -0,0 +1,56 @@
+package com.mykare.usermanagement.config;
+
+import com.mykare.usermanagement.model.Role;
+import com.mykare.usermanagement.model.User;
+import com.mykare.usermanagement.repository.ReactiveUserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Creates the admin user on an empty database, like {@link DataInitializer} on the servlet stack.
+ */
+@Slf4j
+@Component
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveDataInitializer implements CommandLineRunner {
+
+    private final ReactiveUserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+
+    @Value("${ADMIN_EMAIL}")
+    private String adminEmail;
+
+    @Value("${ADMIN_PASSWORD}")
+    private String adminPassword;
+
+    @Override
+    public void run(String... args) {
+        try {
+            // Startup runs on the main thread, which may block
+            userRepository.count()
+                    .flatMap(count -> {
+                        if (count > 0) {
+                            log.info("Users already exist, skipping admin creation.");
+                            return Mono.empty();
+                        }
+                        User admin = new User();
+                        admin.setName("Admin");
+                        admin.setEmail(adminEmail);
+                        admin.setPassword(passwordEncoder.encode(adminPassword));
+                        admin.setRole(Role.ADMIN);
+                        return userRepository.insert(admin)
+                                .doOnNext(saved -> log.info("Admin user created with email: {}", adminEmail));
+                    })
+                    .block();
+        } catch (Exception e) {
+            log.error("Error while initializing admin user", e);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.mykare.usermanagement.config;
+
+import com.mykare.usermanagement.service.geo.WebClientGeoIpResolver;
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+/**
+ * Geo lookups for the reactive stack: a non-blocking {@link WebClient} on a dedicated Reactor Netty
+ * connection pool, bounded like {@link HttpClientConfig}. Reactor Netty keeps one pool per remote
+ * address, so {@code geo.http.max-connections-per-route} caps each of them.
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveGeoIpConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider geoConnectionProvider(
+            @Value("${geo.http.max-connections-per-route}") int maxConnectionsPerRoute,
+            @Value("${geo.http.pool-timeout}") Duration poolTimeout,
+            @Value("${geo.http.connection-ttl}") Duration connectionTtl) {
+        return ConnectionProvider.builder("geo")
+                .maxConnections(maxConnectionsPerRoute)
+                .pendingAcquireTimeout(poolTimeout)
+                .maxLifeTime(connectionTtl)
+                .maxIdleTime(Duration.ofSeconds(30))
+                .build();
+    }
+
+    @Bean
+    public WebClientGeoIpResolver webClientGeoIpResolver(
+            WebClient.Builder webClientBuilder,
+            ConnectionProvider geoConnectionProvider,
+            @Value("${geo.http.connect-timeout}") Duration connectTimeout,
+            @Value("${geo.http.read-timeout}") Duration readTimeout,
+            @Value("${geo.resolver.remote-url}") String remoteUrl) {
+        HttpClient httpClient = HttpClient.create(geoConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .responseTimeout(readTimeout);
+        WebClient webClient = webClientBuilder
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+        return new WebClientGeoIpResolver(webClient, remoteUrl);
+    }
+}
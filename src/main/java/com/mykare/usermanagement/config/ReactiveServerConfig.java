@@ -0,0 +1,21 @@
+package com.mykare.usermanagement.config;
+
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Serves the reactive stack from Reactor Netty. Tomcat stays on the classpath for the servlet
+ * stack and Spring Boot would otherwise prefer it, running WebFlux handlers on its worker threads
+ * instead of an event loop.
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveServerConfig {
+
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+}
@@ -0,0 +1,58 @@
+package com.mykare.usermanagement.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.mykare.usermanagement.model.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Local JCache (Caffeine) regions backing Hibernate's second-level cache for {@link User}: one for
+ * entities by ID and one resolving normalized emails to IDs. Each region is bounded in size, with
+ * Caffeine's size-based W-TinyLFU eviction, and entries also expire after a fixed time as a
+ * safety net for writes that bypass Hibernate. Region statistics are published as {@code cache.*}
+ * metrics tagged with the region name.
+ */
+@Configuration
+@Profile("!reactive")
+public class SecondLevelCacheConfig {
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(
+            MeterRegistry meterRegistry,
+            @Value("${users.second-level-cache.maximum-size}") long maximumSize,
+            @Value("${users.second-level-cache.ttl}") Duration ttl) {
+        // A manager of its own, so every application context gets fresh regions
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("hibernate-" + UUID.randomUUID()), getClass().getClassLoader());
+        for (String region : new String[]{User.CACHE_REGION, User.NATURAL_ID_CACHE_REGION}) {
+            Cache<Object, Object> cache = cacheManager.createCache(region, new CaffeineConfiguration<>()
+                    .setMaximumSize(OptionalLong.of(maximumSize))
+                    .setExpireAfterWrite(OptionalLong.of(ttl.toNanos()))
+                    // Hibernate stores immutable disassembled state, so copying on every access is wasted work
+                    .setStoreByValue(false)
+                    .setStatisticsEnabled(true));
+            JCacheMetrics.monitor(meterRegistry, cache);
+        }
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+}
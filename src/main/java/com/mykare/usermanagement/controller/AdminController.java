@@ -1,19 +1,44 @@
 package com.mykare.usermanagement.controller;
 
+import com.mykare.usermanagement.dto.BulkOperationResult;
+import com.mykare.usermanagement.dto.BulkRoleUpdateRequest;
+import com.mykare.usermanagement.dto.BulkUserFilter;
+import com.mykare.usermanagement.dto.UserImportReport;
+import com.mykare.usermanagement.dto.UserPage;
 import com.mykare.usermanagement.dto.UserResponse;
+import com.mykare.usermanagement.dto.UserSearchCriteria;
+import com.mykare.usermanagement.dto.UserStats;
 import com.mykare.usermanagement.dto.UpdateRoleRequest;
+import com.mykare.usermanagement.model.Role;
+import com.mykare.usermanagement.model.User;
 import com.mykare.usermanagement.service.AdminService;
+import com.mykare.usermanagement.service.UserDataFormat;
+import com.mykare.usermanagement.service.UserExportService;
+import com.mykare.usermanagement.service.UserImportService;
+import com.mykare.usermanagement.service.UserSearchService;
+import com.mykare.usermanagement.service.UserStatsService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * Controller for administrative operations such as managing user accounts.
@@ -22,50 +47,213 @@ import java.util.List;
 
 @Slf4j
 @RestController
+@Profile("!reactive")
 @RequestMapping("/admin")
 @PreAuthorize("hasRole('ADMIN')")
 @RequiredArgsConstructor
 @Tag(name = "Admin Management", description = "APIs for managing users - accessible only to Admin users")
 public class AdminController {
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final AdminService adminService;
+    private final UserExportService userExportService;
+    private final UserImportService userImportService;
+    private final UserSearchService userSearchService;
+    private final UserStatsService userStatsService;
 
     /**
-     * Retrieve a list of all registered users.
+     * Retrieve one page of registered users. The cursor for the next page is returned in the
+     * {@value #NEXT_CURSOR_HEADER} header, which is absent on the last page.
+     *
+     * @param after     Cursor from the previous page; omit for the first page.
+     * @param limit     Maximum number of users to return.
+     * @param sort      Sort key, {@code id} (default) or {@code email}.
+     * @param direction Sort direction, {@code asc} (default) or {@code desc}.
      */
     @GetMapping("/users")
-    @Operation(summary = "Get all users", description = "Fetches a list of all registered users. Accessible only to admins.")
-    public ResponseEntity<?> getAllUsers() {
+    @Operation(summary = "Get users", description = "Fetches a page of registered users using cursor pagination. Accessible only to admins.")
+    public ResponseEntity<?> getAllUsers(
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = "id") String sort,
+            @RequestParam(defaultValue = "asc") String direction) {
         try {
-            log.info("Fetching all users...");
-            List<UserResponse> users = adminService.getAllUsers();
-            return ResponseEntity.ok(users);
+            log.info("Fetching users after cursor {}...", after);
+            UserPage page = adminService.getUsers(after, limit, sort, direction);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (page.getNextCursor() != null) {
+                response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+            }
+            return response.body(page.getUsers());
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid user listing request: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(e.getMessage());
         } catch (Exception e) {
             log.error("Error fetching all users", e);
             return ResponseEntity.internalServerError().body("Failed to fetch users");
         }
     }
 
+    /**
+     * Search users by any combination of country, role, gender, name prefix and email prefix,
+     * one page at a time in ID order. The cursor for the next page is returned in the
+     * {@value #NEXT_CURSOR_HEADER} header, which is absent on the last page.
+     *
+     * @param country Exact country code.
+     * @param role    Exact role.
+     * @param gender  Exact gender.
+     * @param name    Case-sensitive prefix of the name.
+     * @param email   Case-insensitive prefix of the email.
+     * @param after   Cursor from the previous page; omit for the first page.
+     * @param limit   Maximum number of users to return.
+     */
+    @GetMapping("/users/search")
+    @Operation(summary = "Search users", description = "Filters users by country, role, gender and name or email prefix using cursor pagination. Accessible only to admins.")
+    public ResponseEntity<?> searchUsers(
+            @RequestParam(required = false) String country,
+            @RequestParam(required = false) Role role,
+            @RequestParam(required = false) String gender,
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) String email,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            UserSearchCriteria criteria = UserSearchCriteria.builder()
+                    .country(country)
+                    .role(role)
+                    .gender(gender)
+                    .namePrefix(name)
+                    .emailPrefix(email)
+                    .build();
+            UserPage page = userSearchService.search(criteria, after, limit);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (page.getNextCursor() != null) {
+                response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+            }
+            return response.body(page.getUsers());
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid user search request: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            log.error("Error searching users", e);
+            return ResponseEntity.internalServerError().body("Failed to search users");
+        }
+    }
+
+    /**
+     * Counts of users in total and by role, country and gender, served from in-memory counters.
+     * Counts may lag the database by a few seconds after single-user deletes, role changes and imports.
+     */
+    @GetMapping("/users/stats")
+    @Operation(summary = "Get user statistics", description = "Returns user counts by role, country and gender without querying the database. Accessible only to admins.")
+    public ResponseEntity<UserStats> getUserStats() {
+        return ResponseEntity.ok(userStatsService.getStats());
+    }
+
+    /**
+     * Stream every registered user as NDJSON or CSV. Rows are written as they are read, so the
+     * response starts immediately and server memory stays flat. The body is gzip-compressed
+     * when the client sends {@code Accept-Encoding: gzip}.
+     *
+     * @param format         {@code ndjson} (default) or {@code csv}.
+     * @param acceptEncoding Accept-Encoding request header.
+     */
+    @GetMapping("/users/export")
+    @Operation(summary = "Export all users", description = "Streams all users as NDJSON or CSV, optionally gzip-compressed. Accessible only to admins.")
+    public ResponseEntity<StreamingResponseBody> exportUsers(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        UserDataFormat exportFormat;
+        try {
+            exportFormat = UserDataFormat.from(format);
+        } catch (IllegalArgumentException e) {
+            byte[] message = e.getMessage().getBytes(StandardCharsets.UTF_8);
+            return ResponseEntity.badRequest()
+                    .contentType(MediaType.TEXT_PLAIN)
+                    .body(out -> out.write(message));
+        }
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase(Locale.ROOT).contains("gzip");
+        log.info("Exporting all users as {}{}", exportFormat, gzip ? " (gzip)" : "");
+
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                try (GZIPOutputStream compressed = new GZIPOutputStream(out, 8192, true)) {
+                    userExportService.export(exportFormat, compressed);
+                }
+            } else {
+                userExportService.export(exportFormat, out);
+            }
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"users." + exportFormat.getFileExtension() + "\"")
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
+    /**
+     * Register users in bulk from an NDJSON ({@code application/x-ndjson}) or CSV ({@code text/csv})
+     * body, optionally sent with {@code Content-Encoding: gzip}. CSV bodies need a header row with
+     * the columns {@code name,email,password,gender}. Rows that fail validation are listed in the
+     * report and do not stop the import.
+     *
+     * @param request The HTTP request whose body is read as a stream.
+     * @return {@link UserImportReport} with counts, throughput and per-row errors.
+     */
+    @PostMapping(value = "/users/import", consumes = {"application/x-ndjson", "text/csv"})
+    @Operation(summary = "Import users", description = "Registers users in bulk from a streamed NDJSON or CSV body and reports per-row errors. Accessible only to admins.")
+    public ResponseEntity<?> importUsers(HttpServletRequest request) {
+        try {
+            MediaType contentType = MediaType.parseMediaType(request.getContentType());
+            UserDataFormat format = contentType.isCompatibleWith(MediaType.parseMediaType(UserDataFormat.CSV.getContentType()))
+                    ? UserDataFormat.CSV
+                    : UserDataFormat.NDJSON;
+            String contentEncoding = request.getHeader(HttpHeaders.CONTENT_ENCODING);
+            log.info("Importing users from {} body", format);
+            try (InputStream body = "gzip".equalsIgnoreCase(contentEncoding)
+                    ? new GZIPInputStream(request.getInputStream())
+                    : request.getInputStream()) {
+                UserImportReport report = userImportService.importUsers(format, body);
+                return ResponseEntity.ok(report);
+            }
+        } catch (IllegalArgumentException e) {
+            log.warn("Rejected user import: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            log.error("Error importing users", e);
+            return ResponseEntity.internalServerError().body("Failed to import users");
+        }
+    }
 
     /**
      * Delete a user by email address.
      *
-     * @param email Email address of the user to delete.
+     * @param email   Email address of the user to delete.
+     * @param version Optional version the caller last read; a stale version is rejected with 409.
      * @return Success or error message.
      */
     @DeleteMapping("/users/{email}")
     @Operation(summary = "Delete a user by email", description = "Deletes the user with the given email. Admins cannot delete themselves.")
-    public ResponseEntity<?> deleteUser(@PathVariable String email) {
+    public ResponseEntity<?> deleteUser(@PathVariable String email, @RequestParam(required = false) Long version) {
         try {
             Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-            if (auth != null && email.equalsIgnoreCase(auth.getName())) {
+            if (auth != null && sameEmail(email, auth.getName())) {
                 log.warn("Attempt to delete own admin account: {}", email);
                 return ResponseEntity.badRequest().body("Cannot delete the currently authenticated admin");
             }
 
-            adminService.deleteUserByEmail(email);
+            adminService.deleteUserByEmail(email, version);
             log.info("User deleted successfully: {}", email);
             return ResponseEntity.ok("User deleted successfully");
+        } catch (OptimisticLockingFailureException e) {
+            log.warn("Concurrent modification while deleting user {}", email);
+            return conflict();
         } catch (Exception e) {
             log.error("Error deleting user with email {}", email, e);
             return ResponseEntity.internalServerError().body("Failed to delete user");
@@ -94,7 +282,8 @@ public class AdminController {
      * Update a user's role.
      *
      * @param email   Email address of the user whose role is to be updated.
-     * @param request Request body containing the new role.
+     * @param request Request body containing the new role and, optionally, the version the caller
+     *                last read; a stale version is rejected with 409.
      * @return Success or error message.
      */
     @PutMapping("/users/{email}/role")
@@ -104,14 +293,17 @@ public class AdminController {
             @RequestBody UpdateRoleRequest request) {
         try {
             Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-            if (auth != null && email.equalsIgnoreCase(auth.getName())) {
+            if (auth != null && sameEmail(email, auth.getName())) {
                 log.warn("Attempt to change own admin role: {}", email);
                 return ResponseEntity.badRequest().body("Cannot change your own role");
             }
 
-            adminService.updateUserRole(email, request.getRole());
+            adminService.updateUserRole(email, request.getRole(), request.getVersion());
             log.info("Role updated successfully for user: {}", email);
             return ResponseEntity.ok("Role updated successfully");
+        } catch (OptimisticLockingFailureException e) {
+            log.warn("Concurrent modification while updating role for user {}", email);
+            return conflict();
         } catch (Exception e) {
             log.error("Error updating role for user {}", email, e);
             return ResponseEntity.internalServerError().body("Failed to update role");
@@ -136,4 +328,80 @@ public class AdminController {
             return ResponseEntity.internalServerError().body("Failed to fetch user");
         }
     }
+
+    /**
+     * Update the role of many users at once, selected by a list of emails or by country and/or role.
+     * The authenticated admin is never modified: listing their own email is rejected, and filters
+     * skip them.
+     *
+     * @param request The user filter and the role to assign.
+     * @return {@link BulkOperationResult} with matched and updated counts.
+     */
+    @PostMapping("/users/bulk/role")
+    @Operation(summary = "Bulk update user roles", description = "Assigns a role to every user matching a list of emails or a country/role filter. Admins cannot change their own role.")
+    public ResponseEntity<?> bulkUpdateUserRole(@RequestBody BulkRoleUpdateRequest request) {
+        try {
+            String self = currentUserEmail();
+            if (listsEmail(request.getFilter(), self)) {
+                log.warn("Attempt to change own admin role in bulk: {}", self);
+                return ResponseEntity.badRequest().body("Cannot change your own role");
+            }
+
+            BulkOperationResult result = adminService.bulkUpdateRole(request.getFilter(), request.getRole(), self);
+            log.info("Bulk role update to {} affected {} users", request.getRole(), result.getAffected());
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            log.error("Error in bulk role update", e);
+            return ResponseEntity.internalServerError().body("Failed to update roles");
+        }
+    }
+
+    /**
+     * Delete many users at once, selected by a list of emails or by country and/or role.
+     * The authenticated admin is never deleted.
+     *
+     * @param filter The users to delete.
+     * @return {@link BulkOperationResult} with matched and deleted counts.
+     */
+    @PostMapping("/users/bulk/delete")
+    @Operation(summary = "Bulk delete users", description = "Deletes every user matching a list of emails or a country/role filter. Admins cannot delete themselves.")
+    public ResponseEntity<?> bulkDeleteUsers(@RequestBody BulkUserFilter filter) {
+        try {
+            String self = currentUserEmail();
+            if (listsEmail(filter, self)) {
+                log.warn("Attempt to delete own admin account in bulk: {}", self);
+                return ResponseEntity.badRequest().body("Cannot delete the currently authenticated admin");
+            }
+
+            BulkOperationResult result = adminService.bulkDelete(filter, self);
+            log.info("Bulk delete removed {} users", result.getAffected());
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            log.error("Error in bulk delete", e);
+            return ResponseEntity.internalServerError().body("Failed to delete users");
+        }
+    }
+
+    private static ResponseEntity<String> conflict() {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body("User was modified by another request; reload it and retry");
+    }
+
+    private static String currentUserEmail() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth != null ? auth.getName() : null;
+    }
+
+    private static boolean listsEmail(BulkUserFilter filter, String email) {
+        return email != null && filter != null && filter.getEmails() != null
+                && filter.getEmails().stream().anyMatch(listed -> sameEmail(listed, email));
+    }
+
+    private static boolean sameEmail(String a, String b) {
+        return User.normalizeEmail(a).equals(User.normalizeEmail(b));
+    }
 }
@@ -1,11 +1,16 @@
 package com.mykare.usermanagement.controller;
 
 import com.mykare.usermanagement.dto.*;
+import com.mykare.usermanagement.security.ClientAddressResolver;
+import com.mykare.usermanagement.security.HashingCapacityExceededException;
 import com.mykare.usermanagement.service.AuthService;
 import io.swagger.v3.oas.annotations.Operation;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -15,11 +20,13 @@ import java.util.*;
 
 @Slf4j
 @RestController
+@Profile("!reactive")
 @RequestMapping("/auth")
 @RequiredArgsConstructor
 public class AuthController {
 
     private final AuthService authService;
+    private final ClientAddressResolver clientAddressResolver;
 
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     @ExceptionHandler(MethodArgumentNotValidException.class)
@@ -35,13 +42,17 @@ public class AuthController {
 
     @Operation(summary = "Register user", description = "Creates a new user account")
     @PostMapping("/register")
-    public ResponseEntity<?> registerUser(@Valid @RequestBody RegisterRequest request) {
+    public ResponseEntity<?> registerUser(@Valid @RequestBody RegisterRequest request, HttpServletRequest httpRequest) {
         log.info("Register request for email: {}", request.getEmail());
         try {
-            String response = authService.registerUser(request);
+            String response = authService.registerUser(request, clientAddressResolver.resolve(httpRequest));
             log.info("User registered successfully: {}", request.getEmail());
             return ResponseEntity.ok(response);
         }
+        catch (HashingCapacityExceededException e) {
+            log.warn("Registration rejected for {}: {}", request.getEmail(), e.getMessage());
+            return serviceUnavailable(e);
+        }
         catch (Exception e) {
             log.error("Error registering user: {}", request.getEmail(), e);
             return ResponseEntity.badRequest().body("Registration failed: " + e.getMessage());
@@ -56,9 +67,18 @@ public class AuthController {
             LoginResponse response = authService.login(request);
             log.info("Login successful for email: {}", request.getEmail());
             return ResponseEntity.ok(response);
+        } catch (HashingCapacityExceededException e) {
+            log.warn("Login rejected for {}: {}", request.getEmail(), e.getMessage());
+            return serviceUnavailable(e);
         } catch (Exception e) {
             log.error("Login failed for email: {}", request.getEmail(), e);
             return ResponseEntity.status(401).body("Invalid credentials: " + e.getMessage());
         }
     }
+
+    private ResponseEntity<String> serviceUnavailable(HashingCapacityExceededException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body("Service temporarily overloaded, please retry");
+    }
 }
@@ -0,0 +1,367 @@
+package com.mykare.usermanagement.controller;
+
+import com.mykare.usermanagement.dto.BulkRoleUpdateRequest;
+import com.mykare.usermanagement.dto.BulkUserFilter;
+import com.mykare.usermanagement.dto.UpdateRoleRequest;
+import com.mykare.usermanagement.dto.UserPage;
+import com.mykare.usermanagement.dto.UserSearchCriteria;
+import com.mykare.usermanagement.dto.UserStats;
+import com.mykare.usermanagement.model.Role;
+import com.mykare.usermanagement.model.User;
+import com.mykare.usermanagement.service.ReactiveAdminService;
+import com.mykare.usermanagement.service.ReactiveUserImportService;
+import com.mykare.usermanagement.service.UserDataFormat;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.StringDecoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * The {@code /admin} API on the reactive stack, with the same requests, responses and status codes
+ * as {@link AdminController}. Gzip-encoded exports are only served by the servlet stack.
+ */
+@Slf4j
+@RestController
+@Profile("reactive")
+@RequestMapping("/admin")
+@PreAuthorize("hasRole('ADMIN')")
+@RequiredArgsConstructor
+@Tag(name = "Admin Management", description = "APIs for managing users - accessible only to Admin users")
+public class ReactiveAdminController {
+
+    private static final StringDecoder LINE_DECODER = StringDecoder.allMimeTypes();
+
+    private final ReactiveAdminService adminService;
+    private final ReactiveUserImportService importService;
+
+    /**
+     * Retrieve one page of registered users, see {@link AdminController#getAllUsers}.
+     */
+    @GetMapping("/users")
+    @Operation(summary = "Get users", description = "Fetches a page of registered users using cursor pagination. Accessible only to admins.")
+    public Mono<ResponseEntity<?>> getAllUsers(
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = "id") String sort,
+            @RequestParam(defaultValue = "asc") String direction) {
+        log.info("Fetching users after cursor {}...", after);
+        return adminService.getUsers(after, limit, sort, direction)
+                .map(ReactiveAdminController::pageResponse)
+                .onErrorResume(IllegalArgumentException.class, e -> {
+                    log.warn("Invalid user listing request: {}", e.getMessage());
+                    return Mono.just(ResponseEntity.badRequest().body(e.getMessage()));
+                })
+                .onErrorResume(e -> {
+                    log.error("Error fetching all users", e);
+                    return Mono.just(ResponseEntity.internalServerError().body("Failed to fetch users"));
+                });
+    }
+
+    /**
+     * Search users by country, role, gender, name prefix and email prefix, see {@link AdminController#searchUsers}.
+     */
+    @GetMapping("/users/search")
+    @Operation(summary = "Search users", description = "Filters users by country, role, gender and name or email prefix using cursor pagination. Accessible only to admins.")
+    public Mono<ResponseEntity<?>> searchUsers(
+            @RequestParam(required = false) String country,
+            @RequestParam(required = false) Role role,
+            @RequestParam(required = false) String gender,
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) String email,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        UserSearchCriteria criteria = UserSearchCriteria.builder()
+                .country(country)
+                .role(role)
+                .gender(gender)
+                .namePrefix(name)
+                .emailPrefix(email)
+                .build();
+        return adminService.search(criteria, after, limit)
+                .map(ReactiveAdminController::pageResponse)
+                .onErrorResume(IllegalArgumentException.class, e -> {
+                    log.warn("Invalid user search request: {}", e.getMessage());
+                    return Mono.just(ResponseEntity.badRequest().body(e.getMessage()));
+                })
+                .onErrorResume(e -> {
+                    log.error("Error searching users", e);
+                    return Mono.just(ResponseEntity.internalServerError().body("Failed to search users"));
+                });
+    }
+
+    /**
+     * Counts of users in total and by role, country and gender, counted by the database on each request.
+     */
+    @GetMapping("/users/stats")
+    @Operation(summary = "Get user statistics", description = "Returns user counts by role, country and gender. Accessible only to admins.")
+    public Mono<ResponseEntity<UserStats>> getUserStats() {
+        return adminService.getStats().map(ResponseEntity::ok);
+    }
+
+    /**
+     * Stream every registered user as NDJSON or CSV, rows written as they are read.
+     *
+     * @param format {@code ndjson} (default) or {@code csv}.
+     */
+    @GetMapping("/users/export")
+    @Operation(summary = "Export all users", description = "Streams all users as NDJSON or CSV. Accessible only to admins.")
+    public Mono<ResponseEntity<Flux<String>>> exportUsers(@RequestParam(defaultValue = "ndjson") String format) {
+        UserDataFormat exportFormat;
+        try {
+            exportFormat = UserDataFormat.from(format);
+        } catch (IllegalArgumentException e) {
+            return Mono.just(ResponseEntity.badRequest()
+                    .contentType(MediaType.TEXT_PLAIN)
+                    .body(Flux.just(e.getMessage())));
+        }
+        log.info("Exporting all users as {}", exportFormat);
+        return Mono.just(ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"users." + exportFormat.getFileExtension() + "\"")
+                .body(adminService.export(exportFormat)));
+    }
+
+    /**
+     * Register users in bulk from an NDJSON or CSV body, optionally gzip-encoded, see
+     * {@link AdminController#importUsers}. Rows are parsed as the body arrives.
+     */
+    @PostMapping(value = "/users/import", consumes = {"application/x-ndjson", "text/csv"})
+    @Operation(summary = "Import users", description = "Registers users in bulk from a streamed NDJSON or CSV body and reports per-row errors. Accessible only to admins.")
+    public Mono<ResponseEntity<?>> importUsers(ServerHttpRequest request) {
+        MediaType contentType = request.getHeaders().getContentType();
+        UserDataFormat format = contentType != null
+                && contentType.isCompatibleWith(MediaType.parseMediaType(UserDataFormat.CSV.getContentType()))
+                ? UserDataFormat.CSV
+                : UserDataFormat.NDJSON;
+        boolean gzip = "gzip".equalsIgnoreCase(request.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        log.info("Importing users from {} body", format);
+        return importService.importUsers(format, lines(request.getBody(), gzip))
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .onErrorResume(IllegalArgumentException.class, e -> {
+                    log.warn("Rejected user import: {}", e.getMessage());
+                    return Mono.just(ResponseEntity.badRequest().body(e.getMessage()));
+                })
+                .onErrorResume(e -> {
+                    log.error("Error importing users", e);
+                    return Mono.just(ResponseEntity.internalServerError().body("Failed to import users"));
+                });
+    }
+
+    /**
+     * Delete a user by email address, see {@link AdminController#deleteUser}.
+     */
+    @DeleteMapping("/users/{email}")
+    @Operation(summary = "Delete a user by email", description = "Deletes the user with the given email. Admins cannot delete themselves.")
+    public Mono<ResponseEntity<?>> deleteUser(@PathVariable String email, @RequestParam(required = false) Long version) {
+        return currentUserEmail()
+                .filter(self -> sameEmail(email, self))
+                .<ResponseEntity<?>>map(self -> {
+                    log.warn("Attempt to delete own admin account: {}", email);
+                    return ResponseEntity.badRequest().body("Cannot delete the currently authenticated admin");
+                })
+                .switchIfEmpty(Mono.defer(() -> adminService.deleteUserByEmail(email, version)
+                        .then(Mono.fromSupplier(() -> {
+                            log.info("User deleted successfully: {}", email);
+                            return ResponseEntity.ok("User deleted successfully");
+                        }))))
+                .onErrorResume(OptimisticLockingFailureException.class, e -> {
+                    log.warn("Concurrent modification while deleting user {}", email);
+                    return Mono.just(conflict());
+                })
+                .onErrorResume(e -> {
+                    log.error("Error deleting user with email {}", email, e);
+                    return Mono.just(ResponseEntity.internalServerError().body("Failed to delete user"));
+                });
+    }
+
+    /**
+     * Retrieve user details by ID.
+     *
+     * @param id User's unique ID.
+     */
+    @GetMapping("/users/{id}")
+    @Operation(summary = "Get user by ID", description = "Fetches the details of a user by their unique ID.")
+    public Mono<ResponseEntity<?>> getUserById(@PathVariable Long id) {
+        log.info("Fetching user by ID: {}", id);
+        return adminService.getUserById(id)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .onErrorResume(e -> {
+                    log.error("Error fetching user with ID {}", id, e);
+                    return Mono.just(ResponseEntity.internalServerError().body("Failed to fetch user"));
+                });
+    }
+
+    /**
+     * Update a user's role, see {@link AdminController#updateUserRole}.
+     */
+    @PutMapping("/users/{email}/role")
+    @Operation(summary = "Update user role", description = "Updates the role of the specified user. Admins cannot change their own role.")
+    public Mono<ResponseEntity<?>> updateUserRole(
+            @PathVariable String email,
+            @RequestBody UpdateRoleRequest request) {
+        return currentUserEmail()
+                .filter(self -> sameEmail(email, self))
+                .<ResponseEntity<?>>map(self -> {
+                    log.warn("Attempt to change own admin role: {}", email);
+                    return ResponseEntity.badRequest().body("Cannot change your own role");
+                })
+                .switchIfEmpty(Mono.defer(() -> adminService.updateUserRole(email, request.getRole(), request.getVersion())
+                        .then(Mono.fromSupplier(() -> {
+                            log.info("Role updated successfully for user: {}", email);
+                            return ResponseEntity.ok("Role updated successfully");
+                        }))))
+                .onErrorResume(OptimisticLockingFailureException.class, e -> {
+                    log.warn("Concurrent modification while updating role for user {}", email);
+                    return Mono.just(conflict());
+                })
+                .onErrorResume(e -> {
+                    log.error("Error updating role for user {}", email, e);
+                    return Mono.just(ResponseEntity.internalServerError().body("Failed to update role"));
+                });
+    }
+
+    /**
+     * Retrieve user details by email address.
+     *
+     * @param email Email address of the user.
+     */
+    @GetMapping("/users/email/{email}")
+    @Operation(summary = "Get user by email", description = "Fetches the details of a user by their email address.")
+    public Mono<ResponseEntity<?>> getUserByEmail(@PathVariable String email) {
+        log.info("Fetching user by email: {}", email);
+        return adminService.getUserByEmail(email)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .onErrorResume(e -> {
+                    log.error("Error fetching user with email {}", email, e);
+                    return Mono.just(ResponseEntity.internalServerError().body("Failed to fetch user"));
+                });
+    }
+
+    /**
+     * Update the role of many users at once, see {@link AdminController#bulkUpdateUserRole}.
+     */
+    @PostMapping("/users/bulk/role")
+    @Operation(summary = "Bulk update user roles", description = "Assigns a role to every user matching a list of emails or a country/role filter. Admins cannot change their own role.")
+    public Mono<ResponseEntity<?>> bulkUpdateUserRole(@RequestBody BulkRoleUpdateRequest request) {
+        return currentUserEmail()
+                .defaultIfEmpty("")
+                .flatMap(self -> {
+                    if (listsEmail(request.getFilter(), self)) {
+                        log.warn("Attempt to change own admin role in bulk: {}", self);
+                        return Mono.just(ResponseEntity.badRequest().body("Cannot change your own role"));
+                    }
+                    return adminService.bulkUpdateRole(request.getFilter(), request.getRole(), self)
+                            .<ResponseEntity<?>>map(result -> {
+                                log.info("Bulk role update to {} affected {} users", request.getRole(), result.getAffected());
+                                return ResponseEntity.ok(result);
+                            });
+                })
+                .onErrorResume(IllegalArgumentException.class, e -> Mono.just(ResponseEntity.badRequest().body(e.getMessage())))
+                .onErrorResume(e -> {
+                    log.error("Error in bulk role update", e);
+                    return Mono.just(ResponseEntity.internalServerError().body("Failed to update roles"));
+                });
+    }
+
+    /**
+     * Delete many users at once, see {@link AdminController#bulkDeleteUsers}.
+     */
+    @PostMapping("/users/bulk/delete")
+    @Operation(summary = "Bulk delete users", description = "Deletes every user matching a list of emails or a country/role filter. Admins cannot delete themselves.")
+    public Mono<ResponseEntity<?>> bulkDeleteUsers(@RequestBody BulkUserFilter filter) {
+        return currentUserEmail()
+                .defaultIfEmpty("")
+                .flatMap(self -> {
+                    if (listsEmail(filter, self)) {
+                        log.warn("Attempt to delete own admin account in bulk: {}", self);
+                        return Mono.just(ResponseEntity.badRequest().body("Cannot delete the currently authenticated admin"));
+                    }
+                    return adminService.bulkDelete(filter, self)
+                            .<ResponseEntity<?>>map(result -> {
+                                log.info("Bulk delete removed {} users", result.getAffected());
+                                return ResponseEntity.ok(result);
+                            });
+                })
+                .onErrorResume(IllegalArgumentException.class, e -> Mono.just(ResponseEntity.badRequest().body(e.getMessage())))
+                .onErrorResume(e -> {
+                    log.error("Error in bulk delete", e);
+                    return Mono.just(ResponseEntity.internalServerError().body("Failed to delete users"));
+                });
+    }
+
+    /**
+     * Splits a UTF-8 body into lines without their terminators. A gzip-encoded body is inflated
+     * through a blocking stream, so it is read on the bounded elastic scheduler instead of an event loop.
+     */
+    private static Flux<String> lines(Flux<DataBuffer> body, boolean gzip) {
+        if (!gzip) {
+            return LINE_DECODER.decode(body, ResolvableType.forClass(String.class), null, null);
+        }
+        return Flux.using(
+                        () -> new BufferedReader(new InputStreamReader(
+                                new GZIPInputStream(DataBufferUtils.subscriberInputStream(body, 4)), StandardCharsets.UTF_8)),
+                        reader -> Flux.fromStream(reader.lines()),
+                        reader -> {
+                            try {
+                                reader.close();
+                            } catch (IOException e) {
+                                log.debug("Could not close import body", e);
+                            }
+                        })
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private static ResponseEntity<?> pageResponse(UserPage page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(AdminController.NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getUsers());
+    }
+
+    private static ResponseEntity<String> conflict() {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body("User was modified by another request; reload it and retry");
+    }
+
+    private static Mono<String> currentUserEmail() {
+        return ReactiveSecurityContextHolder.getContext()
+                .map(SecurityContext::getAuthentication)
+                .map(Authentication::getName);
+    }
+
+    private static boolean listsEmail(BulkUserFilter filter, String email) {
+        return !email.isEmpty() && filter != null && filter.getEmails() != null
+                && filter.getEmails().stream().anyMatch(listed -> sameEmail(listed, email));
+    }
+
+    private static boolean sameEmail(String a, String b) {
+        return User.normalizeEmail(a).equals(User.normalizeEmail(b));
+    }
+}
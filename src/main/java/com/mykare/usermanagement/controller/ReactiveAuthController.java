@@ -0,0 +1,94 @@
+package com.mykare.usermanagement.controller;
+
+import com.mykare.usermanagement.dto.LoginRequest;
+import com.mykare.usermanagement.dto.RegisterRequest;
+import com.mykare.usermanagement.security.ClientAddressResolver;
+import com.mykare.usermanagement.security.HashingCapacityExceededException;
+import com.mykare.usermanagement.service.ReactiveAuthService;
+import io.swagger.v3.oas.annotations.Operation;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The {@code /auth} API on the reactive stack, with the same requests, responses and status codes
+ * as {@link AuthController}.
+ */
+@Slf4j
+@RestController
+@Profile("reactive")
+@RequestMapping("/auth")
+@RequiredArgsConstructor
+public class ReactiveAuthController {
+
+    private final ReactiveAuthService authService;
+    private final ClientAddressResolver clientAddressResolver;
+
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    @ExceptionHandler(WebExchangeBindException.class)
+    public Map<String, String> handleValidationExceptions(WebExchangeBindException ex) {
+        Map<String, String> errors = new HashMap<>();
+        ex.getBindingResult().getAllErrors().forEach((error) -> {
+            String fieldName = ((FieldError) error).getField();
+            String errorMessage = error.getDefaultMessage();
+            errors.put(fieldName, errorMessage);
+        });
+        return errors;
+    }
+
+    @Operation(summary = "Register user", description = "Creates a new user account")
+    @PostMapping("/register")
+    public Mono<ResponseEntity<?>> registerUser(@Valid @RequestBody RegisterRequest request, ServerHttpRequest httpRequest) {
+        log.info("Register request for email: {}", request.getEmail());
+        return authService.registerUser(request, clientAddressResolver.resolve(httpRequest))
+                .<ResponseEntity<?>>map(response -> {
+                    log.info("User registered successfully: {}", request.getEmail());
+                    return ResponseEntity.ok(response);
+                })
+                .onErrorResume(HashingCapacityExceededException.class, e -> {
+                    log.warn("Registration rejected for {}: {}", request.getEmail(), e.getMessage());
+                    return Mono.just(serviceUnavailable(e));
+                })
+                .onErrorResume(e -> {
+                    log.error("Error registering user: {}", request.getEmail(), e);
+                    return Mono.just(ResponseEntity.badRequest().body("Registration failed: " + e.getMessage()));
+                });
+    }
+
+    @Operation(summary = "Login user", description = "Authenticate using Basic Authentication (username/password)")
+    @PostMapping("/login")
+    public Mono<ResponseEntity<?>> loginUser(@Valid @RequestBody LoginRequest request) {
+        log.info("Login attempt for email: {}", request.getEmail());
+        return authService.login(request)
+                .<ResponseEntity<?>>map(response -> {
+                    log.info("Login successful for email: {}", request.getEmail());
+                    return ResponseEntity.ok(response);
+                })
+                .onErrorResume(HashingCapacityExceededException.class, e -> {
+                    log.warn("Login rejected for {}: {}", request.getEmail(), e.getMessage());
+                    return Mono.just(serviceUnavailable(e));
+                })
+                .onErrorResume(e -> {
+                    log.error("Login failed for email: {}", request.getEmail(), e);
+                    return Mono.just(ResponseEntity.status(401).body("Invalid credentials: " + e.getMessage()));
+                });
+    }
+
+    private ResponseEntity<String> serviceUnavailable(HashingCapacityExceededException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body("Service temporarily overloaded, please retry");
+    }
+}
@@ -0,0 +1,17 @@
+package com.mykare.usermanagement.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkOperationResult {
+
+    /** Users that matched the filter. */
+    private long matched;
+    /** Users actually updated or deleted. */
+    private long affected;
+
+}
@@ -0,0 +1,17 @@
+package com.mykare.usermanagement.dto;
+
+import com.mykare.usermanagement.model.Role;
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkRoleUpdateRequest {
+
+    private BulkUserFilter filter;
+    /** Role to assign to every matching user. */
+    private Role role;
+
+}
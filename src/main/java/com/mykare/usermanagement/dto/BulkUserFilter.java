@@ -0,0 +1,23 @@
+package com.mykare.usermanagement.dto;
+
+import com.mykare.usermanagement.model.Role;
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Selects the users a bulk operation applies to: either an explicit list of emails, or every user
+ * matching the given country and/or role.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkUserFilter {
+
+    private List<String> emails;
+    private String country;
+    private Role role;
+
+}
@@ -2,6 +2,8 @@ package com.mykare.usermanagement.dto;
 
 import lombok.*;
 
+import java.time.Instant;
+
 @Getter
 @Setter
 @NoArgsConstructor
@@ -11,5 +13,8 @@ public class LoginResponse {
 
     private String message;
     private String email;
+    private String accessToken;
+    private String tokenType;
+    private Instant expiresAt;
 
 }
@@ -8,4 +8,6 @@ import lombok.Setter;
 @Setter
 public class UpdateRoleRequest {
     private Role role;
+    /** Version the client last read; when set, the update is rejected if the user has changed since. */
+    private Long version;
 }
@@ -0,0 +1,9 @@
+package com.mykare.usermanagement.dto;
+
+import com.mykare.usermanagement.model.Role;
+
+/**
+ * Number of users sharing one combination of role, country and gender.
+ */
+public record UserCount(Role role, String country, String gender, long count) {
+}
@@ -0,0 +1,9 @@
+package com.mykare.usermanagement.dto;
+
+import com.mykare.usermanagement.model.Role;
+
+/**
+ * Projection of the columns bulk operations need to address a user and announce the change.
+ */
+public record UserIdentity(Long id, String email, Role role, String country, String gender) {
+}
@@ -0,0 +1,17 @@
+package com.mykare.usermanagement.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserImportError {
+
+    /** Line of the input the row came from, starting at 1. */
+    private long line;
+    private String email;
+    private String message;
+
+}
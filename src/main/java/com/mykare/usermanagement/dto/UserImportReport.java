@@ -0,0 +1,24 @@
+package com.mykare.usermanagement.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserImportReport {
+
+    private long received;
+    private long imported;
+    private long failed;
+    private long durationMillis;
+    private double rowsPerSecond;
+    /** Per-row failures, up to the configured maximum. */
+    private List<UserImportError> errors;
+    /** True when more rows failed than are listed in {@link #errors}. */
+    private boolean errorsTruncated;
+
+}
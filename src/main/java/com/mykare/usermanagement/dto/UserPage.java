@@ -0,0 +1,18 @@
+package com.mykare.usermanagement.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserPage {
+
+    private List<UserResponse> users;
+    /** Opaque cursor for the following page, or null when this is the last page. */
+    private String nextCursor;
+
+}
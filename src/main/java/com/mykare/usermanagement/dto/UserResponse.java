@@ -1,5 +1,6 @@
 package com.mykare.usermanagement.dto;
 
+import com.mykare.usermanagement.model.EnrichmentStatus;
 import com.mykare.usermanagement.model.Role;
 import com.mykare.usermanagement.model.User;
 import lombok.*;
@@ -17,6 +18,8 @@ public class UserResponse {
     private String ipAddress;
     private String country;
     private Role role;
+    private EnrichmentStatus enrichmentStatus;
+    private Long version;
 
     public static UserResponse fromEntity(User user) {
         return UserResponse.builder()
@@ -27,6 +30,8 @@ public class UserResponse {
                 .gender(user.getGender())
                 .country(user.getCountry())
                 .ipAddress(user.getIpAddress())
+                .enrichmentStatus(user.getEnrichmentStatus())
+                .version(user.getVersion())
                 .build();
     }
 }
@@ -0,0 +1,24 @@
+package com.mykare.usermanagement.dto;
+
+import com.mykare.usermanagement.model.Role;
+import lombok.*;
+
+/**
+ * Filters for the admin user search. Every field is optional and the given ones are combined with AND.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserSearchCriteria {
+
+    private String country;
+    private Role role;
+    private String gender;
+    /** Case-sensitive prefix of the user's name. */
+    private String namePrefix;
+    /** Case-insensitive prefix of the user's email. */
+    private String emailPrefix;
+
+}
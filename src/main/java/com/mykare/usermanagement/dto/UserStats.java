@@ -0,0 +1,22 @@
+package com.mykare.usermanagement.dto;
+
+import lombok.*;
+
+import java.time.Instant;
+import java.util.Map;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserStats {
+
+    private long total;
+    private Map<String, Long> byRole;
+    private Map<String, Long> byCountry;
+    private Map<String, Long> byGender;
+    /** When the counters were last checked against the database. */
+    private Instant reconciledAt;
+
+}
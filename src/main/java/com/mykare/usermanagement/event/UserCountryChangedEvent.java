@@ -0,0 +1,11 @@
+package com.mykare.usermanagement.event;
+
+/**
+ * Published once a user's country has been changed, normally by geo enrichment.
+ *
+ * @param userId          ID of the user.
+ * @param previousCountry Country the user had before the change.
+ * @param newCountry      Country the user has now.
+ */
+public record UserCountryChangedEvent(Long userId, String previousCountry, String newCountry) {
+}
@@ -0,0 +1,15 @@
+package com.mykare.usermanagement.event;
+
+import com.mykare.usermanagement.model.Role;
+
+/**
+ * Published once a user row has been deleted.
+ *
+ * @param userId  ID of the deleted user.
+ * @param email   Email address of the deleted user.
+ * @param role    Role the user had when it was deleted.
+ * @param country Country the user had when it was deleted.
+ * @param gender  Gender the user had when it was deleted.
+ */
+public record UserDeletedEvent(Long userId, String email, Role role, String country, String gender) {
+}
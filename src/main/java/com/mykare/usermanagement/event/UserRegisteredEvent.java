@@ -0,0 +1,15 @@
+package com.mykare.usermanagement.event;
+
+import com.mykare.usermanagement.model.Role;
+
+/**
+ * Published once a new user row has been saved.
+ *
+ * @param userId  ID of the persisted user.
+ * @param email   Email address the user registered with.
+ * @param role    Role the user was created with.
+ * @param country Country the user was created with, before geo enrichment.
+ * @param gender  Gender the user registered with.
+ */
+public record UserRegisteredEvent(Long userId, String email, Role role, String country, String gender) {
+}
@@ -0,0 +1,17 @@
+package com.mykare.usermanagement.event;
+
+import com.mykare.usermanagement.model.Role;
+
+/**
+ * Published once a user's role has been changed.
+ *
+ * @param userId       ID of the user.
+ * @param email        Email address of the user.
+ * @param previousRole Role the user had before the change.
+ * @param newRole      Role the user has now.
+ * @param country      Country the user has, unchanged by the role change.
+ * @param gender       Gender the user has, unchanged by the role change.
+ */
+public record UserRoleChangedEvent(Long userId, String email, Role previousRole, Role newRole,
+                                   String country, String gender) {
+}
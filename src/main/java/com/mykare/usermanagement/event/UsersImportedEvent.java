@@ -0,0 +1,10 @@
+package com.mykare.usermanagement.event;
+
+/**
+ * Published once a chunk of a bulk import has been committed. Imports do not announce each
+ * user, so listeners that track individual users are not notified.
+ *
+ * @param count Number of users the chunk inserted.
+ */
+public record UsersImportedEvent(int count) {
+}
@@ -0,0 +1,10 @@
+package com.mykare.usermanagement.model;
+
+/**
+ * Progress of the background geo-IP enrichment for a registered user.
+ */
+public enum EnrichmentStatus {
+    PENDING,
+    COMPLETED,
+    FAILED
+}
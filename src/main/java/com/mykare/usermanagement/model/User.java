@@ -2,11 +2,23 @@ package com.mykare.usermanagement.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
+import java.util.Locale;
+
+/**
+ * Schema, constraints and indexes are defined by the Flyway migrations in {@code db/migration}.
+ * Updates through the entity write only the columns that changed.
+ */
 @Entity
-@Table(name = "users", uniqueConstraints = {
-        @UniqueConstraint(columnNames = "email")
-})
+@Table(name = "users")
+@DynamicUpdate
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = User.CACHE_REGION)
+@NaturalIdCache(region = User.NATURAL_ID_CACHE_REGION)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -14,15 +26,32 @@ import lombok.*;
 @Builder
 public class User {
 
+    /** Second-level cache region holding users by ID. */
+    public static final String CACHE_REGION = "users";
+    /** Second-level cache region resolving {@link #emailNormalized} to an ID. */
+    public static final String NATURAL_ID_CACHE_REGION = "users-by-email";
+
+    /** Pooled sequence, so Hibernate can batch inserts and fetch IDs once per allocation block. */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
 
     private String name;
 
-    @Column(nullable = false, unique = true)
+    @Column(nullable = false)
     private String email;
 
+    /**
+     * {@link #email} as returned by {@link #normalizeEmail}, kept in sync on every insert and update.
+     * Lookups and the uniqueness check go through this column, so they are case-insensitive and
+     * still served by its index.
+     */
+    @NaturalId
+    @Column(name = "email_normalized", nullable = false)
+    @Setter(AccessLevel.NONE)
+    private String emailNormalized;
+
     private String gender;
 
     private String password;
@@ -33,4 +62,27 @@ public class User {
 
     @Enumerated(EnumType.STRING)
     private Role role;
+
+    @Enumerated(EnumType.STRING)
+    private EnrichmentStatus enrichmentStatus;
+
+    @Builder.Default
+    private int enrichmentAttempts = 0;
+
+    /** Optimistic-lock version, incremented by every update including the single-user and bulk statements in the repository. */
+    @Version
+    private Long version;
+
+    @PrePersist
+    @PreUpdate
+    void syncEmailNormalized() {
+        emailNormalized = normalizeEmail(email);
+    }
+
+    /**
+     * The form emails are compared in: surrounding whitespace removed and lower-cased.
+     */
+    public static String normalizeEmail(String email) {
+        return email == null ? null : email.strip().toLowerCase(Locale.ROOT);
+    }
 }
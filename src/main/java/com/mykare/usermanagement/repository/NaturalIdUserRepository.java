@@ -0,0 +1,59 @@
+package com.mykare.usermanagement.repository;
+
+import com.mykare.usermanagement.dto.UserIdentity;
+import com.mykare.usermanagement.model.Role;
+import com.mykare.usermanagement.model.User;
+
+import java.util.Optional;
+
+/**
+ * Lookups that go through Hibernate's natural-id API, and so through the second-level cache,
+ * rather than a query, and single-user writes that keep the rest of that cache intact.
+ * <p>
+ * The role updates and deletes by email are one statement each that also returns the row as it
+ * was before the change, so callers can announce it without reading the user first. Only the
+ * affected user's cache entries are evicted; a JPQL bulk statement would invalidate the whole
+ * User regions.
+ */
+public interface NaturalIdUserRepository {
+
+    /**
+     * Finds a user by email, compared in its normalized form. A cached user is returned without
+     * querying the database.
+     */
+    Optional<User> findByEmail(String email);
+
+    /**
+     * Replaces a user's password hash through the managed entity, so only this user's cache
+     * entry is updated rather than the whole region being invalidated.
+     *
+     * @return false if no user has this email.
+     */
+    boolean updatePassword(String email, String password);
+
+    /**
+     * Sets the role in one statement; matches nothing if the user already has it.
+     *
+     * @return The user as it was before the update, or empty if no row matched.
+     */
+    Optional<UserIdentity> updateRoleByEmail(String email, Role role);
+
+    /**
+     * Sets the role in one statement, only if the user is still at {@code version}.
+     *
+     * @return The user as it was before the update, or empty if no row matched.
+     */
+    Optional<UserIdentity> updateRoleByEmailAndVersion(String email, Role role, long version);
+
+    /**
+     * @return The deleted user, or empty if no row matched.
+     */
+    Optional<UserIdentity> deleteByEmail(String email);
+
+    /**
+     * Deletes the user only if it is still at {@code version}.
+     *
+     * @return The deleted user, or empty if no row matched.
+     */
+    Optional<UserIdentity> deleteByEmailAndVersion(String email, long version);
+}
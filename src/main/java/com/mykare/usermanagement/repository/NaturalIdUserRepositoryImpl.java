@@ -0,0 +1,154 @@
+package com.mykare.usermanagement.repository;
+
+import com.mykare.usermanagement.dto.UserIdentity;
+import com.mykare.usermanagement.model.Role;
+import com.mykare.usermanagement.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.hibernate.cache.spi.access.NaturalIdDataAccess;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.query.NativeQuery;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+class NaturalIdUserRepositoryImpl implements NaturalIdUserRepository {
+
+    /*
+     * JPQL cannot return the rows a statement changed, so these are native. H2 reads the previous
+     * row from an OLD TABLE delta table, PostgreSQL from RETURNING (joined to the row as it was
+     * before the update for the previous role). Both run as queries, so Hibernate does not
+     * invalidate the User cache regions the way it does for a bulk statement.
+     */
+    private static final String IDENTITY_COLUMNS = "id, email, role, country, gender";
+
+    private static final String H2_UPDATE_ROLE = "select " + IDENTITY_COLUMNS + " from old table ("
+            + "update users u set role = :role, version = u.version + 1 where u.email_normalized = :email%s)";
+    private static final String H2_DELETE = "select " + IDENTITY_COLUMNS + " from old table ("
+            + "delete from users u where u.email_normalized = :email%s)";
+    private static final String POSTGRESQL_UPDATE_ROLE = "update users u set role = :role, version = u.version + 1 "
+            + "from users old where old.id = u.id and old.version = u.version and u.email_normalized = :email%s "
+            + "returning u.id, u.email, old.role, u.country, u.gender";
+    private static final String POSTGRESQL_DELETE = "delete from users u where u.email_normalized = :email%s "
+            + "returning u.id, u.email, u.role, u.country, u.gender";
+
+    private static final String ROLE_CHANGES = " and u.role <> :role";
+    private static final String VERSION_MATCHES = " and u.version = :version";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<User> findByEmail(String email) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(User.class)
+                .loadOptional(User.normalizeEmail(email));
+    }
+
+    @Override
+    @Transactional
+    public boolean updatePassword(String email, String password) {
+        Optional<User> user = findByEmail(email);
+        user.ifPresent(u -> u.setPassword(password));
+        return user.isPresent();
+    }
+
+    @Override
+    @Transactional
+    public Optional<UserIdentity> updateRoleByEmail(String email, Role role) {
+        return execute(statement(H2_UPDATE_ROLE, POSTGRESQL_UPDATE_ROLE, ROLE_CHANGES), false,
+                Map.of("email", User.normalizeEmail(email), "role", role.name()));
+    }
+
+    @Override
+    @Transactional
+    public Optional<UserIdentity> updateRoleByEmailAndVersion(String email, Role role, long version) {
+        return execute(statement(H2_UPDATE_ROLE, POSTGRESQL_UPDATE_ROLE, VERSION_MATCHES), false,
+                Map.of("email", User.normalizeEmail(email), "role", role.name(), "version", version));
+    }
+
+    @Override
+    @Transactional
+    public Optional<UserIdentity> deleteByEmail(String email) {
+        return execute(statement(H2_DELETE, POSTGRESQL_DELETE, ""), true,
+                Map.of("email", User.normalizeEmail(email)));
+    }
+
+    @Override
+    @Transactional
+    public Optional<UserIdentity> deleteByEmailAndVersion(String email, long version) {
+        return execute(statement(H2_DELETE, POSTGRESQL_DELETE, VERSION_MATCHES), true,
+                Map.of("email", User.normalizeEmail(email), "version", version));
+    }
+
+    private String statement(String h2, String postgresql, String condition) {
+        boolean postgres = sessionFactory().getJdbcServices().getDialect() instanceof PostgreSQLDialect;
+        return (postgres ? postgresql : h2).formatted(condition);
+    }
+
+    /**
+     * Runs a single-user statement and evicts that user's cache entries. They are evicted again
+     * once the transaction completes, in case another transaction cached the old row in between.
+     */
+    private Optional<UserIdentity> execute(String sql, boolean deleted, Map<String, Object> parameters) {
+        // Pending changes are written first and the persistence context is cleared afterwards,
+        // as @Modifying(flushAutomatically = true, clearAutomatically = true) would
+        entityManager.flush();
+        NativeQuery<Object[]> query = entityManager.unwrap(Session.class)
+                .createNativeQuery(sql, Object[].class)
+                .addSynchronizedEntityClass(User.class);
+        parameters.forEach(query::setParameter);
+        List<Object[]> rows = query.getResultList();
+        entityManager.clear();
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Object[] row = rows.getFirst();
+        UserIdentity user = new UserIdentity(((Number) row[0]).longValue(), (String) row[1],
+                Role.valueOf(row[2].toString()), (String) row[3], (String) row[4]);
+        Runnable evict = evictor(user, deleted);
+        evict.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict.run();
+                }
+            });
+        }
+        return Optional.of(user);
+    }
+
+    /**
+     * Evicts the user by ID and, once deleted, its email from the natural-id region; a role change
+     * leaves the email resolving to the same ID. Cache keys are built now, while the session is open.
+     */
+    private Runnable evictor(UserIdentity user, boolean deleted) {
+        SessionFactoryImplementor sessionFactory = sessionFactory();
+        if (!deleted) {
+            return () -> sessionFactory.getCache().evictEntityData(User.class, user.id());
+        }
+        EntityPersister persister = sessionFactory.getMappingMetamodel().getEntityDescriptor(User.class);
+        NaturalIdDataAccess naturalIds = persister.getNaturalIdMapping().getCacheAccess();
+        Object naturalIdKey = naturalIds.generateCacheKey(User.normalizeEmail(user.email()), persister,
+                entityManager.unwrap(SessionImplementor.class));
+        return () -> {
+            sessionFactory.getCache().evictEntityData(User.class, user.id());
+            naturalIds.evict(naturalIdKey);
+        };
+    }
+
+    private SessionFactoryImplementor sessionFactory() {
+        return entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class);
+    }
+}
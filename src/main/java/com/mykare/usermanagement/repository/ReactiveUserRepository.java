@@ -0,0 +1,479 @@
+package com.mykare.usermanagement.repository;
+
+import com.mykare.usermanagement.dto.UserCount;
+import com.mykare.usermanagement.dto.UserIdentity;
+import com.mykare.usermanagement.dto.UserResponse;
+import com.mykare.usermanagement.dto.UserSearchCriteria;
+import com.mykare.usermanagement.model.EnrichmentStatus;
+import com.mykare.usermanagement.model.Role;
+import com.mykare.usermanagement.model.User;
+import io.r2dbc.spi.Readable;
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Statement;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Sort;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.Parameter;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Non-blocking access to the {@code users} table for the reactive stack, over R2DBC. It issues
+ * the same statements as the queries in {@link UserRepository}: lookups by email compare
+ * {@code email_normalized} with a parameter normalized in Java by {@link User#normalizeEmail},
+ * and listings select the {@link UserResponse} columns only. Single-user mutations, which the
+ * JPA stack applies through the entity, are one statement here that also increments
+ * {@code version}. r2dbc-h2 binds every string as a CLOB, which H2
+ * will not convert to an ENUM, so parameters compared with or assigned to {@code role} and
+ * {@code enrichment_status} are cast to {@code varchar} first.
+ */
+@Repository
+@Profile("reactive")
+public class ReactiveUserRepository {
+
+    private static final String USER_COLUMNS = "id, name, email, email_normalized, gender, password, ip_address, "
+            + "country, role, enrichment_status, enrichment_attempts, version";
+    private static final String USER_RESPONSE_COLUMNS = "id, name, email, gender, ip_address, country, role, "
+            + "enrichment_status, version";
+    private static final String USER_IDENTITY_COLUMNS = "id, email, role, country, gender";
+    private static final Map<String, String> SORTABLE_COLUMNS = Map.of("id", "id", "email", "email");
+    private static final char LIKE_ESCAPE = '\\';
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveUserRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    /**
+     * Inserts a new user with an ID from {@code users_seq}. Every value the sequence hands out is
+     * the top of a block Hibernate's pooled optimizer has not used, so IDs stay unique if the
+     * database is later served by the JPA stack.
+     *
+     * @return The user as stored, with its ID, normalized email and initial version.
+     */
+    public Mono<User> insert(User user) {
+        return databaseClient.sql("select next value for users_seq")
+                .map(row -> row.get(0, Long.class))
+                .one()
+                .flatMap(id -> {
+                    User stored = User.builder()
+                            .id(id)
+                            .name(user.getName())
+                            .email(user.getEmail())
+                            .emailNormalized(User.normalizeEmail(user.getEmail()))
+                            .gender(user.getGender())
+                            .password(user.getPassword())
+                            .ipAddress(user.getIpAddress())
+                            .country(user.getCountry())
+                            .role(user.getRole())
+                            .enrichmentStatus(user.getEnrichmentStatus())
+                            .enrichmentAttempts(user.getEnrichmentAttempts())
+                            .version(0L)
+                            .build();
+                    return databaseClient.sql("insert into users (" + USER_COLUMNS + ") values (:id, :name, :email, "
+                                    + ":emailNormalized, :gender, :password, :ipAddress, :country, cast(:role as varchar), "
+                                    + "cast(:enrichmentStatus as varchar), :enrichmentAttempts, :version)")
+                            .bind("id", stored.getId())
+                            .bind("name", Parameter.fromOrEmpty(stored.getName(), String.class))
+                            .bind("email", stored.getEmail())
+                            .bind("emailNormalized", stored.getEmailNormalized())
+                            .bind("gender", Parameter.fromOrEmpty(stored.getGender(), String.class))
+                            .bind("password", Parameter.fromOrEmpty(stored.getPassword(), String.class))
+                            .bind("ipAddress", Parameter.fromOrEmpty(stored.getIpAddress(), String.class))
+                            .bind("country", Parameter.fromOrEmpty(stored.getCountry(), String.class))
+                            .bind("role", Parameter.fromOrEmpty(name(stored.getRole()), String.class))
+                            .bind("enrichmentStatus", Parameter.fromOrEmpty(name(stored.getEnrichmentStatus()), String.class))
+                            .bind("enrichmentAttempts", stored.getEnrichmentAttempts())
+                            .bind("version", stored.getVersion())
+                            .then()
+                            .thenReturn(stored);
+                });
+    }
+
+    /**
+     * Inserts {@code users} with IDs from {@code users_seq}, reserved for the whole list in one query
+     * and handed out like those of {@link #insert}. Rows are sent as R2DBC batches of up to
+     * {@code batchSize} bindings.
+     *
+     * @return Number of rows inserted.
+     */
+    public Mono<Long> insertAll(List<User> users, int batchSize) {
+        return databaseClient.sql("select next value for users_seq from system_range(1, :count)")
+                .bind("count", users.size())
+                .map(row -> row.get(0, Long.class))
+                .all()
+                .collectList()
+                .flatMap(ids -> databaseClient.inConnectionMany(connection -> Flux.range(0, (users.size() + batchSize - 1) / batchSize)
+                                .concatMap(batch -> {
+                                    Statement statement = connection.createStatement("insert into users (" + USER_COLUMNS
+                                            + ") values ($1, $2, $3, $4, $5, $6, $7, $8, cast($9 as varchar), "
+                                            + "cast($10 as varchar), $11, 0)");
+                                    for (int i = batch * batchSize; i < Math.min((batch + 1) * batchSize, users.size()); i++) {
+                                        if (i > batch * batchSize) {
+                                            statement.add();
+                                        }
+                                        bindInsert(statement, ids.get(i), users.get(i));
+                                    }
+                                    return Flux.from(statement.execute()).flatMap(Result::getRowsUpdated);
+                                }))
+                        .reduce(0L, Long::sum));
+    }
+
+    private static void bindInsert(Statement statement, long id, User user) {
+        statement.bind(0, id);
+        bindNullable(statement, 1, user.getName());
+        statement.bind(2, user.getEmail());
+        statement.bind(3, User.normalizeEmail(user.getEmail()));
+        bindNullable(statement, 4, user.getGender());
+        bindNullable(statement, 5, user.getPassword());
+        bindNullable(statement, 6, user.getIpAddress());
+        bindNullable(statement, 7, user.getCountry());
+        bindNullable(statement, 8, name(user.getRole()));
+        bindNullable(statement, 9, name(user.getEnrichmentStatus()));
+        statement.bind(10, user.getEnrichmentAttempts());
+    }
+
+    private static void bindNullable(Statement statement, int index, String value) {
+        if (value == null) {
+            statement.bindNull(index, String.class);
+        } else {
+            statement.bind(index, value);
+        }
+    }
+
+    public Mono<User> findById(long id) {
+        return databaseClient.sql("select " + USER_COLUMNS + " from users where id = :id")
+                .bind("id", id)
+                .map(ReactiveUserRepository::toUser)
+                .one();
+    }
+
+    public Mono<User> findByEmail(String email) {
+        return databaseClient.sql("select " + USER_COLUMNS + " from users where email_normalized = :email")
+                .bind("email", User.normalizeEmail(email))
+                .map(ReactiveUserRepository::toUser)
+                .one();
+    }
+
+    public Mono<Boolean> existsByEmail(String email) {
+        return databaseClient.sql("select count(*) from users where email_normalized = :email")
+                .bind("email", User.normalizeEmail(email))
+                .map(row -> row.get(0, Long.class) > 0)
+                .one();
+    }
+
+    /** The normalized emails among {@code emails} that are already registered. */
+    public Flux<String> findExistingEmails(Collection<String> emails) {
+        return databaseClient.sql("select email_normalized from users where email_normalized in (:emails)")
+                .bind("emails", emails)
+                .map(row -> row.get(0, String.class))
+                .all();
+    }
+
+    public Mono<Long> count() {
+        return databaseClient.sql("select count(*) from users")
+                .map(row -> row.get(0, Long.class))
+                .one();
+    }
+
+    /**
+     * @param sort Order by {@code id} and/or {@code email}.
+     */
+    public Flux<UserResponse> findResponses(Sort sort, int limit) {
+        List<String> orderBy = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            String column = SORTABLE_COLUMNS.get(order.getProperty());
+            if (column == null) {
+                throw new IllegalArgumentException("Unsupported sort key: " + order.getProperty());
+            }
+            orderBy.add(column + (order.isAscending() ? " asc" : " desc"));
+        }
+        return databaseClient.sql("select " + USER_RESPONSE_COLUMNS + " from users order by "
+                        + String.join(", ", orderBy) + " limit :limit")
+                .bind("limit", limit)
+                .map(ReactiveUserRepository::toUserResponse)
+                .all();
+    }
+
+    public Flux<UserResponse> findResponsesByIdAfter(long id, int limit) {
+        return findResponsesWhere("id > :value order by id asc", id, limit);
+    }
+
+    public Flux<UserResponse> findResponsesByIdBefore(long id, int limit) {
+        return findResponsesWhere("id < :value order by id desc", id, limit);
+    }
+
+    public Flux<UserResponse> findResponsesByEmailAfter(String email, int limit) {
+        return findResponsesWhere("email > :value order by email asc", email, limit);
+    }
+
+    public Flux<UserResponse> findResponsesByEmailBefore(String email, int limit) {
+        return findResponsesWhere("email < :value order by email desc", email, limit);
+    }
+
+    private Flux<UserResponse> findResponsesWhere(String condition, Object value, int limit) {
+        return databaseClient.sql("select " + USER_RESPONSE_COLUMNS + " from users where " + condition + " limit :limit")
+                .bind("value", value)
+                .bind("limit", limit)
+                .map(ReactiveUserRepository::toUserResponse)
+                .all();
+    }
+
+    /**
+     * Same query shapes as {@code UserSearchService}: only the given filters are part of the
+     * statement, so each combination is planned against its own index.
+     *
+     * @param afterId ID of the last user of the previous page, or null for the first page.
+     */
+    public Flux<UserResponse> search(UserSearchCriteria criteria, Long afterId, int limit) {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        List<String> predicates = new ArrayList<>();
+        if (hasText(criteria.getCountry())) {
+            predicates.add("country = :country");
+            parameters.put("country", criteria.getCountry());
+        }
+        if (criteria.getRole() != null) {
+            predicates.add("role = cast(:role as varchar)");
+            parameters.put("role", criteria.getRole().name());
+        }
+        if (hasText(criteria.getGender())) {
+            predicates.add("gender = :gender");
+            parameters.put("gender", criteria.getGender());
+        }
+        if (hasText(criteria.getNamePrefix())) {
+            predicates.add("name like :name escape '" + LIKE_ESCAPE + "'");
+            parameters.put("name", likePrefix(criteria.getNamePrefix()));
+        }
+        if (hasText(criteria.getEmailPrefix())) {
+            predicates.add("email_normalized like :email escape '" + LIKE_ESCAPE + "'");
+            parameters.put("email", likePrefix(User.normalizeEmail(criteria.getEmailPrefix())));
+        }
+        if (afterId != null) {
+            predicates.add("id > :afterId");
+            parameters.put("afterId", afterId);
+        }
+        parameters.put("limit", limit);
+
+        String where = predicates.isEmpty() ? "" : " where " + String.join(" and ", predicates);
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(
+                "select " + USER_RESPONSE_COLUMNS + " from users" + where + " order by id limit :limit");
+        for (Map.Entry<String, Object> parameter : parameters.entrySet()) {
+            spec = spec.bind(parameter.getKey(), parameter.getValue());
+        }
+        return spec.map(ReactiveUserRepository::toUserResponse).all();
+    }
+
+    /** Every user in ID order, read as the subscriber requests them. */
+    public Flux<UserResponse> streamAllResponses() {
+        return databaseClient.sql("select " + USER_RESPONSE_COLUMNS + " from users order by id")
+                .map(ReactiveUserRepository::toUserResponse)
+                .all();
+    }
+
+    public Flux<UserCount> countByRoleCountryAndGender() {
+        return databaseClient.sql("select role, country, gender, count(*) as users from users group by role, country, gender")
+                .map(row -> new UserCount(role(row.get("role", String.class)), row.get("country", String.class),
+                        row.get("gender", String.class), row.get("users", Long.class)))
+                .all();
+    }
+
+    public Flux<Long> findIdsByEnrichmentStatus(EnrichmentStatus enrichmentStatus, int limit) {
+        return databaseClient.sql("select id from users where enrichment_status = cast(:status as varchar) "
+                        + "order by id limit :limit")
+                .bind("status", enrichmentStatus.name())
+                .bind("limit", limit)
+                .map(row -> row.get("id", Long.class))
+                .all();
+    }
+
+    public Flux<UserIdentity> findIdentitiesByEmails(Collection<String> emails, String excludedEmail) {
+        return databaseClient.sql("select " + USER_IDENTITY_COLUMNS + " from users "
+                        + "where email_normalized in (:emails) and email_normalized <> :excludedEmail")
+                .bind("emails", emails.stream().map(User::normalizeEmail).toList())
+                .bind("excludedEmail", User.normalizeEmail(excludedEmail))
+                .map(ReactiveUserRepository::toUserIdentity)
+                .all();
+    }
+
+    /** Keyset-scrolls, in ID order, the users matching an optional country and role. */
+    public Flux<UserIdentity> findIdentitiesByFilter(String country, Role role, String excludedEmail, long afterId, int limit) {
+        return databaseClient.sql("select " + USER_IDENTITY_COLUMNS + " from users "
+                        + "where (:country is null or country = :country) and (:role is null or role = cast(:role as varchar)) "
+                        + "and email_normalized <> :excludedEmail and id > :afterId order by id limit :limit")
+                .bind("country", Parameter.fromOrEmpty(country, String.class))
+                .bind("role", Parameter.fromOrEmpty(name(role), String.class))
+                .bind("excludedEmail", User.normalizeEmail(excludedEmail))
+                .bind("afterId", afterId)
+                .bind("limit", limit)
+                .map(ReactiveUserRepository::toUserIdentity)
+                .all();
+    }
+
+    public Mono<Long> updateRoleByIds(Collection<Long> ids, Role role) {
+        return databaseClient.sql("update users set role = cast(:role as varchar), version = version + 1 "
+                        + "where id in (:ids) and role <> cast(:role as varchar)")
+                .bind("role", role.name())
+                .bind("ids", ids)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<Long> deleteByIds(Collection<Long> ids) {
+        return databaseClient.sql("delete from users where id in (:ids)")
+                .bind("ids", ids)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /** Sets the role in one statement; matches nothing if the user already has it. */
+    public Mono<Long> updateRoleByEmail(String email, Role role) {
+        return databaseClient.sql("update users set role = cast(:role as varchar), version = version + 1 "
+                        + "where email_normalized = :email and role <> cast(:role as varchar)")
+                .bind("role", role.name())
+                .bind("email", User.normalizeEmail(email))
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /** Sets the role in one statement, only if the user is still at {@code version}. */
+    public Mono<Long> updateRoleByEmailAndVersion(String email, Role role, long version) {
+        return databaseClient.sql("update users set role = cast(:role as varchar), version = version + 1 "
+                        + "where email_normalized = :email and version = :version")
+                .bind("role", role.name())
+                .bind("email", User.normalizeEmail(email))
+                .bind("version", version)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<Long> deleteByEmail(String email) {
+        return databaseClient.sql("delete from users where email_normalized = :email")
+                .bind("email", User.normalizeEmail(email))
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<Long> deleteByEmailAndVersion(String email, long version) {
+        return databaseClient.sql("delete from users where email_normalized = :email and version = :version")
+                .bind("email", User.normalizeEmail(email))
+                .bind("version", version)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<Long> updatePassword(String email, String password) {
+        return databaseClient.sql("update users set password = :password, version = version + 1 "
+                        + "where email_normalized = :email")
+                .bind("password", password)
+                .bind("email", User.normalizeEmail(email))
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /** Stores a resolved country, unless the user is no longer pending. */
+    public Mono<Long> completeEnrichment(long id, String country) {
+        return databaseClient.sql("update users set country = :country, enrichment_status = 'COMPLETED', "
+                        + "version = version + 1 where id = :id and enrichment_status = 'PENDING'")
+                .bind("country", country)
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /**
+     * Counts a failed lookup and moves the user to {@code status}, only if no other attempt was
+     * recorded since {@code previousAttempts} was read.
+     */
+    public Mono<Long> recordFailedEnrichment(long id, int previousAttempts, EnrichmentStatus status) {
+        return databaseClient.sql("update users set enrichment_attempts = :attempts, enrichment_status = cast(:status as varchar), "
+                        + "version = version + 1 where id = :id and enrichment_status = 'PENDING' "
+                        + "and enrichment_attempts = :previousAttempts")
+                .bind("attempts", previousAttempts + 1)
+                .bind("status", status.name())
+                .bind("id", id)
+                .bind("previousAttempts", previousAttempts)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<Long> deleteAll() {
+        return databaseClient.sql("delete from users")
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private static User toUser(Readable row) {
+        Integer attempts = row.get("enrichment_attempts", Integer.class);
+        return User.builder()
+                .id(row.get("id", Long.class))
+                .name(row.get("name", String.class))
+                .email(row.get("email", String.class))
+                .emailNormalized(row.get("email_normalized", String.class))
+                .gender(row.get("gender", String.class))
+                .password(row.get("password", String.class))
+                .ipAddress(row.get("ip_address", String.class))
+                .country(row.get("country", String.class))
+                .role(role(row.get("role", String.class)))
+                .enrichmentStatus(enrichmentStatus(row.get("enrichment_status", String.class)))
+                .enrichmentAttempts(attempts == null ? 0 : attempts)
+                .version(row.get("version", Long.class))
+                .build();
+    }
+
+    private static UserResponse toUserResponse(Readable row) {
+        return new UserResponse(
+                row.get("id", Long.class),
+                row.get("name", String.class),
+                row.get("email", String.class),
+                row.get("gender", String.class),
+                row.get("ip_address", String.class),
+                row.get("country", String.class),
+                role(row.get("role", String.class)),
+                enrichmentStatus(row.get("enrichment_status", String.class)),
+                row.get("version", Long.class));
+    }
+
+    private static UserIdentity toUserIdentity(Readable row) {
+        return new UserIdentity(
+                row.get("id", Long.class),
+                row.get("email", String.class),
+                role(row.get("role", String.class)),
+                row.get("country", String.class),
+                row.get("gender", String.class));
+    }
+
+    private static Role role(String value) {
+        return value == null ? null : Role.valueOf(value);
+    }
+
+    private static EnrichmentStatus enrichmentStatus(String value) {
+        return value == null ? null : EnrichmentStatus.valueOf(value);
+    }
+
+    private static String name(Enum<?> value) {
+        return value == null ? null : value.name();
+    }
+
+    private static String likePrefix(String prefix) {
+        StringBuilder pattern = new StringBuilder(prefix.length() + 1);
+        for (char c : prefix.toCharArray()) {
+            if (c == '%' || c == '_' || c == LIKE_ESCAPE) {
+                pattern.append(LIKE_ESCAPE);
+            }
+            pattern.append(c);
+        }
+        return pattern.append('%').toString();
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+}
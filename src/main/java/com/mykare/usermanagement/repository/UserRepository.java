@@ -1,11 +1,114 @@
 package com.mykare.usermanagement.repository;
 
+import com.mykare.usermanagement.dto.UserCount;
+import com.mykare.usermanagement.dto.UserIdentity;
+import com.mykare.usermanagement.dto.UserResponse;
+import com.mykare.usermanagement.model.Role;
+import com.mykare.usermanagement.model.EnrichmentStatus;
 import com.mykare.usermanagement.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.List;
+import java.util.Collection;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
-public interface UserRepository extends JpaRepository<User, Long> {
-    Optional<User> findByEmail(String email);
-    boolean existsByEmail(String email);
+public interface UserRepository extends JpaRepository<User, Long>, NaturalIdUserRepository {
+    /** Rows fetched per JDBC round trip by {@link #streamAllResponses()}. */
+    int EXPORT_FETCH_SIZE = 500;
+
+    /** Constructor expression selecting the columns of {@link UserResponse}, never the password hash. */
+    String USER_RESPONSE = "new com.mykare.usermanagement.dto.UserResponse("
+            + "u.id, u.name, u.email, u.gender, u.ipAddress, u.country, u.role, u.enrichmentStatus, u.version)";
+
+    /*
+     * Every lookup by email compares User.emailNormalized with the normalized parameter, so it is
+     * case-insensitive and an index seek. The parameter is normalized in Java by the expressions
+     * below rather than with LOWER() in SQL, so it matches the stored value exactly.
+     */
+    String NORMALIZED_EMAIL = ":#{T(com.mykare.usermanagement.model.User).normalizeEmail(#email)}";
+    String NORMALIZED_EMAILS = ":#{#emails.![T(com.mykare.usermanagement.model.User).normalizeEmail(#this)]}";
+    String NORMALIZED_EXCLUDED_EMAIL = ":#{T(com.mykare.usermanagement.model.User).normalizeEmail(#excludedEmail)}";
+
+    @Query("select count(u) > 0 from User u where u.emailNormalized = " + NORMALIZED_EMAIL)
+    boolean existsByEmail(@Param("email") String email);
+
+    /** Streams every normalized email through a forward-only cursor; must be consumed inside a transaction. */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE))
+    @Query("select u.emailNormalized from User u")
+    Stream<String> streamAllEmails();
+
+    /** @return the normalized form of every given email that is already registered. */
+    @Query("select u.emailNormalized from User u where u.emailNormalized in " + NORMALIZED_EMAILS)
+    Set<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    @Query("select " + USER_RESPONSE + " from User u")
+    List<UserResponse> findResponses(Sort sort, Limit limit);
+
+    @Query("select " + USER_RESPONSE + " from User u where u.id > :id order by u.id asc")
+    List<UserResponse> findResponsesByIdAfter(@Param("id") long id, Limit limit);
+
+    @Query("select " + USER_RESPONSE + " from User u where u.id < :id order by u.id desc")
+    List<UserResponse> findResponsesByIdBefore(@Param("id") long id, Limit limit);
+
+    @Query("select " + USER_RESPONSE + " from User u where u.email > :email order by u.email asc")
+    List<UserResponse> findResponsesByEmailAfter(@Param("email") String email, Limit limit);
+
+    @Query("select " + USER_RESPONSE + " from User u where u.email < :email order by u.email desc")
+    List<UserResponse> findResponsesByEmailBefore(@Param("email") String email, Limit limit);
+
+    /**
+     * Streams every user in ID order through a forward-only cursor. Must be consumed and closed
+     * inside a transaction.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("select " + USER_RESPONSE + " from User u order by u.id")
+    Stream<UserResponse> streamAllResponses();
+
+    @Query("select new com.mykare.usermanagement.dto.UserCount(u.role, u.country, u.gender, count(u)) from User u "
+            + "group by u.role, u.country, u.gender")
+    List<UserCount> countByRoleCountryAndGender();
+
+    List<User> findByEnrichmentStatusOrderByIdAsc(EnrichmentStatus enrichmentStatus, Limit limit);
+
+    @Query("select new com.mykare.usermanagement.dto.UserIdentity(u.id, u.email, u.role, u.country, u.gender) from User u "
+            + "where u.emailNormalized in " + NORMALIZED_EMAILS
+            + " and u.emailNormalized <> " + NORMALIZED_EXCLUDED_EMAIL)
+    List<UserIdentity> findIdentitiesByEmails(@Param("emails") Collection<String> emails,
+                                              @Param("excludedEmail") String excludedEmail);
+
+    /** Keyset-scrolls, in ID order, the users matching an optional country and role. */
+    @Query("select new com.mykare.usermanagement.dto.UserIdentity(u.id, u.email, u.role, u.country, u.gender) from User u "
+            + "where (:country is null or u.country = :country) and (:role is null or u.role = :role) "
+            + "and u.emailNormalized <> " + NORMALIZED_EXCLUDED_EMAIL + " and u.id > :afterId order by u.id")
+    List<UserIdentity> findIdentitiesByFilter(@Param("country") String country,
+                                              @Param("role") Role role,
+                                              @Param("excludedEmail") String excludedEmail,
+                                              @Param("afterId") long afterId,
+                                              Limit limit);
+
+    /*
+     * Bulk statements make Hibernate invalidate the whole User cache regions, which is acceptable
+     * for bulk changes. The single-user writes in NaturalIdUserRepository evict only that user's
+     * cache entries.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update User u set u.role = :role, u.version = u.version + 1 where u.id in :ids and u.role <> :role")
+    int updateRoleByIds(@Param("ids") Collection<Long> ids, @Param("role") Role role);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from User u where u.id in :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
 }
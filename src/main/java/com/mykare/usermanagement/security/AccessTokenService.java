@@ -0,0 +1,182 @@
+package com.mykare.usermanagement.security;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Issues and verifies short-lived HMAC-SHA256 signed access tokens in compact JWT form.
+ * A token carries the user's email and role, so verifying it needs neither a database
+ * lookup nor a password hash.
+ *
+ * <p>Signing keys are configured as {@code keyId:base64Secret} pairs. New tokens are signed with
+ * the active key and carry its id in the header; tokens signed with any other configured key
+ * stay valid until they expire, which allows keys to be rotated without logging users out.
+ * There is no built-in key: startup fails unless at least one key of 32 bytes or more is
+ * configured, and the first one is active unless another is named.
+ */
+@Slf4j
+@Service
+public class AccessTokenService {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int MIN_SECRET_BYTES = 32;
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final ObjectMapper objectMapper;
+    private final Clock clock;
+    private final Duration expiry;
+    private final Map<String, ThreadLocal<Mac>> keys = new LinkedHashMap<>();
+    private final String activeKeyId;
+
+    @Autowired
+    public AccessTokenService(ObjectMapper objectMapper,
+                              @Value("${security.token.signing-keys}") String signingKeys,
+                              @Value("${security.token.active-key-id}") String activeKeyId,
+                              @Value("${security.token.expiry}") Duration expiry) {
+        this(objectMapper, signingKeys, activeKeyId, expiry, Clock.systemUTC());
+    }
+
+    AccessTokenService(ObjectMapper objectMapper, String signingKeys, String activeKeyId, Duration expiry, Clock clock) {
+        this.objectMapper = objectMapper;
+        this.clock = clock;
+        this.expiry = expiry;
+        if (signingKeys == null || signingKeys.isBlank()) {
+            throw new IllegalArgumentException("No access token signing keys configured; set TOKEN_SIGNING_KEYS");
+        }
+        for (String entry : signingKeys.split(",")) {
+            String[] idAndSecret = entry.strip().split(":", 2);
+            if (idAndSecret.length != 2) {
+                throw new IllegalArgumentException("Signing keys must be configured as keyId:base64Secret");
+            }
+            byte[] secret = Base64.getDecoder().decode(idAndSecret[1].strip());
+            if (secret.length < MIN_SECRET_BYTES) {
+                throw new IllegalArgumentException("Signing key " + idAndSecret[0] + " must be at least " + MIN_SECRET_BYTES + " bytes");
+            }
+            SecretKeySpec key = new SecretKeySpec(secret, ALGORITHM);
+            keys.put(idAndSecret[0].strip(), ThreadLocal.withInitial(() -> newMac(key)));
+        }
+        this.activeKeyId = activeKeyId == null || activeKeyId.isBlank() ? keys.keySet().iterator().next() : activeKeyId.strip();
+        if (!keys.containsKey(this.activeKeyId)) {
+            throw new IllegalArgumentException("Active signing key " + activeKeyId + " is not configured");
+        }
+    }
+
+    /**
+     * Issues a token for the given user.
+     *
+     * @param email The user's email, stored as the subject.
+     * @param role  The user's role without the {@code ROLE_} prefix.
+     * @return The signed token together with its expiry time.
+     */
+    public IssuedToken issue(String email, String role) {
+        Instant now = clock.instant();
+        Instant expiresAt = now.plus(expiry);
+
+        ObjectNode header = objectMapper.createObjectNode()
+                .put("alg", "HS256")
+                .put("typ", "JWT")
+                .put("kid", activeKeyId);
+        ObjectNode payload = objectMapper.createObjectNode()
+                .put("sub", email)
+                .put("role", role)
+                .put("iat", now.getEpochSecond())
+                .put("exp", expiresAt.getEpochSecond());
+
+        String signingInput = encode(header) + "." + encode(payload);
+        String signature = ENCODER.encodeToString(sign(activeKeyId, signingInput));
+        return new IssuedToken(signingInput + "." + signature, expiresAt);
+    }
+
+    /**
+     * Verifies a token's signature and expiry.
+     *
+     * @param token The compact token.
+     * @return The verified claims, or empty if the token is malformed, forged, signed with an
+     * unknown key or expired.
+     */
+    public Optional<AccessTokenClaims> verify(String token) {
+        try {
+            int firstDot = token.indexOf('.');
+            int lastDot = token.lastIndexOf('.');
+            if (firstDot <= 0 || lastDot == firstDot) {
+                return Optional.empty();
+            }
+            JsonNode header = objectMapper.readTree(DECODER.decode(token.substring(0, firstDot)));
+            String keyId = header.path("kid").asText();
+            if (!"HS256".equals(header.path("alg").asText()) || !keys.containsKey(keyId)) {
+                return Optional.empty();
+            }
+
+            byte[] expected = sign(keyId, token.substring(0, lastDot));
+            byte[] actual = DECODER.decode(token.substring(lastDot + 1));
+            if (!MessageDigest.isEqual(expected, actual)) {
+                return Optional.empty();
+            }
+
+            JsonNode payload = objectMapper.readTree(DECODER.decode(token.substring(firstDot + 1, lastDot)));
+            Instant expiresAt = Instant.ofEpochSecond(payload.path("exp").asLong());
+            if (!clock.instant().isBefore(expiresAt)) {
+                return Optional.empty();
+            }
+            return Optional.of(new AccessTokenClaims(payload.path("sub").asText(), payload.path("role").asText(), expiresAt));
+        } catch (IllegalArgumentException | IOException e) {
+            log.debug("Rejected malformed access token: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private String encode(JsonNode node) {
+        try {
+            return ENCODER.encodeToString(objectMapper.writeValueAsBytes(node));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize token", e);
+        }
+    }
+
+    private byte[] sign(String keyId, String signingInput) {
+        return keys.get(keyId).get().doFinal(signingInput.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static Mac newMac(SecretKeySpec key) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", e);
+        }
+    }
+
+    /**
+     * A freshly issued token.
+     */
+    public record IssuedToken(String token, Instant expiresAt) {
+    }
+
+    /**
+     * Claims of a verified token.
+     */
+    public record AccessTokenClaims(String email, String role, Instant expiresAt) {
+    }
+}
@@ -0,0 +1,60 @@
+package com.mykare.usermanagement.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.function.IntToLongFunction;
+
+/**
+ * Picks the BCrypt cost factor for the hardware the application runs on.
+ * Each step in cost doubles the work, so the time of a hash at the minimum cost is
+ * measured once and extrapolated to the highest cost that still fits the target time.
+ */
+@Slf4j
+public final class BCryptStrengthCalibrator {
+
+    private static final String SAMPLE_PASSWORD = "Calibrate@123";
+    private static final int SAMPLES = 3;
+
+    private BCryptStrengthCalibrator() {
+    }
+
+    /**
+     * Measures BCrypt on this machine and returns the highest cost whose hash time stays within the target.
+     *
+     * @param target      Target time for a single hash.
+     * @param minStrength Lowest acceptable cost, used even if it exceeds the target.
+     * @param maxStrength Highest cost to consider.
+     */
+    public static int calibrate(Duration target, int minStrength, int maxStrength) {
+        int strength = calibrate(target, minStrength, maxStrength, BCryptStrengthCalibrator::measureNanos);
+        log.info("Calibrated BCrypt strength {} for a target of {} ms per hash", strength, target.toMillis());
+        return strength;
+    }
+
+    static int calibrate(Duration target, int minStrength, int maxStrength, IntToLongFunction nanosForStrength) {
+        long nanos = Math.max(1, nanosForStrength.applyAsLong(minStrength));
+        int strength = minStrength;
+        while (strength < maxStrength && nanos * 2 <= target.toNanos()) {
+            nanos *= 2;
+            strength++;
+        }
+        return strength;
+    }
+
+    /**
+     * @return The fastest of a few hashes at the given cost, in nanoseconds.
+     */
+    static long measureNanos(int strength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        encoder.encode(SAMPLE_PASSWORD);
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            encoder.encode(SAMPLE_PASSWORD);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+}
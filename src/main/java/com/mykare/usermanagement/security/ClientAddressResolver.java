@@ -0,0 +1,141 @@
+package com.mykare.usermanagement.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
+import org.springframework.stereotype.Component;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Determines the address of the client that sent a request.
+ * The socket peer address is used unless it belongs to one of the configured trusted proxies,
+ * in which case the {@code Forwarded} (RFC 7239) or {@code X-Forwarded-For} chain is walked
+ * from the nearest hop outwards until the first address that is not a trusted proxy.
+ * Forwarding headers sent by untrusted peers are ignored, so clients cannot spoof their address.
+ */
+@Component
+public class ClientAddressResolver {
+
+    private static final Pattern IP_LITERAL = Pattern.compile("[0-9A-Fa-f:.]+");
+
+    private final List<IpAddressMatcher> trustedProxies;
+
+    /**
+     * @param trustedProxies Comma separated IP addresses or CIDR ranges of trusted reverse proxies.
+     */
+    public ClientAddressResolver(@Value("${client-ip.trusted-proxies:}") String trustedProxies) {
+        this.trustedProxies = Arrays.stream(trustedProxies.split(","))
+                .map(String::strip)
+                .filter(proxy -> !proxy.isEmpty())
+                .map(IpAddressMatcher::new)
+                .toList();
+    }
+
+    /**
+     * @param request The incoming request.
+     * @return The client IP address.
+     */
+    public String resolve(HttpServletRequest request) {
+        return resolve(request.getRemoteAddr(), name -> Collections.list(request.getHeaders(name)));
+    }
+
+    /**
+     * @param request The incoming request on the reactive stack.
+     * @return The client IP address, or {@code null} if the peer address is unknown.
+     */
+    public String resolve(ServerHttpRequest request) {
+        InetSocketAddress peer = request.getRemoteAddress();
+        String remoteAddress = peer == null || peer.getAddress() == null ? null : peer.getAddress().getHostAddress();
+        return resolve(remoteAddress, name -> request.getHeaders().getOrEmpty(name));
+    }
+
+    /**
+     * @param headers Returns every value of the named request header.
+     */
+    private String resolve(String remoteAddress, Function<String, List<String>> headers) {
+        if (!isTrusted(remoteAddress)) {
+            return remoteAddress;
+        }
+
+        List<String> hops = forwardedFor(headers);
+        String client = remoteAddress;
+        for (int i = hops.size() - 1; i >= 0; i--) {
+            String hop = hops.get(i);
+            if (!IP_LITERAL.matcher(hop).matches()) {
+                // Obfuscated or unknown identifiers end the chain we can vouch for.
+                break;
+            }
+            client = hop;
+            if (!isTrusted(hop)) {
+                break;
+            }
+        }
+        return client;
+    }
+
+    private boolean isTrusted(String address) {
+        if (address == null || !IP_LITERAL.matcher(address).matches()) {
+            return false;
+        }
+        for (IpAddressMatcher proxy : trustedProxies) {
+            if (proxy.matches(address)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<String> forwardedFor(Function<String, List<String>> headers) {
+        List<String> hops = new ArrayList<>();
+        for (String forwarded : headers.apply("Forwarded")) {
+            for (String element : forwarded.split(",")) {
+                for (String pair : element.split(";")) {
+                    String[] nameValue = pair.strip().split("=", 2);
+                    if (nameValue.length == 2 && nameValue[0].strip().toLowerCase(Locale.ROOT).equals("for")) {
+                        hops.add(stripNodePort(nameValue[1].strip()));
+                    }
+                }
+            }
+        }
+        if (!hops.isEmpty()) {
+            return hops;
+        }
+
+        for (String xForwardedFor : headers.apply("X-Forwarded-For")) {
+            for (String hop : xForwardedFor.split(",")) {
+                if (!hop.isBlank()) {
+                    hops.add(stripNodePort(hop.strip()));
+                }
+            }
+        }
+        return hops;
+    }
+
+    /**
+     * Reduces a node identifier such as {@code "[2001:db8::1]:4711"} or {@code 192.0.2.43:80} to the bare address.
+     */
+    private static String stripNodePort(String node) {
+        String value = node;
+        if (value.length() > 1 && value.startsWith("\"") && value.endsWith("\"")) {
+            value = value.substring(1, value.length() - 1);
+        }
+        if (value.startsWith("[")) {
+            int end = value.indexOf(']');
+            return end > 0 ? value.substring(1, end) : value;
+        }
+        int colon = value.indexOf(':');
+        if (colon > 0 && colon == value.lastIndexOf(':')) {
+            return value.substring(0, colon);
+        }
+        return value;
+    }
+}
@@ -1,26 +1,156 @@
 package com.mykare.usermanagement.security;
 
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mykare.usermanagement.event.UserDeletedEvent;
+import com.mykare.usermanagement.event.UserRoleChangedEvent;
 import com.mykare.usermanagement.model.User;
 import com.mykare.usermanagement.repository.UserRepository;
-import lombok.RequiredArgsConstructor;
+import com.mykare.usermanagement.service.EmailMembershipFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.security.core.userdetails.*;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
 
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Loads users for authentication. Loaded users are kept in a bounded cache keyed by normalized
+ * email, so repeated Basic authentication does not query the database on every request. Role
+ * changes and deletions evict the entry as soon as they are committed. A miss is loaded outside the
+ * cache's map lock, so concurrent logins never hold a monitor while they wait for a database
+ * connection, which would pin a virtual thread to its carrier.
+ * <p>
+ * Emails the {@link EmailMembershipFilter} rules out are rejected without touching the cache or
+ * the database. The authentication provider still hashes the presented password against a dummy
+ * hash for unknown users, so the fast path does not reveal which emails are registered.
+ */
+@Slf4j
 @Service
-@RequiredArgsConstructor
-public class CustomUserDetailsService implements UserDetailsService {
+@Profile("!reactive")
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
+    private final TaskExecutor taskExecutor;
+    private final EmailMembershipFilter emailFilter;
+    private final AsyncCache<String, UserDetails> cache;
+
+    public CustomUserDetailsService(UserRepository userRepository,
+                                    @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) TaskExecutor taskExecutor,
+                                    EmailMembershipFilter emailFilter,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${security.user-cache.maximum-size}") long maximumSize,
+                                    @Value("${security.user-cache.ttl}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.taskExecutor = taskExecutor;
+        this.emailFilter = emailFilter;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache.synchronous(), "security.user.details");
+    }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByEmail(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + username));
+        if (!emailFilter.mightContain(username)) {
+            throw new UsernameNotFoundException("User not found with email: " + username);
+        }
+        String email = User.normalizeEmail(username);
+        CompletableFuture<UserDetails> pending = new CompletableFuture<>();
+        CompletableFuture<UserDetails> future = cache.get(email, (key, executor) -> pending);
+        if (future == pending) {
+            // This caller won the race for the key and queries the database outside the map's lock.
+            // Any failure, errors included, must complete the future: callers waiting on it would
+            // block forever otherwise, and a failed future is dropped from the cache.
+            try {
+                pending.complete(load(email));
+            } catch (Throwable e) {
+                pending.completeExceptionally(e);
+            }
+        }
+        UserDetails user;
+        try {
+            user = future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+        if (user == null) {
+            throw new UsernameNotFoundException("User not found with email: " + username);
+        }
+        // The authentication manager erases credentials on the returned instance, so never hand out the cached one
+        return copyOf(user);
+    }
+
+    /**
+     * Called by the authentication provider after a successful login when the stored hash uses
+     * outdated parameters. The new hash is written in the background so the login response
+     * does not wait for the database update.
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        String email = user.getUsername();
+        UserDetails updated = org.springframework.security.core.userdetails.User.withUserDetails(user)
+                .password(newPassword)
+                .build();
+        cache.synchronous().asMap().computeIfPresent(User.normalizeEmail(email), (key, cached) -> copyOf(updated));
+        taskExecutor.execute(() -> {
+            try {
+                userRepository.updatePassword(email, newPassword);
+                log.info("Upgraded password hash for user: {}", email);
+            } catch (Exception e) {
+                log.warn("Failed to upgrade password hash for user {}: {}", email, e.getMessage());
+            }
+        });
+        return updated;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRoleChanged(UserRoleChangedEvent event) {
+        evict(event.email());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDeleted(UserDeletedEvent event) {
+        evict(event.email());
+    }
+
+    public void evict(String email) {
+        cache.synchronous().invalidate(User.normalizeEmail(email));
+    }
 
+    private UserDetails load(String email) {
+        UserDetails user = userRepository.findByEmail(email)
+                .map(this::toUserDetails)
+                .orElse(null);
+        if (user == null) {
+            emailFilter.recordFalsePositive();
+        }
+        return user;
+    }
+
+    private UserDetails toUserDetails(User user) {
         return org.springframework.security.core.userdetails.User
                 .withUsername(user.getEmail())
                 .password(user.getPassword())
                 .roles(user.getRole().name())
                 .build();
     }
+
+    private static UserDetails copyOf(UserDetails user) {
+        return org.springframework.security.core.userdetails.User.withUserDetails(user).build();
+    }
 }
@@ -0,0 +1,34 @@
+package com.mykare.usermanagement.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Turns a {@link HashingCapacityExceededException} raised while authenticating a request
+ * into a 503 response with a {@code Retry-After} header.
+ */
+@Slf4j
+public class HashingBackpressureFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        try {
+            filterChain.doFilter(request, response);
+        } catch (HashingCapacityExceededException e) {
+            log.warn("Rejecting {} {}: {}", request.getMethod(), request.getRequestURI(), e.getMessage());
+            if (!response.isCommitted()) {
+                response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()));
+                response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Service temporarily overloaded");
+            }
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.mykare.usermanagement.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive counterpart of {@link HashingBackpressureFilter}: turns a
+ * {@link HashingCapacityExceededException} raised while authenticating a request into a 503
+ * response with a {@code Retry-After} header.
+ */
+@Slf4j
+public class HashingBackpressureWebFilter implements WebFilter {
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        return chain.filter(exchange).onErrorResume(HashingCapacityExceededException.class, e -> {
+            log.warn("Rejecting {} {}: {}", exchange.getRequest().getMethod(), exchange.getRequest().getPath(), e.getMessage());
+            if (exchange.getResponse().isCommitted()) {
+                return Mono.error(e);
+            }
+            exchange.getResponse().setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+            exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()));
+            return exchange.getResponse().setComplete();
+        });
+    }
+}
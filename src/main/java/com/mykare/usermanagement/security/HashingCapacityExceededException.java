@@ -0,0 +1,18 @@
+package com.mykare.usermanagement.security;
+
+import lombok.Getter;
+
+/**
+ * Thrown when a password hash cannot be queued because the hashing executor is saturated.
+ * Callers should answer with 503 Service Unavailable and a {@code Retry-After} header.
+ */
+@Getter
+public class HashingCapacityExceededException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public HashingCapacityExceededException(long retryAfterSeconds) {
+        super("Password hashing capacity exceeded, retry in " + retryAfterSeconds + "s");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,185 @@
+package com.mykare.usermanagement.security;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * CPU-sized thread pool that all password hashing runs on.
+ * Request threads hand their hash to this pool and wait for the result, so at most one hash
+ * per core is computed at a time and request threads are never all busy hashing. The queue
+ * in front of the pool is bounded; once it is full new hashes are rejected immediately with
+ * {@link HashingCapacityExceededException} instead of piling up.
+ */
+@Slf4j
+@Component
+@Profile("!reactive")
+public class PasswordHashingExecutor {
+
+    private static final String THREAD_PREFIX = "password-hash-";
+    private static final long BACKOFF_MILLIS = 10;
+
+    private final ThreadPoolExecutor executor;
+    private final long retryAfterSeconds;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> queueWaitTimers = new ConcurrentHashMap<>();
+    private final Map<String, Timer> hashTimers = new ConcurrentHashMap<>();
+
+    public PasswordHashingExecutor(MeterRegistry meterRegistry,
+                                   @Value("${security.hashing.threads}") int threads,
+                                   @Value("${security.hashing.queue-capacity}") int queueCapacity,
+                                   @Value("${security.hashing.retry-after-seconds}") long retryAfterSeconds) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name(THREAD_PREFIX, 0).daemon().factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.meterRegistry = meterRegistry;
+
+        Gauge.builder("security.hashing.queue.size", executor, e -> e.getQueue().size())
+                .description("Password hashes waiting for a hashing thread")
+                .register(meterRegistry);
+        Gauge.builder("security.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Password hashes currently being computed")
+                .register(meterRegistry);
+        log.info("Password hashing executor started with {} threads and a queue of {}", poolSize, queueCapacity);
+    }
+
+    /**
+     * Runs a hashing operation on the pool and waits for its result.
+     *
+     * @param operation Name of the operation, used as the {@code operation} metric tag.
+     * @param task      The hashing work.
+     * @throws HashingCapacityExceededException if the queue is full.
+     */
+    public <T> T execute(String operation, Supplier<T> task) {
+        if (Thread.currentThread().getName().startsWith(THREAD_PREFIX)) {
+            // Already on a hashing thread, queueing again could deadlock the pool.
+            return task.get();
+        }
+
+        Future<T> future;
+        try {
+            future = submit(operation, task);
+        } catch (RejectedExecutionException e) {
+            meterRegistry.counter("security.hashing.rejected", "operation", operation).increment();
+            throw new HashingCapacityExceededException(retryAfterSeconds);
+        }
+        return await(future);
+    }
+
+    /**
+     * Runs a batch of hashing operations on the pool and waits for all of them. At most one task per
+     * hashing thread is outstanding at a time, and a full queue makes the batch wait rather than fail,
+     * so bulk work never takes queue slots away from interactive requests.
+     *
+     * @param operation Name of the operation, used as the {@code operation} metric tag.
+     * @param tasks     The hashing work.
+     * @return The results, in the order of {@code tasks}.
+     */
+    public <T> List<T> executeAll(String operation, List<? extends Supplier<T>> tasks) {
+        if (Thread.currentThread().getName().startsWith(THREAD_PREFIX)) {
+            return tasks.stream().map(Supplier::get).toList();
+        }
+
+        List<Future<T>> futures = new ArrayList<>(tasks.size());
+        Deque<Future<T>> outstanding = new ArrayDeque<>();
+        for (Supplier<T> task : tasks) {
+            while (true) {
+                if (outstanding.size() >= executor.getMaximumPoolSize()) {
+                    await(outstanding.removeFirst());
+                }
+                try {
+                    Future<T> future = submit(operation, task);
+                    futures.add(future);
+                    outstanding.addLast(future);
+                    break;
+                } catch (RejectedExecutionException e) {
+                    if (outstanding.isEmpty()) {
+                        pause();
+                    } else {
+                        await(outstanding.removeFirst());
+                    }
+                }
+            }
+        }
+        List<T> results = new ArrayList<>(futures.size());
+        for (Future<T> future : futures) {
+            results.add(await(future));
+        }
+        return results;
+    }
+
+    private <T> Future<T> submit(String operation, Supplier<T> task) {
+        Timer queueWait = queueWaitTimers.computeIfAbsent(operation, op -> Timer.builder("security.hashing.queue.wait")
+                .description("Time a password hash waited for a hashing thread")
+                .tag("operation", op)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+        Timer hashTime = hashTimers.computeIfAbsent(operation, op -> Timer.builder("security.hashing.duration")
+                .description("Time spent computing a password hash")
+                .tag("operation", op)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+
+        long submittedAt = System.nanoTime();
+        return executor.submit(() -> {
+            long startedAt = System.nanoTime();
+            queueWait.record(startedAt - submittedAt, TimeUnit.NANOSECONDS);
+            try {
+                return task.get();
+            } finally {
+                hashTime.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            }
+        });
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hash", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private static void pause() {
+        try {
+            Thread.sleep(BACKOFF_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for hashing capacity", e);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,97 @@
+package com.mykare.usermanagement.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Reactive counterpart of {@link PasswordHashingExecutor}: a bounded scheduler with one thread per
+ * core that all password hashing on the reactive stack runs on, so BCrypt never occupies an event
+ * loop thread. The configured queue capacity is shared out between the threads; once it is used up
+ * new hashes fail immediately with {@link HashingCapacityExceededException}.
+ */
+@Slf4j
+@Component
+@Profile("reactive")
+public class PasswordHashingScheduler {
+
+    private static final String THREAD_PREFIX = "password-hash";
+    private static final Duration BACKOFF = Duration.ofMillis(10);
+
+    private final Scheduler scheduler;
+    private final int poolSize;
+    private final long retryAfterSeconds;
+    private final MeterRegistry meterRegistry;
+
+    public PasswordHashingScheduler(MeterRegistry meterRegistry,
+                                    @Value("${security.hashing.threads}") int threads,
+                                    @Value("${security.hashing.queue-capacity}") int queueCapacity,
+                                    @Value("${security.hashing.retry-after-seconds}") long retryAfterSeconds) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.scheduler = Schedulers.newBoundedElastic(poolSize, Math.max(1, queueCapacity / poolSize), THREAD_PREFIX);
+        this.poolSize = poolSize;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.meterRegistry = meterRegistry;
+        log.info("Password hashing scheduler started with {} threads and a queue of {}", poolSize, queueCapacity);
+    }
+
+    /**
+     * Runs a hashing operation on the scheduler.
+     *
+     * @param operation Name of the operation, used as the {@code operation} metric tag.
+     * @param task      The hashing work.
+     * @return The result; fails with {@link HashingCapacityExceededException} if the queue is full.
+     */
+    public <T> Mono<T> execute(String operation, Callable<T> task) {
+        return Mono.fromCallable(task)
+                .subscribeOn(scheduler)
+                .onErrorMap(RejectedExecutionException.class, e -> capacityExceeded(operation));
+    }
+
+    /**
+     * Runs a batch of hashing operations on the scheduler, see {@link PasswordHashingExecutor#executeAll}.
+     * At most one task per hashing thread is outstanding at a time, and a full queue makes the batch
+     * wait rather than fail.
+     *
+     * @return The results, in the order of {@code tasks}.
+     */
+    public <T> Mono<List<T>> executeAll(List<? extends Callable<T>> tasks) {
+        return Flux.fromIterable(tasks)
+                .flatMapSequential(task -> Mono.fromCallable(task)
+                        .subscribeOn(scheduler)
+                        .retryWhen(Retry.fixedDelay(Long.MAX_VALUE, BACKOFF)
+                                .filter(RejectedExecutionException.class::isInstance)), poolSize)
+                .collectList();
+    }
+
+    /**
+     * @return The scheduler itself, for components such as the authentication manager that schedule
+     * their own hashing; they should map a {@link RejectedExecutionException} with {@link #capacityExceeded}.
+     */
+    public Scheduler scheduler() {
+        return scheduler;
+    }
+
+    public HashingCapacityExceededException capacityExceeded(String operation) {
+        meterRegistry.counter("security.hashing.rejected", "operation", operation).increment();
+        return new HashingCapacityExceededException(retryAfterSeconds);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.dispose();
+    }
+}
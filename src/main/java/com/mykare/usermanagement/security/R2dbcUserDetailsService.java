@@ -0,0 +1,58 @@
+package com.mykare.usermanagement.security;
+
+import com.mykare.usermanagement.model.User;
+import com.mykare.usermanagement.repository.ReactiveUserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsPasswordService;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+/**
+ * Loads users for authentication on the reactive stack, by normalized email over R2DBC.
+ * Unlike {@link CustomUserDetailsService} it keeps no cache: Basic authentication is expected to
+ * be rare next to bearer tokens, and a lookup does not hold a thread while it waits.
+ */
+@Slf4j
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+public class R2dbcUserDetailsService implements ReactiveUserDetailsService, ReactiveUserDetailsPasswordService {
+
+    private final ReactiveUserRepository userRepository;
+
+    @Override
+    public Mono<UserDetails> findByUsername(String username) {
+        return userRepository.findByEmail(username).map(this::toUserDetails);
+    }
+
+    /**
+     * Called by the authentication manager after a successful login when the stored hash uses
+     * outdated parameters.
+     */
+    @Override
+    public Mono<UserDetails> updatePassword(UserDetails user, String newPassword) {
+        String email = user.getUsername();
+        UserDetails updated = org.springframework.security.core.userdetails.User.withUserDetails(user)
+                .password(newPassword)
+                .build();
+        return userRepository.updatePassword(email, newPassword)
+                .doOnNext(rows -> log.info("Upgraded password hash for user: {}", email))
+                .onErrorResume(e -> {
+                    log.warn("Failed to upgrade password hash for user {}: {}", email, e.getMessage());
+                    return Mono.empty();
+                })
+                .thenReturn(updated);
+    }
+
+    private UserDetails toUserDetails(User user) {
+        return org.springframework.security.core.userdetails.User
+                .withUsername(user.getEmail())
+                .password(user.getPassword())
+                .roles(user.getRole().name())
+                .build();
+    }
+}
@@ -0,0 +1,98 @@
+package com.mykare.usermanagement.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UserDetailsRepositoryReactiveAuthenticationManager;
+import org.springframework.security.config.annotation.method.configuration.EnableReactiveMethodSecurity;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Spring Security for the reactive stack, equivalent to {@link SecurityConfig}: the same public
+ * endpoints, stateless bearer token or HTTP Basic authentication, and method security on the admin
+ * API. Password checks run on the {@link PasswordHashingScheduler} instead of the event loop.
+ */
+@Configuration
+@Profile("reactive")
+@EnableWebFluxSecurity
+@EnableReactiveMethodSecurity
+public class ReactiveSecurityConfig {
+
+    /**
+     * The same BCrypt encoder as {@link SecurityConfig#passwordEncoder}. It hashes on the calling
+     * thread, so callers run it on the {@link PasswordHashingScheduler}.
+     */
+    @Bean
+    public PasswordEncoder passwordEncoder(@Value("${security.password.bcrypt.strength}") int strength,
+                                           @Value("${security.password.bcrypt.target-time}") Duration targetTime,
+                                           @Value("${security.password.bcrypt.min-strength}") int minStrength,
+                                           @Value("${security.password.bcrypt.max-strength}") int maxStrength) {
+        return SecurityConfig.bcryptEncoder(strength, targetTime, minStrength, maxStrength);
+    }
+
+    /**
+     * Verifies passwords on the hashing scheduler and upgrades outdated hashes after a successful
+     * login. A full hashing queue surfaces as {@link HashingCapacityExceededException}.
+     * <p>
+     * Spring's manager rejects unknown users without hashing anything, so the response time would
+     * reveal which emails are registered. Like the servlet stack's provider, unknown users are
+     * checked against a dummy hash before they are rejected.
+     */
+    @Bean
+    public ReactiveAuthenticationManager authenticationManager(R2dbcUserDetailsService userDetailsService,
+                                                               PasswordEncoder passwordEncoder,
+                                                               PasswordHashingScheduler hashingScheduler) {
+        ReactiveUserDetailsService knownUsers = username -> userDetailsService.findByUsername(username)
+                .switchIfEmpty(Mono.error(() -> new UsernameNotFoundException("User not found with email: " + username)));
+        UserDetailsRepositoryReactiveAuthenticationManager manager =
+                new UserDetailsRepositoryReactiveAuthenticationManager(knownUsers);
+        manager.setPasswordEncoder(passwordEncoder);
+        manager.setUserDetailsPasswordService(userDetailsService);
+        manager.setScheduler(hashingScheduler.scheduler());
+        String dummyHash = passwordEncoder.encode(UUID.randomUUID().toString());
+        return authentication -> manager.authenticate(authentication)
+                .onErrorResume(UsernameNotFoundException.class, e -> hashingScheduler
+                        .execute("matches", () -> passwordEncoder.matches(String.valueOf(authentication.getCredentials()), dummyHash))
+                        .then(Mono.error(new BadCredentialsException("Invalid Credentials"))))
+                .onErrorMap(RejectedExecutionException.class, e -> hashingScheduler.capacityExceeded("matches"));
+    }
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http,
+                                                         ReactiveAuthenticationManager authenticationManager,
+                                                         AccessTokenService accessTokenService) {
+        return http
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+                .authorizeExchange(exchange -> exchange
+                        .pathMatchers(
+                                "/auth/register",
+                                "/auth/login",
+                                "/v1/api-docs/**",
+                                "/swagger-ui/**",
+                                "/swagger-ui.html",
+                                "/actuator/health"
+                        ).permitAll()
+                        .anyExchange().authenticated()
+                )
+                .httpBasic(basic -> basic.authenticationManager(authenticationManager))
+                .addFilterAt(new HashingBackpressureWebFilter(), SecurityWebFiltersOrder.FIRST)
+                .addFilterBefore(new AccessTokenAuthenticationWebFilter(accessTokenService), SecurityWebFiltersOrder.HTTP_BASIC)
+                .build();
+    }
+}
@@ -1,7 +1,9 @@
 package com.mykare.usermanagement.security;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
@@ -9,35 +11,62 @@ import org.springframework.security.config.annotation.method.configuration.Enabl
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
+
+import java.time.Duration;
+import java.util.Map;
 
 /**
  * Configuration class for Spring Security.
  * This class defines security filters, password encoders, and authentication managers
- * for the user management application.
+ * for the user management application. Requests authenticate either with a bearer access
+ * token issued by {@code /auth/login} or with HTTP Basic credentials.
  */
 @Configuration
+@Profile("!reactive")
 @EnableWebSecurity
 @EnableMethodSecurity
 public class SecurityConfig {
 
+    private static final String BCRYPT = "bcrypt";
+
     /**
-     * Provides a BCryptPasswordEncoder bean for password hashing.
-     * This encoder is used to securely store and verify user passwords.
+     * Provides a BCrypt based password encoder bean for password hashing.
+     * This encoder is used to securely store and verify user passwords. Hashing runs on the
+     * {@link PasswordHashingExecutor} so it is bounded by the number of cores, both for
+     * registration and for the authentication provider that verifies passwords.
+     * <p>
+     * Unless a fixed strength is configured, the BCrypt cost is calibrated at startup to the
+     * configured target time per hash. New hashes are stored with a {@code {bcrypt}} prefix;
+     * hashes without a prefix or with a lower cost are still accepted and are upgraded on the
+     * user's next successful login.
      *
      * @return A {@link org.springframework.security.crypto.password.PasswordEncoder} instance.
      */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(PasswordHashingExecutor hashingExecutor,
+                                           @Value("${security.password.bcrypt.strength}") int strength,
+                                           @Value("${security.password.bcrypt.target-time}") Duration targetTime,
+                                           @Value("${security.password.bcrypt.min-strength}") int minStrength,
+                                           @Value("${security.password.bcrypt.max-strength}") int maxStrength) {
+        return new OffloadingPasswordEncoder(bcryptEncoder(strength, targetTime, minStrength, maxStrength), hashingExecutor);
     }
 
-    @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    /**
+     * The BCrypt encoder both stacks hash with, before any offloading: {@code {bcrypt}}-prefixed
+     * hashes at the configured or calibrated cost, accepting unprefixed ones too.
+     */
+    static PasswordEncoder bcryptEncoder(int strength, Duration targetTime, int minStrength, int maxStrength) {
+        int cost = strength > 0 ? strength : BCryptStrengthCalibrator.calibrate(targetTime, minStrength, maxStrength);
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(cost);
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(BCRYPT, Map.of(BCRYPT, bcrypt));
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+        return delegating;
     }
 
     @Bean
@@ -46,20 +75,24 @@ public class SecurityConfig {
     }
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, AccessTokenService accessTokenService) throws Exception {
         http
                 .csrf(AbstractHttpConfigurer::disable)
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers(
                                 "/auth/register",
                                 "/auth/login",
                                 "/v1/api-docs/**",
                                 "/swagger-ui/**",
-                                "/swagger-ui.html"
+                                "/swagger-ui.html",
+                                "/actuator/health"
                         ).permitAll()
                         .anyRequest().authenticated()
                 )
-                .httpBasic(Customizer.withDefaults());
+                .httpBasic(Customizer.withDefaults())
+                .addFilterBefore(new AccessTokenAuthenticationFilter(accessTokenService), BasicAuthenticationFilter.class)
+                .addFilterBefore(new HashingBackpressureFilter(), AccessTokenAuthenticationFilter.class);
 
         return http.build();
     }
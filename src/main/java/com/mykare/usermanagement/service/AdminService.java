@@ -1,66 +1,276 @@
 package com.mykare.usermanagement.service;
 
+import com.mykare.usermanagement.dto.BulkOperationResult;
+import com.mykare.usermanagement.dto.BulkUserFilter;
+import com.mykare.usermanagement.dto.UserIdentity;
+import com.mykare.usermanagement.dto.UserPage;
 import com.mykare.usermanagement.dto.UserResponse;
-import com.mykare.usermanagement.model.User;
+import com.mykare.usermanagement.event.UserDeletedEvent;
+import com.mykare.usermanagement.event.UserRoleChangedEvent;
 import com.mykare.usermanagement.model.Role;
 import com.mykare.usermanagement.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 @Service
+@Profile("!reactive")
 @RequiredArgsConstructor
 public class AdminService {
 
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
 
-    public List<UserResponse> getAllUsers() {
-        return userRepository.findAll()
-                .stream()
-                .map(this::toDto)
-                .collect(Collectors.toList());
+    @Value("${admin.users.default-page-size}")
+    private int defaultPageSize;
+
+    @Value("${admin.users.max-page-size}")
+    private int maxPageSize;
+
+    @Value("${admin.bulk.chunk-size}")
+    private int bulkChunkSize;
+
+    /**
+     * Returns one page of users in the requested order, resuming after {@code cursor} when one is given.
+     * At most {@code limit + 1} rows are read, whatever the size of the table.
+     *
+     * @param cursor    Cursor returned with the previous page, or null for the first page.
+     * @param limit     Page size; null for the default, capped at the configured maximum.
+     * @param sort      Sort key, {@code id} or {@code email}.
+     * @param direction {@code asc} or {@code desc}.
+     * @throws IllegalArgumentException if an argument is invalid or the cursor was issued for another order.
+     */
+    @Transactional(readOnly = true)
+    public UserPage getUsers(String cursor, Integer limit, String sort, String direction) {
+        UserSortKey sortKey = UserSortKey.from(sort);
+        Sort.Direction sortDirection = Sort.Direction.fromString(direction);
+        int pageSize = limit == null ? defaultPageSize : limit;
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("limit must be at least 1");
+        }
+        pageSize = Math.min(pageSize, maxPageSize);
+
+        UserCursor after = null;
+        if (cursor != null && !cursor.isBlank()) {
+            after = UserCursor.decode(cursor);
+            if (after.sortKey() != sortKey || after.direction() != sortDirection) {
+                throw new IllegalArgumentException("Cursor was issued for a different sort order");
+            }
+        }
+
+        // One extra row tells whether another page follows
+        List<UserResponse> users = fetchPage(sortKey, sortDirection, after, Limit.of(pageSize + 1));
+        String nextCursor = null;
+        if (users.size() > pageSize) {
+            users = users.subList(0, pageSize);
+            nextCursor = UserCursor.after(users.getLast(), sortKey, sortDirection).encode();
+        }
+        return UserPage.builder()
+                .users(users)
+                .nextCursor(nextCursor)
+                .build();
     }
 
-    public void deleteUserByEmail(String email) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
-        userRepository.delete(user);
+    private List<UserResponse> fetchPage(UserSortKey sortKey, Sort.Direction direction, UserCursor after, Limit limit) {
+        if (after == null) {
+            return userRepository.findResponses(Sort.by(direction, sortKey.property()), limit);
+        }
+        return switch (sortKey) {
+            case ID -> direction.isAscending()
+                    ? userRepository.findResponsesByIdAfter(after.id(), limit)
+                    : userRepository.findResponsesByIdBefore(after.id(), limit);
+            case EMAIL -> direction.isAscending()
+                    ? userRepository.findResponsesByEmailAfter(after.value(), limit)
+                    : userRepository.findResponsesByEmailBefore(after.value(), limit);
+        };
     }
 
-    private UserResponse toDto(User user) {
-        return UserResponse.builder()
-                .id(user.getId())
-                .name(user.getName())
-                .email(user.getEmail())
-                .gender(user.getGender())
-                .ipAddress(user.getIpAddress())
-                .country(user.getCountry())
-                .role(user.getRole())
-                .build();
+    /**
+     * Deletes a user in a single statement, which also returns the deleted row for the event.
+     * Only this user's cache entries are evicted.
+     *
+     * @param version Version the caller last read, or null to delete unconditionally.
+     * @throws UsernameNotFoundException          if no user has this email.
+     * @throws OptimisticLockingFailureException if the user changed since {@code version}.
+     */
+    @Transactional
+    public void deleteUserByEmail(String email, Long version) {
+        UserIdentity user = (version == null
+                ? userRepository.deleteByEmail(email)
+                : userRepository.deleteByEmailAndVersion(email, version))
+                .orElseThrow(() -> missOrConflict(email,
+                        () -> new UsernameNotFoundException("User not found with email: " + email)));
+        eventPublisher.publishEvent(new UserDeletedEvent(user.id(), user.email(), user.role(),
+                user.country(), user.gender()));
+    }
+
+    @Transactional
+    public void deleteUserByEmail(String email) {
+        deleteUserByEmail(email, null);
     }
 
+    /** Single-user reads load the entity, so they are served from the second-level cache when possible. */
+    @Transactional(readOnly = true)
     public UserResponse getUserById(Long id) {
         return userRepository.findById(id)
                 .map(UserResponse::fromEntity)
                 .orElseThrow(() -> new RuntimeException("User not found with ID: " + id));
     }
 
+    @Transactional(readOnly = true)
     public UserResponse getUserByEmail(String email) {
         return userRepository.findByEmail(email)
                 .map(UserResponse::fromEntity)
                 .orElseThrow(() -> new RuntimeException("User not found with email: " + email));
     }
 
+    /**
+     * Changes a user's role in a single statement, which also returns the row as it was before the
+     * change for the event. Only this user's cache entry is evicted.
+     *
+     * @param version Version the caller last read, or null to update unconditionally.
+     * @throws RuntimeException                  if no user has this email.
+     * @throws OptimisticLockingFailureException if the user changed since {@code version}.
+     */
+    @Transactional
+    public void updateUserRole(String email, Role newRole, Long version) {
+        Optional<UserIdentity> updated = version == null
+                ? userRepository.updateRoleByEmail(email, newRole)
+                : userRepository.updateRoleByEmailAndVersion(email, newRole, version);
+        if (updated.isEmpty()) {
+            if (version == null && userRepository.existsByEmail(email)) {
+                // Already has the requested role
+                return;
+            }
+            throw missOrConflict(email, () -> new RuntimeException("User not found"));
+        }
+        UserIdentity user = updated.get();
+        if (user.role() != newRole) {
+            eventPublisher.publishEvent(new UserRoleChangedEvent(user.id(), user.email(), user.role(), newRole,
+                    user.country(), user.gender()));
+        }
+    }
+
+    @Transactional
     public void updateUserRole(String email, Role newRole) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        user.setRole(newRole);
-        userRepository.save(user);
+        updateUserRole(email, newRole, null);
     }
 
+    /**
+     * Explains why a single-statement mutation matched no row. Only runs on that path, so the
+     * common case stays at one round trip.
+     */
+    private RuntimeException missOrConflict(String email, Supplier<RuntimeException> notFound) {
+        if (userRepository.existsByEmail(email)) {
+            return new OptimisticLockingFailureException("User " + email + " was modified concurrently");
+        }
+        return notFound.get();
+    }
+
+    /**
+     * Assigns {@code newRole} to every user matching {@code filter}. Users are handled in chunks of
+     * at most {@code admin.bulk.chunk-size}; each chunk is one {@code UPDATE ... WHERE id IN}
+     * statement in its own transaction, so locks are held briefly.
+     *
+     * @param excludedEmail Email that is never modified, normally the calling admin's.
+     * @throws IllegalArgumentException if the filter is empty or ambiguous, or no role is given.
+     */
+    public BulkOperationResult bulkUpdateRole(BulkUserFilter filter, Role newRole, String excludedEmail) {
+        if (newRole == null) {
+            throw new IllegalArgumentException("role is required");
+        }
+        return forEachChunk(filter, excludedEmail, chunk -> {
+            int updated = userRepository.updateRoleByIds(ids(chunk), newRole);
+            chunk.stream()
+                    .filter(user -> user.role() != newRole)
+                    .forEach(user -> eventPublisher.publishEvent(
+                            new UserRoleChangedEvent(user.id(), user.email(), user.role(), newRole,
+                                    user.country(), user.gender())));
+            return updated;
+        });
+    }
+
+    /**
+     * Deletes every user matching {@code filter}, chunked like {@link #bulkUpdateRole}.
+     *
+     * @param excludedEmail Email that is never deleted, normally the calling admin's.
+     * @throws IllegalArgumentException if the filter is empty or ambiguous.
+     */
+    public BulkOperationResult bulkDelete(BulkUserFilter filter, String excludedEmail) {
+        return forEachChunk(filter, excludedEmail, chunk -> {
+            int deleted = userRepository.deleteByIds(ids(chunk));
+            chunk.forEach(user -> eventPublisher.publishEvent(
+                    new UserDeletedEvent(user.id(), user.email(), user.role(), user.country(), user.gender())));
+            return deleted;
+        });
+    }
+
+    private BulkOperationResult forEachChunk(BulkUserFilter filter, String excludedEmail,
+                                             Function<List<UserIdentity>, Integer> operation) {
+        boolean byEmail = filter != null && filter.getEmails() != null && !filter.getEmails().isEmpty();
+        boolean byAttributes = filter != null && (filter.getCountry() != null || filter.getRole() != null);
+        if (byEmail == byAttributes) {
+            throw new IllegalArgumentException("Specify either a list of emails or a country and/or role filter");
+        }
+        String excluded = excludedEmail != null ? excludedEmail : "";
+
+        List<String> emails = byEmail ? filter.getEmails().stream().distinct().toList() : List.of();
+        long matched = 0;
+        long affected = 0;
+        int nextEmail = 0;
+        long afterId = 0;
+        while (true) {
+            int from = nextEmail;
+            long cursor = afterId;
+            ChunkResult result = transactionTemplate.execute(status -> {
+                List<UserIdentity> chunk = byEmail
+                        ? userRepository.findIdentitiesByEmails(
+                                emails.subList(from, Math.min(from + bulkChunkSize, emails.size())), excluded)
+                        : userRepository.findIdentitiesByFilter(filter.getCountry(), filter.getRole(),
+                                excluded, cursor, Limit.of(bulkChunkSize));
+                return new ChunkResult(chunk, chunk.isEmpty() ? 0 : operation.apply(chunk));
+            });
+            matched += result.users().size();
+            affected += result.affected();
+
+            if (byEmail) {
+                nextEmail += bulkChunkSize;
+                if (nextEmail >= emails.size()) {
+                    break;
+                }
+            } else {
+                if (result.users().size() < bulkChunkSize) {
+                    break;
+                }
+                afterId = result.users().getLast().id();
+            }
+        }
+        return BulkOperationResult.builder()
+                .matched(matched)
+                .affected(affected)
+                .build();
+    }
+
+    private static List<Long> ids(List<UserIdentity> users) {
+        return users.stream().map(UserIdentity::id).toList();
+    }
+
+    private record ChunkResult(List<UserIdentity> users, int affected) {
+    }
 }
@@ -1,78 +1,59 @@
 package com.mykare.usermanagement.service;
 
 import com.mykare.usermanagement.dto.*;
+import com.mykare.usermanagement.event.UserRegisteredEvent;
 import com.mykare.usermanagement.model.*;
 import com.mykare.usermanagement.repository.UserRepository;
+import com.mykare.usermanagement.security.AccessTokenService;
+import com.mykare.usermanagement.security.HashingCapacityExceededException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
 import org.springframework.security.authentication.*;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
 /**
  * Service class for handling user authentication and registration.
- * This includes user registration, fetching IP and country information,
- * and user login functionalities.
+ * This includes user registration and user login functionalities.
+ * Country information is resolved asynchronously by {@link GeoEnrichmentService}.
  */
 @Slf4j
 @Service
+@Profile("!reactive")
 @RequiredArgsConstructor
 public class AuthService {
 
     private final UserRepository userRepository;
-    private final BCryptPasswordEncoder passwordEncoder;
+    private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
-    private final RestTemplate restTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AccessTokenService accessTokenService;
+    private final EmailMembershipFilter emailFilter;
 
     /**
      * Registers a new user in the system.
-     * This method encrypts the user's password, fetches their IP address and country,
-     * and saves the user details to the database with a default role of USER.
+     * This method encrypts the user's password and saves the user details to the database
+     * with a default role of USER. The country is resolved later from the client IP address
+     * by the geo enrichment pipeline, so the request thread never waits on external lookups.
      *
-     * @param request The {@link RegisterRequest} object containing user registration details.
+     * @param request   The {@link RegisterRequest} object containing user registration details.
+     * @param ipAddress The client IP address the request came from, or {@code null} if unknown.
      * @return A success message indicating that the user was registered.
      * @throws RuntimeException if the email is already registered.
      *
      */
-    public String registerUser(RegisterRequest request) {
+    public String registerUser(RegisterRequest request, String ipAddress) {
         log.info("Attempting to register user with email: {}", request.getEmail());
-        if (userRepository.existsByEmail(request.getEmail())) {
+        if (isRegistered(request.getEmail())) {
             log.warn("Registration failed: Email already registered: {}", request.getEmail());
             throw new RuntimeException("Email already registered");
         }
 
-        String ipAddress = "UNKNOWN";
-        try {
-            log.info("Attempting to fetch IP address for user registration.");
-            String ipResponse = restTemplate.getForObject("https://api.ipify.org?format=json", String.class);
-            if (ipResponse != null && ipResponse.contains("\"ip\"")) {
-                ipAddress = ipResponse.replaceAll("[^0-9\\.]", "");
-                log.info("Fetched IP address: {}", ipAddress);
-            }
-        } catch (Exception ex) {
-            log.error("Error fetching IP address during registration for email {}: {}", request.getEmail(), ex.getMessage());
-            ipAddress = "UNKNOWN";
-        }
-
-        String country = "UNKNOWN";
-        try {
-            log.info("Attempting to fetch country for IP: {}", ipAddress);
-            String countryResponse = restTemplate.getForObject("http://ip-api.com/json/" + ipAddress, String.class);
-            if (countryResponse != null && countryResponse.contains("\"country\"")) {
-                country = countryResponse.split("\"country\"\\s*:\\s*\"")[1].split("\"")[0];
-                log.info("Fetched country: {}", country);
-            }
-            else {
-                log.warn("Could not parse country from response for IP {}: {}", ipAddress, countryResponse);
-            }
-        } catch (Exception ex) {
-            log.error("Error fetching country for IP {} during registration for email {}: {}", ipAddress, request.getEmail(), ex.getMessage());
-            country = "UNKNOWN";
-        }
-
         String hashedPassword = passwordEncoder.encode(request.getPassword());
 
         User user = User.builder()
@@ -80,23 +61,48 @@ public class AuthService {
                 .email(request.getEmail())
                 .gender(request.getGender())
                 .password(hashedPassword)
-                .ipAddress(ipAddress)
-                .country(country)
+                .ipAddress(ipAddress != null ? ipAddress : "UNKNOWN")
+                .country("UNKNOWN")
                 .role(Role.USER)
+                .enrichmentStatus(ipAddress != null ? EnrichmentStatus.PENDING : EnrichmentStatus.COMPLETED)
                 .build();
 
-        userRepository.save(user);
+        User saved = userRepository.save(user);
+        eventPublisher.publishEvent(new UserRegisteredEvent(saved.getId(), saved.getEmail(),
+                saved.getRole(), saved.getCountry(), saved.getGender()));
         return "User registered successfully";
     }
 
+    private boolean isRegistered(String email) {
+        if (!emailFilter.mightContain(email)) {
+            return false;
+        }
+        boolean exists = userRepository.existsByEmail(email);
+        if (!exists) {
+            emailFilter.recordFalsePositive();
+        }
+        return exists;
+    }
+
+    /**
+     * Registers a new user whose client IP address is not known.
+     *
+     * @see #registerUser(RegisterRequest, String)
+     */
+    public String registerUser(RegisterRequest request) {
+        return registerUser(request, null);
+    }
+
     /**
      * Authenticates a user based on their email and password.
      * If authentication is successful, the user's authentication details are
-     * stored in the Spring Security context.
+     * stored in the Spring Security context and a signed access token is issued that
+     * authenticates later requests without another password check.
      *
      * @param request The {@link LoginRequest} object containing user login credentials.
-     * @return A {@link LoginResponse} indicating successful login, including the user's email.
+     * @return A {@link LoginResponse} indicating successful login, including the user's email and access token.
      * @throws RuntimeException if authentication fails due to bad credentials (invalid email or password)
+     * @throws HashingCapacityExceededException if the password could not be verified because hashing is saturated.
      *
      */
     public LoginResponse login(LoginRequest request) {
@@ -107,11 +113,18 @@ public class AuthService {
             );
 
             SecurityContextHolder.getContext().setAuthentication(authentication);
+            AccessTokenService.IssuedToken token = accessTokenService.issue(authentication.getName(), roleOf(authentication));
             return LoginResponse.builder()
                     .message("Login successful")
-                    .email(request.getEmail())
+                    .email(authentication.getName())
+                    .accessToken(token.token())
+                    .tokenType("Bearer")
+                    .expiresAt(token.expiresAt())
                     .build();
         }
+        catch (HashingCapacityExceededException ex) {
+            throw ex;
+        }
         catch (BadCredentialsException | DisabledException ex) {
             log.warn("Login failed for user {}: {}", request.getEmail(), ex.getMessage());
             throw new RuntimeException("Invalid email or password");
@@ -121,4 +134,13 @@ public class AuthService {
             throw new RuntimeException("An unexpected error occurred during login");
         }
     }
+
+    private static String roleOf(Authentication authentication) {
+        return authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .filter(authority -> authority.startsWith("ROLE_"))
+                .map(authority -> authority.substring("ROLE_".length()))
+                .findFirst()
+                .orElse(Role.USER.name());
+    }
 }
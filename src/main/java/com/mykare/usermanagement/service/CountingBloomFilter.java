@@ -0,0 +1,120 @@
+package com.mykare.usermanagement.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe counting Bloom filter over strings with 4-bit counters, so entries can be removed
+ * as well as added. A counter that reaches 15 stays there, which can only turn a would-be
+ * negative into a false positive. Answers are never false negatives as long as every removed
+ * value was added first.
+ */
+class CountingBloomFilter {
+
+    private static final int COUNTERS_PER_WORD = 16;
+    private static final long COUNTER_MASK = 0xFL;
+
+    private final AtomicLongArray words;
+    private final long counters;
+    private final int hashFunctions;
+
+    /**
+     * @param expectedInsertions Number of values the filter is sized for.
+     * @param falsePositiveRate  Target false-positive rate at {@code expectedInsertions}.
+     */
+    CountingBloomFilter(long expectedInsertions, double falsePositiveRate) {
+        long n = Math.max(1, expectedInsertions);
+        long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int wordCount = Math.toIntExact((m + COUNTERS_PER_WORD - 1) / COUNTERS_PER_WORD);
+        this.words = new AtomicLongArray(wordCount);
+        this.counters = (long) wordCount * COUNTERS_PER_WORD;
+        this.hashFunctions = Math.max(1, (int) Math.round((double) counters / n * Math.log(2)));
+    }
+
+    void add(String value) {
+        long hash = hash(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashFunctions; i++) {
+            update(index(h1, h2, i), 1);
+        }
+    }
+
+    void remove(String value) {
+        long hash = hash(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashFunctions; i++) {
+            update(index(h1, h2, i), -1);
+        }
+    }
+
+    boolean mightContain(String value) {
+        long hash = hash(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashFunctions; i++) {
+            long index = index(h1, h2, i);
+            if (counter(words.get((int) (index / COUNTERS_PER_WORD)), index) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Expected false-positive rate once {@code entries} values are present. */
+    double expectedFalsePositiveRate(long entries) {
+        return Math.pow(1 - Math.exp(-(double) hashFunctions * entries / counters), hashFunctions);
+    }
+
+    long sizeInBytes() {
+        return (long) words.length() * Long.BYTES;
+    }
+
+    int hashFunctions() {
+        return hashFunctions;
+    }
+
+    private void update(long index, int delta) {
+        int word = (int) (index / COUNTERS_PER_WORD);
+        int shift = (int) (index % COUNTERS_PER_WORD) * 4;
+        while (true) {
+            long current = words.get(word);
+            long counter = (current >>> shift) & COUNTER_MASK;
+            if (counter == COUNTER_MASK || (delta < 0 && counter == 0)) {
+                return;
+            }
+            long updated = (current & ~(COUNTER_MASK << shift)) | ((counter + delta) << shift);
+            if (words.compareAndSet(word, current, updated)) {
+                return;
+            }
+        }
+    }
+
+    private long index(int h1, int h2, int i) {
+        int combined = h1 + i * h2;
+        if (combined < 0) {
+            combined = ~combined;
+        }
+        return combined % counters;
+    }
+
+    private static long counter(long word, long index) {
+        return (word >>> ((index % COUNTERS_PER_WORD) * 4)) & COUNTER_MASK;
+    }
+
+    /** FNV-1a over the UTF-8 bytes, finished with the MurmurHash3 64-bit mixer. */
+    private static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb93fe53ba6cbL;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,160 @@
+package com.mykare.usermanagement.service;
+
+import com.mykare.usermanagement.event.UserDeletedEvent;
+import com.mykare.usermanagement.model.User;
+import com.mykare.usermanagement.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PersistContext;
+import org.hibernate.event.spi.PersistEvent;
+import org.hibernate.event.spi.PersistEventListener;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * In-memory membership index over registered emails, backed by a {@link CountingBloomFilter}.
+ * A "no" from {@link #mightContain} is definite and lets callers skip the database; a "yes" may
+ * be a false positive and must be confirmed with a query.
+ * <p>
+ * The filter is filled from the table before the web server starts. New rows are added by a
+ * Hibernate persist listener, before the insert is even flushed, so every path that persists a
+ * {@link User} is covered and the inserting transaction sees its own row. An insert that later
+ * rolls back stays in the filter, which can only cause a false positive. Deletions are removed
+ * once they commit. The listener is registered before the table is read, so a row inserted during
+ * warm-up may be counted twice but is never missed.
+ */
+@Slf4j
+@Component
+@Profile("!reactive")
+public class EmailMembershipFilter {
+
+    private final UserRepository userRepository;
+    private final EntityManagerFactory entityManagerFactory;
+    private final TransactionTemplate transactionTemplate;
+    private final CountingBloomFilter filter;
+    private final long expectedInsertions;
+    private final LongAdder entries = new LongAdder();
+    private final Counter definitelyAbsent;
+    private final Counter possiblyPresent;
+    private final Counter falsePositives;
+    private volatile boolean warmed;
+
+    public EmailMembershipFilter(UserRepository userRepository,
+                                 EntityManagerFactory entityManagerFactory,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${users.email-filter.expected-insertions}") long expectedInsertions,
+                                 @Value("${users.email-filter.false-positive-rate}") double falsePositiveRate) {
+        this.userRepository = userRepository;
+        this.entityManagerFactory = entityManagerFactory;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.filter = new CountingBloomFilter(expectedInsertions, falsePositiveRate);
+        this.expectedInsertions = expectedInsertions;
+
+        this.definitelyAbsent = Counter.builder("users.email.filter.checks")
+                .description("Email membership checks answered by the filter")
+                .tag("result", "absent")
+                .register(meterRegistry);
+        this.possiblyPresent = Counter.builder("users.email.filter.checks")
+                .description("Email membership checks answered by the filter")
+                .tag("result", "maybe")
+                .register(meterRegistry);
+        this.falsePositives = Counter.builder("users.email.filter.false.positives")
+                .description("Checks the filter passed on that the database then found no user for")
+                .register(meterRegistry);
+        Gauge.builder("users.email.filter.size", filter, CountingBloomFilter::sizeInBytes)
+                .description("Memory used by the email membership filter")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("users.email.filter.entries", entries, LongAdder::sum)
+                .description("Emails currently in the membership filter")
+                .register(meterRegistry);
+        Gauge.builder("users.email.filter.expected.fpp", this, f -> f.filter.expectedFalsePositiveRate(f.entries.sum()))
+                .description("Expected false-positive rate at the current number of entries")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void warm() {
+        entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .requireService(EventListenerRegistry.class)
+                .appendListeners(EventType.PERSIST, new PersistListener());
+
+        long started = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<String> emails = userRepository.streamAllEmails()) {
+                emails.forEach(this::add);
+            }
+        });
+        warmed = true;
+        log.info("Email membership filter loaded {} emails in {} ms ({} KiB, {} hash functions, expected false-positive rate {})",
+                entries.sum(), (System.nanoTime() - started) / 1_000_000, filter.sizeInBytes() / 1024,
+                filter.hashFunctions(), String.format(Locale.ROOT, "%.4f", filter.expectedFalsePositiveRate(entries.sum())));
+    }
+
+    /**
+     * @return false only if no user with this email exists; true if one might.
+     */
+    public boolean mightContain(String email) {
+        if (!warmed || email == null) {
+            return true;
+        }
+        boolean result = filter.mightContain(User.normalizeEmail(email));
+        (result ? possiblyPresent : definitelyAbsent).increment();
+        return result;
+    }
+
+    /**
+     * Records that a {@link #mightContain} hit turned out not to exist in the database.
+     */
+    public void recordFalsePositive() {
+        falsePositives.increment();
+    }
+
+    void add(String email) {
+        filter.add(User.normalizeEmail(email));
+        entries.increment();
+        if (entries.sum() == expectedInsertions + 1) {
+            log.warn("Email membership filter holds more than the {} emails it was sized for; "
+                    + "raise users.email-filter.expected-insertions", expectedInsertions);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        filter.remove(User.normalizeEmail(event.email()));
+        entries.decrement();
+    }
+
+    private final class PersistListener implements PersistEventListener {
+
+        @Override
+        public void onPersist(PersistEvent event) {
+            if (event.getObject() instanceof User user) {
+                add(user.getEmail());
+            }
+        }
+
+        @Override
+        public void onPersist(PersistEvent event, PersistContext createdAlready) {
+            // Cascaded persists; users are never reached by cascade
+        }
+    }
+}
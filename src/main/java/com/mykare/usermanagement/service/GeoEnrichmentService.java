@@ -0,0 +1,298 @@
+package com.mykare.usermanagement.service;
+
+import com.mykare.usermanagement.event.UserCountryChangedEvent;
+import com.mykare.usermanagement.event.UserRegisteredEvent;
+import com.mykare.usermanagement.model.EnrichmentStatus;
+import com.mykare.usermanagement.model.User;
+import com.mykare.usermanagement.repository.UserRepository;
+import com.mykare.usermanagement.service.geo.GeoIpResolver;
+import com.mykare.usermanagement.service.geo.GeoIpUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background pipeline that resolves the country of newly registered users from their IP address.
+ * Registration only persists the user with {@link EnrichmentStatus#PENDING}; this service
+ * picks the user up from a bounded queue, performs the external lookups off the request
+ * thread and writes the results back in batches. Lookups that fail are retried by the
+ * periodic sweep until {@code geo.enrichment.max-attempts} is reached, after which the
+ * user is moved to {@link EnrichmentStatus#FAILED}. Lookups the resolver rejects without calling
+ * the provider, because its circuit breaker is open or its bulkhead is full, do not count as an
+ * attempt: those users stay pending for the next sweep.
+ * <p>
+ * With {@code spring.threads.virtual.enabled} the lookups of a batch run concurrently, one
+ * virtual thread each and at most {@code geo.bulkhead.max-concurrent-calls} at a time, instead
+ * of one after another on the worker thread.
+ */
+@Slf4j
+@Service
+@Profile("!reactive")
+public class GeoEnrichmentService {
+
+    private static final String UNKNOWN = "UNKNOWN";
+
+    private final UserRepository userRepository;
+    private final GeoIpResolver geoIpResolver;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BlockingQueue<Long> queue;
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+    private final int batchSize;
+    private final int maxAttempts;
+    private final boolean virtualThreads;
+    private final Semaphore lookupPermits;
+
+    private final Counter completed;
+    private final Counter retried;
+    private final Counter deadLettered;
+    private final Counter rejected;
+    private final Counter deferred;
+
+    private ExecutorService worker;
+    private ExecutorService lookups;
+    private volatile boolean running;
+
+    public GeoEnrichmentService(UserRepository userRepository,
+                                GeoIpResolver geoIpResolver,
+                                PlatformTransactionManager transactionManager,
+                                ApplicationEventPublisher eventPublisher,
+                                MeterRegistry meterRegistry,
+                                @Value("${geo.enrichment.queue-capacity}") int queueCapacity,
+                                @Value("${geo.enrichment.batch-size}") int batchSize,
+                                @Value("${geo.enrichment.max-attempts}") int maxAttempts,
+                                @Value("${spring.threads.virtual.enabled}") boolean virtualThreads,
+                                @Value("${geo.bulkhead.max-concurrent-calls}") int maxConcurrentLookups) {
+        this.userRepository = userRepository;
+        this.geoIpResolver = geoIpResolver;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.virtualThreads = virtualThreads;
+        this.lookupPermits = new Semaphore(maxConcurrentLookups);
+
+        Gauge.builder("geo.enrichment.queue.depth", queue, BlockingQueue::size)
+                .description("Users waiting for geo enrichment")
+                .register(meterRegistry);
+        Gauge.builder("geo.enrichment.in.flight", inFlight, Set::size)
+                .description("Users queued or currently being enriched")
+                .register(meterRegistry);
+        this.completed = meterRegistry.counter("geo.enrichment.completed");
+        this.retried = meterRegistry.counter("geo.enrichment.retried");
+        this.deadLettered = meterRegistry.counter("geo.enrichment.dead.lettered");
+        this.rejected = meterRegistry.counter("geo.enrichment.rejected");
+        this.deferred = meterRegistry.counter("geo.enrichment.deferred");
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        if (virtualThreads) {
+            worker = Executors.newSingleThreadExecutor(Thread.ofVirtual().name("geo-enrichment").factory());
+            lookups = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("geo-lookup-", 0).factory());
+        } else {
+            worker = Executors.newSingleThreadExecutor(Thread.ofPlatform().name("geo-enrichment").daemon().factory());
+        }
+        worker.submit(this::drainLoop);
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        worker.shutdownNow();
+        if (lookups != null) {
+            lookups.shutdownNow();
+        }
+    }
+
+    /**
+     * Queues a freshly registered user once the registering transaction has committed.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserRegistered(UserRegisteredEvent event) {
+        enqueue(event.userId());
+    }
+
+    /**
+     * Re-queues pending users that were dropped because the queue was full, that failed
+     * a previous attempt, or that were left over from before a restart.
+     */
+    @Scheduled(initialDelayString = "${geo.enrichment.sweep-interval-ms}",
+            fixedDelayString = "${geo.enrichment.sweep-interval-ms}")
+    public void sweepPending() {
+        int capacity = queue.remainingCapacity();
+        if (capacity == 0) {
+            return;
+        }
+        userRepository.findByEnrichmentStatusOrderByIdAsc(EnrichmentStatus.PENDING, Limit.of(capacity))
+                .forEach(user -> enqueue(user.getId()));
+    }
+
+    /**
+     * @return Number of users currently waiting in the queue.
+     */
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    private void enqueue(Long userId) {
+        if (!inFlight.add(userId)) {
+            return;
+        }
+        if (!queue.offer(userId)) {
+            inFlight.remove(userId);
+            rejected.increment();
+            log.warn("Geo enrichment queue full, user {} left pending for the next sweep", userId);
+        }
+    }
+
+    private void drainLoop() {
+        List<Long> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                Long first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                processBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Geo enrichment batch failed", e);
+            } finally {
+                batch.forEach(inFlight::remove);
+                batch.clear();
+            }
+        }
+    }
+
+    private void processBatch(List<Long> userIds) throws InterruptedException {
+        List<User> pending = userRepository.findAllById(userIds).stream()
+                .filter(user -> user.getEnrichmentStatus() == EnrichmentStatus.PENDING)
+                .toList();
+        Map<Long, String> resolved = new HashMap<>();
+        Set<Long> failed = new HashSet<>();
+        Set<Long> unavailable = new HashSet<>();
+        if (lookups == null) {
+            for (User user : pending) {
+                try {
+                    addResult(user, lookup(user), resolved, failed);
+                } catch (GeoIpUnavailableException e) {
+                    unavailable.add(user.getId());
+                }
+            }
+        } else {
+            Map<User, Future<String>> futures = new HashMap<>();
+            for (User user : pending) {
+                futures.put(user, lookups.submit(() -> lookupWithPermit(user)));
+            }
+            for (Map.Entry<User, Future<String>> future : futures.entrySet()) {
+                try {
+                    addResult(future.getKey(), future.getValue().get(), resolved, failed);
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof GeoIpUnavailableException) {
+                        unavailable.add(future.getKey().getId());
+                    } else {
+                        addResult(future.getKey(), null, resolved, failed);
+                    }
+                }
+            }
+        }
+        if (!unavailable.isEmpty()) {
+            deferred.increment(unavailable.size());
+            log.debug("Geo provider unavailable, {} users left pending for the next sweep", unavailable.size());
+        }
+        if (resolved.isEmpty() && failed.isEmpty()) {
+            return;
+        }
+
+        // Re-read inside the write transaction so concurrent edits to other columns are not overwritten.
+        transactionTemplate.executeWithoutResult(status -> {
+            for (User user : userRepository.findAllById(userIds)) {
+                String country = resolved.get(user.getId());
+                if (country != null) {
+                    if (!country.equals(user.getCountry())) {
+                        eventPublisher.publishEvent(new UserCountryChangedEvent(user.getId(), user.getCountry(), country));
+                    }
+                    user.setCountry(country);
+                    user.setEnrichmentStatus(EnrichmentStatus.COMPLETED);
+                    completed.increment();
+                } else if (failed.contains(user.getId())) {
+                    user.setEnrichmentAttempts(user.getEnrichmentAttempts() + 1);
+                    if (user.getEnrichmentAttempts() >= maxAttempts) {
+                        user.setEnrichmentStatus(EnrichmentStatus.FAILED);
+                        deadLettered.increment();
+                        log.error("Geo enrichment gave up on user {} after {} attempts", user.getId(), maxAttempts);
+                    } else {
+                        retried.increment();
+                    }
+                }
+            }
+        });
+    }
+
+    private String lookupWithPermit(User user) throws InterruptedException {
+        lookupPermits.acquire();
+        try {
+            return lookup(user);
+        } finally {
+            lookupPermits.release();
+        }
+    }
+
+    /**
+     * @return The resolved country, {@link #UNKNOWN} if the resolver has none, or {@code null} if the lookup failed.
+     * @throws GeoIpUnavailableException If the resolver rejected the lookup without calling the provider.
+     */
+    private String lookup(User user) {
+        try {
+            return geoIpResolver.resolveCountry(user.getIpAddress()).orElse(UNKNOWN);
+        } catch (GeoIpUnavailableException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            log.warn("Geo lookup failed for user {}: {}", user.getId(), ex.getMessage());
+            return null;
+        }
+    }
+
+    private static void addResult(User user, String country, Map<Long, String> resolved, Set<Long> failed) {
+        if (country != null) {
+            resolved.put(user.getId(), country);
+        } else {
+            failed.add(user.getId());
+        }
+    }
+}
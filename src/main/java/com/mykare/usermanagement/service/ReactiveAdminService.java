@@ -0,0 +1,318 @@
+package com.mykare.usermanagement.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mykare.usermanagement.dto.BulkOperationResult;
+import com.mykare.usermanagement.dto.BulkUserFilter;
+import com.mykare.usermanagement.dto.UserCount;
+import com.mykare.usermanagement.dto.UserIdentity;
+import com.mykare.usermanagement.dto.UserPage;
+import com.mykare.usermanagement.dto.UserResponse;
+import com.mykare.usermanagement.dto.UserSearchCriteria;
+import com.mykare.usermanagement.dto.UserStats;
+import com.mykare.usermanagement.model.Role;
+import com.mykare.usermanagement.repository.ReactiveUserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Reactive counterpart of {@link AdminService}, {@link UserSearchService}, {@link UserStatsService}
+ * and {@link UserExportService}, with the same paging, locking and chunking rules. Statistics come
+ * from a {@code GROUP BY} rather than in-memory counters: registration publishes
+ * {@code UserRegisteredEvent}, but the bulk and single-user admin writes here publish no events, so
+ * counters would drift. The result is shared for {@code users.stats.reactive-cache-ttl}, so frequent
+ * requests do not each scan the table.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveAdminService {
+
+    private final ReactiveUserRepository userRepository;
+    private final TransactionalOperator transactionalOperator;
+    private final ObjectMapper objectMapper;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+    private final int bulkChunkSize;
+    private final Mono<UserStats> stats;
+
+    public ReactiveAdminService(ReactiveUserRepository userRepository,
+                                TransactionalOperator transactionalOperator,
+                                ObjectMapper objectMapper,
+                                @Value("${admin.users.default-page-size}") int defaultPageSize,
+                                @Value("${admin.users.max-page-size}") int maxPageSize,
+                                @Value("${admin.bulk.chunk-size}") int bulkChunkSize,
+                                @Value("${users.stats.reactive-cache-ttl}") Duration statsTtl) {
+        this.userRepository = userRepository;
+        this.transactionalOperator = transactionalOperator;
+        this.objectMapper = objectMapper;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+        this.bulkChunkSize = bulkChunkSize;
+        // Failures are not cached, so the next request queries again
+        this.stats = Mono.defer(this::countUsers)
+                .cache(result -> statsTtl, error -> Duration.ZERO, () -> Duration.ZERO);
+    }
+
+    /**
+     * Returns one page of users in the requested order, see {@link AdminService#getUsers}.
+     * Fails with {@link IllegalArgumentException} if an argument is invalid or the cursor was issued for another order.
+     */
+    public Mono<UserPage> getUsers(String cursor, Integer limit, String sort, String direction) {
+        return Mono.defer(() -> {
+            UserSortKey sortKey = UserSortKey.from(sort);
+            Sort.Direction sortDirection = Sort.Direction.fromString(direction);
+            int pageSize = pageSize(limit);
+            UserCursor after = decode(cursor, sortKey, sortDirection);
+
+            // One extra row tells whether another page follows
+            return fetchPage(sortKey, sortDirection, after, pageSize + 1)
+                    .collectList()
+                    .map(users -> toPage(users, pageSize, sortKey, sortDirection));
+        });
+    }
+
+    private Flux<UserResponse> fetchPage(UserSortKey sortKey, Sort.Direction direction, UserCursor after, int limit) {
+        if (after == null) {
+            return userRepository.findResponses(Sort.by(direction, sortKey.property()), limit);
+        }
+        return switch (sortKey) {
+            case ID -> direction.isAscending()
+                    ? userRepository.findResponsesByIdAfter(after.id(), limit)
+                    : userRepository.findResponsesByIdBefore(after.id(), limit);
+            case EMAIL -> direction.isAscending()
+                    ? userRepository.findResponsesByEmailAfter(after.value(), limit)
+                    : userRepository.findResponsesByEmailBefore(after.value(), limit);
+        };
+    }
+
+    /**
+     * Returns one page of the users matching {@code criteria} in ID order, see {@link UserSearchService#search}.
+     */
+    public Mono<UserPage> search(UserSearchCriteria criteria, String cursor, Integer limit) {
+        return Mono.defer(() -> {
+            int pageSize = pageSize(limit);
+            UserCursor after = decode(cursor, UserSortKey.ID, Sort.Direction.ASC);
+            return userRepository.search(criteria, after == null ? null : after.id(), pageSize + 1)
+                    .collectList()
+                    .map(users -> toPage(users, pageSize, UserSortKey.ID, Sort.Direction.ASC));
+        });
+    }
+
+    /**
+     * @return Counts of users in total and by role, country and gender, read from the database at
+     * most once per {@code users.stats.reactive-cache-ttl}; {@code reconciledAt} is the time of the read.
+     */
+    public Mono<UserStats> getStats() {
+        return stats;
+    }
+
+    private Mono<UserStats> countUsers() {
+        return userRepository.countByRoleCountryAndGender()
+                .collectList()
+                .map(counts -> {
+                    Map<String, Long> roles = new TreeMap<>();
+                    Map<String, Long> countries = new TreeMap<>();
+                    Map<String, Long> genders = new TreeMap<>();
+                    long total = 0;
+                    for (UserCount count : counts) {
+                        roles.merge(count.role() == null ? UserStatsService.UNKNOWN : count.role().name(), count.count(), Long::sum);
+                        countries.merge(count.country() == null ? UserStatsService.UNKNOWN : count.country(), count.count(), Long::sum);
+                        genders.merge(count.gender() == null ? UserStatsService.UNKNOWN : count.gender(), count.count(), Long::sum);
+                        total += count.count();
+                    }
+                    return UserStats.builder()
+                            .total(total)
+                            .byRole(roles)
+                            .byCountry(countries)
+                            .byGender(genders)
+                            .reconciledAt(Instant.now())
+                            .build();
+                });
+    }
+
+    /**
+     * Every user in ID order as lines of {@code format}, read from the database as the client consumes them.
+     */
+    public Flux<String> export(UserDataFormat format) {
+        Flux<UserResponse> users = userRepository.streamAllResponses();
+        return switch (format) {
+            case NDJSON -> users.map(this::toJsonLine);
+            case CSV -> users.map(UserExportService::csvRow).startWith(UserExportService.CSV_HEADER + "\r\n");
+        };
+    }
+
+    private String toJsonLine(UserResponse user) {
+        try {
+            return objectMapper.writeValueAsString(user) + "\n";
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize user " + user.getId(), e);
+        }
+    }
+
+    /**
+     * Deletes a user in a single statement, see {@link AdminService#deleteUserByEmail(String, Long)}.
+     */
+    @Transactional
+    public Mono<Void> deleteUserByEmail(String email, Long version) {
+        Mono<Long> deleted = version == null
+                ? userRepository.deleteByEmail(email)
+                : userRepository.deleteByEmailAndVersion(email, version);
+        return deleted.flatMap(count -> count == 0
+                ? missOrConflict(email, () -> new UsernameNotFoundException("User not found with email: " + email))
+                : Mono.empty());
+    }
+
+    public Mono<UserResponse> getUserById(Long id) {
+        return userRepository.findById(id)
+                .map(UserResponse::fromEntity)
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("User not found with ID: " + id)));
+    }
+
+    public Mono<UserResponse> getUserByEmail(String email) {
+        return userRepository.findByEmail(email)
+                .map(UserResponse::fromEntity)
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("User not found with email: " + email)));
+    }
+
+    /**
+     * Changes a user's role in a single statement, see {@link AdminService#updateUserRole(String, Role, Long)}.
+     */
+    @Transactional
+    public Mono<Void> updateUserRole(String email, Role newRole, Long version) {
+        Mono<Long> updated = version == null
+                ? userRepository.updateRoleByEmail(email, newRole)
+                : userRepository.updateRoleByEmailAndVersion(email, newRole, version);
+        return updated.flatMap(count -> {
+            if (count > 0) {
+                return Mono.empty();
+            }
+            if (version == null) {
+                // Already has the requested role, unless there is no such user
+                return userRepository.existsByEmail(email)
+                        .flatMap(exists -> exists ? Mono.empty() : Mono.error(new RuntimeException("User not found")));
+            }
+            return missOrConflict(email, () -> new RuntimeException("User not found"));
+        });
+    }
+
+    private Mono<Void> missOrConflict(String email, Supplier<RuntimeException> notFound) {
+        return userRepository.existsByEmail(email)
+                .flatMap(exists -> Mono.error(exists
+                        ? new OptimisticLockingFailureException("User " + email + " was modified concurrently")
+                        : notFound.get()));
+    }
+
+    /**
+     * Assigns {@code newRole} to every user matching {@code filter}, one transaction per chunk of at
+     * most {@code admin.bulk.chunk-size} users, see {@link AdminService#bulkUpdateRole}.
+     */
+    public Mono<BulkOperationResult> bulkUpdateRole(BulkUserFilter filter, Role newRole, String excludedEmail) {
+        if (newRole == null) {
+            return Mono.error(new IllegalArgumentException("role is required"));
+        }
+        return forEachChunk(filter, excludedEmail, chunk -> userRepository.updateRoleByIds(ids(chunk), newRole));
+    }
+
+    /**
+     * Deletes every user matching {@code filter}, chunked like {@link #bulkUpdateRole}.
+     */
+    public Mono<BulkOperationResult> bulkDelete(BulkUserFilter filter, String excludedEmail) {
+        return forEachChunk(filter, excludedEmail, chunk -> userRepository.deleteByIds(ids(chunk)));
+    }
+
+    private Mono<BulkOperationResult> forEachChunk(BulkUserFilter filter, String excludedEmail,
+                                                   Function<List<UserIdentity>, Mono<Long>> operation) {
+        boolean byEmail = filter != null && filter.getEmails() != null && !filter.getEmails().isEmpty();
+        boolean byAttributes = filter != null && (filter.getCountry() != null || filter.getRole() != null);
+        if (byEmail == byAttributes) {
+            return Mono.error(new IllegalArgumentException("Specify either a list of emails or a country and/or role filter"));
+        }
+        String excluded = excludedEmail != null ? excludedEmail : "";
+
+        Flux<ChunkResult> chunks;
+        if (byEmail) {
+            List<String> emails = filter.getEmails().stream().distinct().toList();
+            chunks = Flux.range(0, (emails.size() + bulkChunkSize - 1) / bulkChunkSize)
+                    .concatMap(i -> inTransaction(userRepository.findIdentitiesByEmails(
+                            emails.subList(i * bulkChunkSize, Math.min((i + 1) * bulkChunkSize, emails.size())), excluded),
+                            operation));
+        } else {
+            Function<Long, Mono<ChunkResult>> afterId = cursor -> inTransaction(userRepository.findIdentitiesByFilter(
+                    filter.getCountry(), filter.getRole(), excluded, cursor, bulkChunkSize), operation);
+            chunks = afterId.apply(0L).expand(previous -> previous.users().size() < bulkChunkSize
+                    ? Mono.empty()
+                    : afterId.apply(previous.users().getLast().id()));
+        }
+        return chunks.reduceWith(() -> new long[2], (totals, chunk) -> {
+                    totals[0] += chunk.users().size();
+                    totals[1] += chunk.affected();
+                    return totals;
+                })
+                .map(totals -> BulkOperationResult.builder()
+                        .matched(totals[0])
+                        .affected(totals[1])
+                        .build());
+    }
+
+    private Mono<ChunkResult> inTransaction(Flux<UserIdentity> chunk, Function<List<UserIdentity>, Mono<Long>> operation) {
+        return chunk.collectList()
+                .flatMap(users -> users.isEmpty()
+                        ? Mono.just(new ChunkResult(users, 0))
+                        : operation.apply(users).map(affected -> new ChunkResult(users, affected)))
+                .as(transactionalOperator::transactional);
+    }
+
+    private int pageSize(Integer limit) {
+        int pageSize = limit == null ? defaultPageSize : limit;
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("limit must be at least 1");
+        }
+        return Math.min(pageSize, maxPageSize);
+    }
+
+    private static UserCursor decode(String cursor, UserSortKey sortKey, Sort.Direction direction) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        UserCursor after = UserCursor.decode(cursor);
+        if (after.sortKey() != sortKey || after.direction() != direction) {
+            throw new IllegalArgumentException("Cursor was issued for a different sort order");
+        }
+        return after;
+    }
+
+    private static UserPage toPage(List<UserResponse> users, int pageSize, UserSortKey sortKey, Sort.Direction direction) {
+        String nextCursor = null;
+        if (users.size() > pageSize) {
+            users = users.subList(0, pageSize);
+            nextCursor = UserCursor.after(users.getLast(), sortKey, direction).encode();
+        }
+        return UserPage.builder()
+                .users(users)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    private static List<Long> ids(List<UserIdentity> users) {
+        return users.stream().map(UserIdentity::id).toList();
+    }
+
+    private record ChunkResult(List<UserIdentity> users, long affected) {
+    }
+}
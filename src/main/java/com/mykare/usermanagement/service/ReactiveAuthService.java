@@ -0,0 +1,122 @@
+package com.mykare.usermanagement.service;
+
+import com.mykare.usermanagement.dto.LoginRequest;
+import com.mykare.usermanagement.dto.LoginResponse;
+import com.mykare.usermanagement.dto.RegisterRequest;
+import com.mykare.usermanagement.event.UserRegisteredEvent;
+import com.mykare.usermanagement.model.EnrichmentStatus;
+import com.mykare.usermanagement.model.Role;
+import com.mykare.usermanagement.model.User;
+import com.mykare.usermanagement.repository.ReactiveUserRepository;
+import com.mykare.usermanagement.security.AccessTokenService;
+import com.mykare.usermanagement.security.HashingCapacityExceededException;
+import com.mykare.usermanagement.security.PasswordHashingScheduler;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.DisabledException;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive counterpart of {@link AuthService}, with the same rules and messages. Password hashing
+ * runs on the {@link PasswordHashingScheduler} and the database is reached over R2DBC, so no
+ * event loop thread ever blocks. Country information is resolved asynchronously by
+ * {@link ReactiveGeoEnrichmentService}.
+ */
+@Slf4j
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveAuthService {
+
+    private final ReactiveUserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingScheduler hashingScheduler;
+    private final ReactiveAuthenticationManager authenticationManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AccessTokenService accessTokenService;
+
+    /**
+     * Registers a new user with the USER role, see {@link AuthService#registerUser(RegisterRequest, String)}.
+     *
+     * @param ipAddress The client IP address the request came from, or {@code null} if unknown.
+     * @return A success message; fails with a {@link RuntimeException} if the email is already registered,
+     * or with {@link HashingCapacityExceededException} if hashing is saturated.
+     */
+    public Mono<String> registerUser(RegisterRequest request, String ipAddress) {
+        log.info("Attempting to register user with email: {}", request.getEmail());
+        return userRepository.existsByEmail(request.getEmail())
+                .flatMap(exists -> {
+                    if (exists) {
+                        log.warn("Registration failed: Email already registered: {}", request.getEmail());
+                        return Mono.error(new RuntimeException("Email already registered"));
+                    }
+                    return hashingScheduler.execute("encode", () -> passwordEncoder.encode(request.getPassword()));
+                })
+                .flatMap(hashedPassword -> userRepository.insert(User.builder()
+                        .name(request.getName())
+                        .email(request.getEmail())
+                        .gender(request.getGender())
+                        .password(hashedPassword)
+                        .ipAddress(ipAddress != null ? ipAddress : "UNKNOWN")
+                        .country("UNKNOWN")
+                        .role(Role.USER)
+                        .enrichmentStatus(ipAddress != null ? EnrichmentStatus.PENDING : EnrichmentStatus.COMPLETED)
+                        .build()))
+                // Lost a race with a concurrent registration of the same email
+                .onErrorMap(DuplicateKeyException.class, e -> new RuntimeException("Email already registered"))
+                .doOnNext(saved -> eventPublisher.publishEvent(new UserRegisteredEvent(saved.getId(), saved.getEmail(),
+                        saved.getRole(), saved.getCountry(), saved.getGender())))
+                .thenReturn("User registered successfully");
+    }
+
+    /**
+     * Checks the user's password and issues a signed access token, see {@link AuthService#login}.
+     *
+     * @return A {@link LoginResponse} with the user's email and access token; fails with a
+     * {@link RuntimeException} on bad credentials, or with {@link HashingCapacityExceededException}
+     * if hashing is saturated.
+     */
+    public Mono<LoginResponse> login(LoginRequest request) {
+        log.info("Attempting to log in user with email: {}", request.getEmail());
+        return authenticationManager.authenticate(
+                        UsernamePasswordAuthenticationToken.unauthenticated(request.getEmail(), request.getPassword()))
+                .switchIfEmpty(Mono.error(() -> new BadCredentialsException("Invalid Credentials")))
+                .map(authentication -> {
+                    AccessTokenService.IssuedToken token = accessTokenService.issue(authentication.getName(), roleOf(authentication));
+                    return LoginResponse.builder()
+                            .message("Login successful")
+                            .email(authentication.getName())
+                            .accessToken(token.token())
+                            .tokenType("Bearer")
+                            .expiresAt(token.expiresAt())
+                            .build();
+                })
+                .onErrorMap(ex -> !(ex instanceof HashingCapacityExceededException), ex -> {
+                    if (ex instanceof BadCredentialsException || ex instanceof DisabledException) {
+                        log.warn("Login failed for user {}: {}", request.getEmail(), ex.getMessage());
+                        return new RuntimeException("Invalid email or password");
+                    }
+                    log.error("An unexpected error occurred during login for user {}: {}", request.getEmail(), ex.getMessage(), ex);
+                    return new RuntimeException("An unexpected error occurred during login");
+                });
+    }
+
+    private static String roleOf(Authentication authentication) {
+        return authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .filter(authority -> authority.startsWith("ROLE_"))
+                .map(authority -> authority.substring("ROLE_".length()))
+                .findFirst()
+                .orElse(Role.USER.name());
+    }
+}
@@ -0,0 +1,195 @@
+package com.mykare.usermanagement.service;
+
+import com.mykare.usermanagement.event.UserRegisteredEvent;
+import com.mykare.usermanagement.model.EnrichmentStatus;
+import com.mykare.usermanagement.model.User;
+import com.mykare.usermanagement.repository.ReactiveUserRepository;
+import com.mykare.usermanagement.service.geo.WebClientGeoIpResolver;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reactive counterpart of {@link GeoEnrichmentService}: resolves the country of newly registered
+ * users with non-blocking lookups. Users wait in a bounded queue and at most
+ * {@code geo.bulkhead.max-concurrent-calls} lookups are outstanding at a time. Each result is
+ * written back with a single conditional update, so a user that is no longer pending is left
+ * alone. Failed lookups are retried by the periodic sweep until {@code geo.enrichment.max-attempts}
+ * is reached, after which the user is moved to {@link EnrichmentStatus#FAILED}.
+ */
+@Slf4j
+@Service
+@Profile("reactive")
+public class ReactiveGeoEnrichmentService {
+
+    private static final String UNKNOWN = "UNKNOWN";
+
+    private final ReactiveUserRepository userRepository;
+    private final WebClientGeoIpResolver geoIpResolver;
+    private final BlockingQueue<Long> queue;
+    private final Sinks.Many<Long> sink;
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+    private final int maxAttempts;
+    private final int maxConcurrentLookups;
+
+    private final Counter completed;
+    private final Counter retried;
+    private final Counter deadLettered;
+    private final Counter rejected;
+
+    private Disposable pipeline;
+
+    public ReactiveGeoEnrichmentService(ReactiveUserRepository userRepository,
+                                        WebClientGeoIpResolver geoIpResolver,
+                                        MeterRegistry meterRegistry,
+                                        @Value("${geo.enrichment.queue-capacity}") int queueCapacity,
+                                        @Value("${geo.enrichment.max-attempts}") int maxAttempts,
+                                        @Value("${geo.bulkhead.max-concurrent-calls}") int maxConcurrentLookups) {
+        this.userRepository = userRepository;
+        this.geoIpResolver = geoIpResolver;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.sink = Sinks.many().unicast().onBackpressureBuffer(queue);
+        this.maxAttempts = maxAttempts;
+        this.maxConcurrentLookups = maxConcurrentLookups;
+
+        Gauge.builder("geo.enrichment.queue.depth", queue, BlockingQueue::size)
+                .description("Users waiting for geo enrichment")
+                .register(meterRegistry);
+        Gauge.builder("geo.enrichment.in.flight", inFlight, Set::size)
+                .description("Users queued or currently being enriched")
+                .register(meterRegistry);
+        this.completed = meterRegistry.counter("geo.enrichment.completed");
+        this.retried = meterRegistry.counter("geo.enrichment.retried");
+        this.deadLettered = meterRegistry.counter("geo.enrichment.dead.lettered");
+        this.rejected = meterRegistry.counter("geo.enrichment.rejected");
+    }
+
+    @PostConstruct
+    void start() {
+        pipeline = sink.asFlux()
+                .flatMap(userId -> enrich(userId)
+                        .onErrorResume(e -> {
+                            log.error("Geo enrichment failed for user {}", userId, e);
+                            return Mono.empty();
+                        })
+                        .doFinally(signal -> inFlight.remove(userId)), maxConcurrentLookups)
+                .subscribe();
+    }
+
+    @PreDestroy
+    void stop() {
+        pipeline.dispose();
+    }
+
+    /**
+     * Queues a freshly registered user.
+     */
+    @EventListener
+    public void onUserRegistered(UserRegisteredEvent event) {
+        enqueue(event.userId());
+    }
+
+    /**
+     * Re-queues pending users that were dropped because the queue was full, that failed
+     * a previous attempt, or that were left over from before a restart.
+     */
+    @Scheduled(initialDelayString = "${geo.enrichment.sweep-interval-ms}",
+            fixedDelayString = "${geo.enrichment.sweep-interval-ms}")
+    public Mono<Void> sweepPending() {
+        int capacity = queue.remainingCapacity();
+        if (capacity == 0) {
+            return Mono.empty();
+        }
+        return userRepository.findIdsByEnrichmentStatus(EnrichmentStatus.PENDING, capacity)
+                .doOnNext(this::enqueue)
+                .then();
+    }
+
+    /**
+     * @return Number of users currently waiting in the queue.
+     */
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    private void enqueue(Long userId) {
+        if (!inFlight.add(userId)) {
+            return;
+        }
+        Sinks.EmitResult result;
+        do {
+            // Registrations on different event loops may emit at the same time
+            result = sink.tryEmitNext(userId);
+        } while (result == Sinks.EmitResult.FAIL_NON_SERIALIZED);
+        if (result.isFailure()) {
+            inFlight.remove(userId);
+            rejected.increment();
+            log.warn("Geo enrichment queue full, user {} left pending for the next sweep", userId);
+        }
+    }
+
+    private Mono<Void> enrich(Long userId) {
+        return userRepository.findById(userId)
+                .filter(user -> user.getEnrichmentStatus() == EnrichmentStatus.PENDING)
+                .flatMap(user -> lookup(user).flatMap(country -> country.isPresent()
+                        ? complete(user, country.get())
+                        : recordFailure(user)));
+    }
+
+    private Mono<Void> complete(User user, String country) {
+        return userRepository.completeEnrichment(user.getId(), country)
+                .doOnNext(updated -> {
+                    if (updated > 0) {
+                        completed.increment();
+                    }
+                })
+                .then();
+    }
+
+    private Mono<Void> recordFailure(User user) {
+        boolean exhausted = user.getEnrichmentAttempts() + 1 >= maxAttempts;
+        EnrichmentStatus status = exhausted ? EnrichmentStatus.FAILED : EnrichmentStatus.PENDING;
+        return userRepository.recordFailedEnrichment(user.getId(), user.getEnrichmentAttempts(), status)
+                .doOnNext(updated -> {
+                    if (updated == 0) {
+                        return;
+                    }
+                    if (exhausted) {
+                        deadLettered.increment();
+                        log.error("Geo enrichment gave up on user {} after {} attempts", user.getId(), maxAttempts);
+                    } else {
+                        retried.increment();
+                    }
+                })
+                .then();
+    }
+
+    /**
+     * @return The resolved country, {@link #UNKNOWN} if the resolver has none, or empty if the lookup failed.
+     */
+    private Mono<Optional<String>> lookup(User user) {
+        return geoIpResolver.resolveCountry(user.getIpAddress())
+                .map(country -> Optional.of(country.orElse(UNKNOWN)))
+                .onErrorResume(e -> {
+                    log.warn("Geo lookup failed for user {}: {}", user.getId(), e.getMessage());
+                    return Mono.just(Optional.empty());
+                });
+    }
+}
@@ -0,0 +1,126 @@
+package com.mykare.usermanagement.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mykare.usermanagement.dto.UserImportReport;
+import com.mykare.usermanagement.model.User;
+import com.mykare.usermanagement.repository.ReactiveUserRepository;
+import com.mykare.usermanagement.security.PasswordHashingScheduler;
+import com.mykare.usermanagement.service.UserImportRows.Parser;
+import com.mykare.usermanagement.service.UserImportRows.Progress;
+import com.mykare.usermanagement.service.UserImportRows.Row;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Reactive counterpart of {@link UserImportService}, with the same parsing, validation and report.
+ * Lines are consumed one chunk at a time as the client sends them. Each chunk's passwords are hashed
+ * on the {@link PasswordHashingScheduler} and its users inserted with batched R2DBC statements in
+ * their own transaction. Like the other reactive admin writes, an import publishes no events.
+ */
+@Slf4j
+@Service
+@Profile("reactive")
+public class ReactiveUserImportService {
+
+    private final ReactiveUserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingScheduler hashingScheduler;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final TransactionalOperator transactionalOperator;
+    private final int chunkSize;
+    private final int batchSize;
+    private final int maxReportedErrors;
+
+    public ReactiveUserImportService(ReactiveUserRepository userRepository,
+                                     PasswordEncoder passwordEncoder,
+                                     PasswordHashingScheduler hashingScheduler,
+                                     Validator validator,
+                                     ObjectMapper objectMapper,
+                                     TransactionalOperator transactionalOperator,
+                                     @Value("${admin.import.chunk-size}") int chunkSize,
+                                     @Value("${admin.import.jdbc-batch-size}") int batchSize,
+                                     @Value("${admin.import.max-reported-errors}") int maxReportedErrors) {
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.hashingScheduler = hashingScheduler;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.transactionalOperator = transactionalOperator;
+        this.chunkSize = chunkSize;
+        this.batchSize = batchSize;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    /**
+     * Imports every row of {@code lines}, see {@link UserImportService#importUsers}. Fails with
+     * {@link IllegalArgumentException} if a CSV body lacks a header with the required columns.
+     */
+    public Mono<UserImportReport> importUsers(UserDataFormat format, Flux<String> lines) {
+        return Mono.defer(() -> {
+            long startedAt = System.nanoTime();
+            Progress progress = new Progress(maxReportedErrors);
+            Parser parser = new Parser(format, objectMapper);
+            return lines.index()
+                    .mapNotNull(line -> parser.parse(line.getT1() + 1, line.getT2()))
+                    .buffer(chunkSize)
+                    .concatMap(chunk -> importChunk(chunk, progress))
+                    .then(Mono.fromSupplier(() -> {
+                        UserImportReport report = progress.report(System.nanoTime() - startedAt);
+                        log.info("Imported {} of {} users in {} ms ({} rows/s)", report.getImported(), report.getReceived(),
+                                report.getDurationMillis(), Math.round(report.getRowsPerSecond()));
+                        return report;
+                    }));
+        });
+    }
+
+    private Mono<Void> importChunk(List<Row> chunk, Progress progress) {
+        List<Row> valid = UserImportRows.validate(chunk, validator, progress);
+        if (valid.isEmpty()) {
+            return Mono.empty();
+        }
+        return userRepository.findExistingEmails(UserImportRows.emails(valid))
+                .collect(Collectors.toSet())
+                .flatMap(existing -> {
+                    UserImportRows.rejectExisting(valid, existing, progress);
+                    if (valid.isEmpty()) {
+                        return Mono.empty();
+                    }
+                    List<Callable<String>> hashing = valid.stream()
+                            .<Callable<String>>map(row -> () -> passwordEncoder.encode(row.request().getPassword()))
+                            .toList();
+                    return hashingScheduler.executeAll(hashing)
+                            .flatMap(hashes -> insert(valid, hashes, progress));
+                });
+    }
+
+    private Mono<Void> insert(List<Row> rows, List<String> hashes, Progress progress) {
+        List<User> users = IntStream.range(0, rows.size())
+                .mapToObj(i -> UserImportRows.toUser(rows.get(i).request(), hashes.get(i)))
+                .toList();
+        return userRepository.insertAll(users, batchSize)
+                .as(transactionalOperator::transactional)
+                .doOnNext(inserted -> progress.imported(rows.size()))
+                .onErrorResume(DataAccessException.class, e -> {
+                    String reason = "Rejected by database: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+                    log.warn("Import chunk of {} users rolled back: {}", rows.size(), reason);
+                    rows.forEach(row -> progress.fail(row, reason));
+                    return Mono.empty();
+                })
+                .then();
+    }
+}
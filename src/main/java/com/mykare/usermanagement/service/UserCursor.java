@@ -0,0 +1,41 @@
+package com.mykare.usermanagement.service;
+
+import com.mykare.usermanagement.dto.UserResponse;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position in the admin user listing, handed to clients as an opaque URL-safe token. The token
+ * carries the sort it was issued for, so it cannot be replayed against a different ordering.
+ */
+record UserCursor(UserSortKey sortKey, Sort.Direction direction, long id, String value) {
+
+    private static final String SEPARATOR = "|";
+
+    static UserCursor after(UserResponse user, UserSortKey sortKey, Sort.Direction direction) {
+        String value = sortKey == UserSortKey.EMAIL ? user.getEmail() : "";
+        return new UserCursor(sortKey, direction, user.getId(), value);
+    }
+
+    static UserCursor decode(String token) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = decoded.split("\\|", 4);
+            if (parts.length != 4) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            return new UserCursor(UserSortKey.valueOf(parts[0]), Sort.Direction.valueOf(parts[1]),
+                    Long.parseLong(parts[2]), parts[3]);
+        } catch (IllegalArgumentException e) {
+            // Also covers bad base64, unknown enum constants and NumberFormatException
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    String encode() {
+        String raw = sortKey.name() + SEPARATOR + direction.name() + SEPARATOR + id + SEPARATOR + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
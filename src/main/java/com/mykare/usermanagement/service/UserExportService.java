@@ -0,0 +1,134 @@
+package com.mykare.usermanagement.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.mykare.usermanagement.dto.UserResponse;
+import com.mykare.usermanagement.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes every user to an output stream one row at a time. Rows are read through a forward-only
+ * cursor as {@link UserResponse} projections, so no entity enters the persistence context, heap use
+ * does not grow with the size of the table and the first rows reach the client while the rest are
+ * still being read.
+ */
+@Slf4j
+@Service
+@Profile("!reactive")
+public class UserExportService {
+
+    static final String CSV_HEADER = "id,name,email,gender,ipAddress,country,role,enrichmentStatus";
+    private static final int FLUSH_INTERVAL = UserRepository.EXPORT_FETCH_SIZE;
+
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    public UserExportService(UserRepository userRepository,
+                             ObjectMapper objectMapper,
+                             PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Writes all users in ID order. The stream is flushed after the first row and then every
+     * {@value #FLUSH_INTERVAL} rows, but is not closed.
+     *
+     * @return Number of users written.
+     */
+    public long export(UserDataFormat format, OutputStream out) {
+        Long count = transactionTemplate.execute(status -> {
+            try (Stream<UserResponse> users = userRepository.streamAllResponses()) {
+                Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+                return switch (format) {
+                    case NDJSON -> writeNdjson(users.iterator(), writer);
+                    case CSV -> writeCsv(users.iterator(), writer);
+                };
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        log.info("Exported {} users as {}", count, format);
+        return count;
+    }
+
+    private long writeNdjson(Iterator<UserResponse> users, Writer writer) throws IOException {
+        long count = 0;
+        try (SequenceWriter sequence = objectMapper.writer()
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .withRootValueSeparator("\n")
+                .writeValues(writer)) {
+            while (users.hasNext()) {
+                sequence.write(users.next());
+                if (++count == 1 || count % FLUSH_INTERVAL == 0) {
+                    sequence.flush();
+                }
+            }
+            sequence.flush();
+        }
+        if (count > 0) {
+            writer.write('\n');
+        }
+        writer.flush();
+        return count;
+    }
+
+    private long writeCsv(Iterator<UserResponse> users, Writer writer) throws IOException {
+        writer.write(CSV_HEADER);
+        writer.write("\r\n");
+        long count = 0;
+        while (users.hasNext()) {
+            writer.write(csvRow(users.next()));
+            if (++count == 1 || count % FLUSH_INTERVAL == 0) {
+                writer.flush();
+            }
+        }
+        writer.flush();
+        return count;
+    }
+
+    /**
+     * @return One CSV record for {@code user}, in {@link #CSV_HEADER} column order and ending in CRLF.
+     */
+    static String csvRow(UserResponse user) {
+        StringBuilder row = new StringBuilder(128).append(user.getId());
+        appendCsvCell(row, user.getName());
+        appendCsvCell(row, user.getEmail());
+        appendCsvCell(row, user.getGender());
+        appendCsvCell(row, user.getIpAddress());
+        appendCsvCell(row, user.getCountry());
+        appendCsvCell(row, user.getRole() == null ? null : user.getRole().name());
+        appendCsvCell(row, user.getEnrichmentStatus() == null ? null : user.getEnrichmentStatus().name());
+        return row.append("\r\n").toString();
+    }
+
+    private static void appendCsvCell(StringBuilder row, String value) {
+        row.append(',');
+        if (value == null) {
+            return;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            row.append(value);
+            return;
+        }
+        row.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+}
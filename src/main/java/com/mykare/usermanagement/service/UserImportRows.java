@@ -0,0 +1,237 @@
+package com.mykare.usermanagement.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mykare.usermanagement.dto.RegisterRequest;
+import com.mykare.usermanagement.dto.UserImportError;
+import com.mykare.usermanagement.dto.UserImportReport;
+import com.mykare.usermanagement.model.EnrichmentStatus;
+import com.mykare.usermanagement.model.Role;
+import com.mykare.usermanagement.model.User;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Row parsing, validation and reporting shared by {@link UserImportService} and
+ * {@link ReactiveUserImportService}, so both stacks accept the same input and report the same errors.
+ */
+final class UserImportRows {
+
+    private static final List<String> CSV_COLUMNS = List.of("name", "email", "password", "gender");
+
+    private UserImportRows() {
+    }
+
+    /**
+     * Counts {@code chunk} as received and fails the rows that did not parse, break the
+     * {@link RegisterRequest} rules or repeat an email seen earlier in the chunk.
+     *
+     * @return The remaining rows, in input order.
+     */
+    static List<Row> validate(List<Row> chunk, Validator validator, Progress progress) {
+        progress.received += chunk.size();
+
+        List<Row> valid = new ArrayList<>(chunk.size());
+        Set<String> emails = new HashSet<>();
+        for (Row row : chunk) {
+            if (row.error() != null) {
+                progress.fail(row, row.error());
+                continue;
+            }
+            Set<ConstraintViolation<RegisterRequest>> violations = validator.validate(row.request());
+            if (!violations.isEmpty()) {
+                progress.fail(row, violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+            } else if (!emails.add(User.normalizeEmail(row.request().getEmail()))) {
+                progress.fail(row, "Duplicate email in import");
+            } else {
+                valid.add(row);
+            }
+        }
+        return valid;
+    }
+
+    /** Normalized emails of {@code rows}. */
+    static Set<String> emails(List<Row> rows) {
+        return rows.stream()
+                .map(row -> User.normalizeEmail(row.request().getEmail()))
+                .collect(Collectors.toCollection(HashSet::new));
+    }
+
+    /** Fails and removes the rows whose normalized email is in {@code existing}. */
+    static void rejectExisting(List<Row> rows, Set<String> existing, Progress progress) {
+        rows.removeIf(row -> {
+            if (existing.contains(User.normalizeEmail(row.request().getEmail()))) {
+                progress.fail(row, "Email already registered");
+                return true;
+            }
+            return false;
+        });
+    }
+
+    static User toUser(RegisterRequest request, String hashedPassword) {
+        return User.builder()
+                .name(request.getName())
+                .email(request.getEmail())
+                .gender(request.getGender())
+                .password(hashedPassword)
+                .ipAddress("UNKNOWN")
+                .country("UNKNOWN")
+                .role(Role.USER)
+                .enrichmentStatus(EnrichmentStatus.COMPLETED)
+                .build();
+    }
+
+    /**
+     * Splits one RFC 4180 line into cells. Quoted cells may contain commas and doubled quotes,
+     * but not line breaks. Returns null if a quote is left open.
+     */
+    static List<String> parseCsvLine(String line) {
+        List<String> cells = new ArrayList<>();
+        StringBuilder cell = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    cell.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    cell.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                cells.add(cell.toString());
+                cell.setLength(0);
+            } else {
+                cell.append(c);
+            }
+        }
+        if (quoted) {
+            return null;
+        }
+        cells.add(cell.toString());
+        return cells;
+    }
+
+    record Row(long line, RegisterRequest request, String error) {
+    }
+
+    /**
+     * Turns the lines of one upload into rows. A CSV parser takes the first non-blank line as the header.
+     */
+    static final class Parser {
+        private final UserDataFormat format;
+        private final ObjectMapper objectMapper;
+        private Map<String, Integer> csvColumns;
+
+        Parser(UserDataFormat format, ObjectMapper objectMapper) {
+            this.format = format;
+            this.objectMapper = objectMapper;
+        }
+
+        /**
+         * @param lineNumber Line of the input, starting at 1.
+         * @return The row, or null for a blank line or the CSV header.
+         * @throws IllegalArgumentException if a CSV header lacks the required columns.
+         */
+        Row parse(long lineNumber, String line) {
+            if (line.isBlank()) {
+                return null;
+            }
+            if (format == UserDataFormat.CSV && csvColumns == null) {
+                csvColumns = parseCsvHeader(line);
+                return null;
+            }
+            return format == UserDataFormat.CSV ? parseCsvRow(lineNumber, line) : parseJsonRow(lineNumber, line);
+        }
+
+        private Row parseJsonRow(long lineNumber, String line) {
+            try {
+                return new Row(lineNumber, objectMapper.readValue(line, RegisterRequest.class), null);
+            } catch (JsonProcessingException e) {
+                return new Row(lineNumber, null, "Malformed JSON: " + e.getOriginalMessage());
+            }
+        }
+
+        private static Map<String, Integer> parseCsvHeader(String line) {
+            List<String> header = parseCsvLine(line);
+            Map<String, Integer> columns = new HashMap<>();
+            for (int i = 0; header != null && i < header.size(); i++) {
+                columns.put(header.get(i).strip().toLowerCase(Locale.ROOT), i);
+            }
+            if (!columns.keySet().containsAll(CSV_COLUMNS)) {
+                throw new IllegalArgumentException("CSV header must contain the columns " + String.join(",", CSV_COLUMNS));
+            }
+            return columns;
+        }
+
+        private Row parseCsvRow(long lineNumber, String line) {
+            List<String> cells = parseCsvLine(line);
+            if (cells == null) {
+                return new Row(lineNumber, null, "Malformed CSV row");
+            }
+            RegisterRequest request = RegisterRequest.builder()
+                    .name(cell(cells, csvColumns.get("name")))
+                    .email(cell(cells, csvColumns.get("email")))
+                    .password(cell(cells, csvColumns.get("password")))
+                    .gender(cell(cells, csvColumns.get("gender")))
+                    .build();
+            return new Row(lineNumber, request, null);
+        }
+
+        private static String cell(List<String> cells, int index) {
+            return index < cells.size() && !cells.get(index).isEmpty() ? cells.get(index) : null;
+        }
+    }
+
+    /** Counts and per-row errors of one import, at most {@code maxReportedErrors} of them listed. */
+    static final class Progress {
+        private final int maxReportedErrors;
+        private long received;
+        private long imported;
+        private long failed;
+        private final List<UserImportError> errors = new ArrayList<>();
+
+        Progress(int maxReportedErrors) {
+            this.maxReportedErrors = maxReportedErrors;
+        }
+
+        void imported(int count) {
+            imported += count;
+        }
+
+        void fail(Row row, String message) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new UserImportError(row.line(), row.request() == null ? null : row.request().getEmail(), message));
+            }
+        }
+
+        UserImportReport report(long durationNanos) {
+            return UserImportReport.builder()
+                    .received(received)
+                    .imported(imported)
+                    .failed(failed)
+                    .durationMillis(durationNanos / 1_000_000)
+                    .rowsPerSecond(imported / Math.max(durationNanos / 1e9, 1e-9))
+                    .errors(errors)
+                    .errorsTruncated(failed > errors.size())
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.mykare.usermanagement.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mykare.usermanagement.dto.RegisterRequest;
+import com.mykare.usermanagement.dto.UserImportReport;
+import com.mykare.usermanagement.event.UsersImportedEvent;
+import com.mykare.usermanagement.repository.UserRepository;
+import com.mykare.usermanagement.security.PasswordHashingExecutor;
+import com.mykare.usermanagement.service.UserImportRows.Parser;
+import com.mykare.usermanagement.service.UserImportRows.Progress;
+import com.mykare.usermanagement.service.UserImportRows.Row;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Registers users in bulk from an NDJSON or CSV stream. The input is read one chunk at a time.
+ * Each chunk is validated against the {@link RegisterRequest} rules and checked for existing
+ * emails with a single query. Its passwords are hashed in parallel on the
+ * {@link PasswordHashingExecutor}, and it is inserted with JDBC batching in its own transaction,
+ * so memory use depends on the chunk size rather than the size of the upload.
+ */
+@Slf4j
+@Service
+@Profile("!reactive")
+public class UserImportService {
+
+    private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingExecutor hashingExecutor;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final EmailMembershipFilter emailFilter;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int chunkSize;
+    private final int jdbcBatchSize;
+    private final int maxReportedErrors;
+
+    public UserImportService(UserRepository userRepository,
+                             PasswordEncoder passwordEncoder,
+                             PasswordHashingExecutor hashingExecutor,
+                             Validator validator,
+                             ObjectMapper objectMapper,
+                             EntityManager entityManager,
+                             PlatformTransactionManager transactionManager,
+                             EmailMembershipFilter emailFilter,
+                             ApplicationEventPublisher eventPublisher,
+                             @Value("${admin.import.chunk-size}") int chunkSize,
+                             @Value("${admin.import.jdbc-batch-size}") int jdbcBatchSize,
+                             @Value("${admin.import.max-reported-errors}") int maxReportedErrors) {
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.hashingExecutor = hashingExecutor;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.emailFilter = emailFilter;
+        this.eventPublisher = eventPublisher;
+        this.chunkSize = chunkSize;
+        this.jdbcBatchSize = jdbcBatchSize;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    /**
+     * Imports every row of {@code body}. Invalid or duplicate rows are reported and skipped; they do
+     * not stop the import. Chunks already committed stay committed if a later chunk fails.
+     *
+     * @throws IllegalArgumentException if a CSV body lacks a header with the required columns.
+     */
+    public UserImportReport importUsers(UserDataFormat format, InputStream body) throws IOException {
+        long startedAt = System.nanoTime();
+        Progress progress = new Progress(maxReportedErrors);
+        Parser parser = new Parser(format, objectMapper);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+
+        List<Row> chunk = new ArrayList<>(chunkSize);
+        long lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            Row row = parser.parse(++lineNumber, line);
+            if (row == null) {
+                continue;
+            }
+            chunk.add(row);
+            if (chunk.size() == chunkSize) {
+                importChunk(chunk, progress);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, progress);
+        }
+
+        UserImportReport report = progress.report(System.nanoTime() - startedAt);
+        log.info("Imported {} of {} users in {} ms ({} rows/s)", report.getImported(), report.getReceived(),
+                report.getDurationMillis(), Math.round(report.getRowsPerSecond()));
+        return report;
+    }
+
+    private void importChunk(List<Row> chunk, Progress progress) {
+        List<Row> valid = UserImportRows.validate(chunk, validator, progress);
+        if (valid.isEmpty()) {
+            return;
+        }
+
+        // Only emails the membership filter cannot rule out need to be checked against the table
+        Set<String> emails = UserImportRows.emails(valid);
+        emails.removeIf(email -> !emailFilter.mightContain(email));
+        Set<String> existing = emails.isEmpty() ? Set.of() : userRepository.findExistingEmails(emails);
+        UserImportRows.rejectExisting(valid, existing, progress);
+        if (valid.isEmpty()) {
+            return;
+        }
+
+        List<Supplier<String>> hashing = valid.stream()
+                .<Supplier<String>>map(row -> () -> passwordEncoder.encode(row.request().getPassword()))
+                .toList();
+        List<String> hashes = hashingExecutor.executeAll("import", hashing);
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                entityManager.unwrap(Session.class).setJdbcBatchSize(jdbcBatchSize);
+                for (int i = 0; i < valid.size(); i++) {
+                    entityManager.persist(UserImportRows.toUser(valid.get(i).request(), hashes.get(i)));
+                }
+                entityManager.flush();
+                entityManager.clear();
+            });
+            progress.imported(valid.size());
+            eventPublisher.publishEvent(new UsersImportedEvent(valid.size()));
+        } catch (DataAccessException e) {
+            String reason = "Rejected by database: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            log.warn("Import chunk of {} users rolled back: {}", valid.size(), reason);
+            valid.forEach(row -> progress.fail(row, reason));
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.mykare.usermanagement.service;
+
+import com.mykare.usermanagement.dto.UserPage;
+import com.mykare.usermanagement.dto.UserResponse;
+import com.mykare.usermanagement.dto.UserSearchCriteria;
+import com.mykare.usermanagement.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Filtered, cursor-paginated search over users for the admin API.
+ * <p>
+ * The query is assembled from only the filters that were given, rather than one statement with
+ * {@code :param is null or ...} guards, so the database plans each combination on its own and can
+ * use the matching index on {@code users}:
+ * <ul>
+ *     <li>country, role and gender: {@code idx_users_country_role_gender}, {@code idx_users_role_gender}
+ *     and {@code idx_users_gender_country} between them lead with every combination;</li>
+ *     <li>name prefix: {@code idx_users_name};</li>
+ *     <li>email prefix: the unique index on {@code email_normalized}.</li>
+ * </ul>
+ * Results are in ID order and resume after the last ID of the previous page.
+ */
+@Service
+@Profile("!reactive")
+public class UserSearchService {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    private final EntityManager entityManager;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+
+    public UserSearchService(EntityManager entityManager,
+                             @Value("${admin.users.default-page-size}") int defaultPageSize,
+                             @Value("${admin.users.max-page-size}") int maxPageSize) {
+        this.entityManager = entityManager;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+    }
+
+    /**
+     * Returns one page of the users matching {@code criteria}.
+     *
+     * @param criteria Filters to apply; null or empty fields are ignored.
+     * @param cursor   Cursor returned with the previous page, or null for the first page.
+     * @param limit    Page size; null for the default, capped at the configured maximum.
+     * @throws IllegalArgumentException if the limit or cursor is invalid.
+     */
+    @Transactional(readOnly = true)
+    public UserPage search(UserSearchCriteria criteria, String cursor, Integer limit) {
+        int pageSize = limit == null ? defaultPageSize : limit;
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("limit must be at least 1");
+        }
+        pageSize = Math.min(pageSize, maxPageSize);
+
+        Long afterId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            UserCursor after = UserCursor.decode(cursor);
+            if (after.sortKey() != UserSortKey.ID || after.direction() != Sort.Direction.ASC) {
+                throw new IllegalArgumentException("Cursor was issued for a different sort order");
+            }
+            afterId = after.id();
+        }
+
+        // One extra row tells whether another page follows
+        List<UserResponse> users = entityManager.createQuery(buildQuery(criteria, afterId))
+                .setMaxResults(pageSize + 1)
+                .getResultList();
+        String nextCursor = null;
+        if (users.size() > pageSize) {
+            users = users.subList(0, pageSize);
+            nextCursor = UserCursor.after(users.getLast(), UserSortKey.ID, Sort.Direction.ASC).encode();
+        }
+        return UserPage.builder()
+                .users(users)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    private CriteriaQuery<UserResponse> buildQuery(UserSearchCriteria criteria, Long afterId) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<UserResponse> query = cb.createQuery(UserResponse.class);
+        Root<User> user = query.from(User.class);
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (hasText(criteria.getCountry())) {
+            predicates.add(cb.equal(user.get("country"), criteria.getCountry()));
+        }
+        if (criteria.getRole() != null) {
+            predicates.add(cb.equal(user.get("role"), criteria.getRole()));
+        }
+        if (hasText(criteria.getGender())) {
+            predicates.add(cb.equal(user.get("gender"), criteria.getGender()));
+        }
+        if (hasText(criteria.getNamePrefix())) {
+            predicates.add(cb.like(user.get("name"), likePrefix(criteria.getNamePrefix()), LIKE_ESCAPE));
+        }
+        if (hasText(criteria.getEmailPrefix())) {
+            predicates.add(cb.like(user.get("emailNormalized"),
+                    likePrefix(User.normalizeEmail(criteria.getEmailPrefix())), LIKE_ESCAPE));
+        }
+        if (afterId != null) {
+            predicates.add(cb.greaterThan(user.get("id"), afterId));
+        }
+
+        return query.select(cb.construct(UserResponse.class,
+                        user.get("id"), user.get("name"), user.get("email"), user.get("gender"),
+                        user.get("ipAddress"), user.get("country"), user.get("role"),
+                        user.get("enrichmentStatus"), user.get("version")))
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(cb.asc(user.get("id")));
+    }
+
+    private static String likePrefix(String prefix) {
+        StringBuilder pattern = new StringBuilder(prefix.length() + 1);
+        for (char c : prefix.toCharArray()) {
+            if (c == '%' || c == '_' || c == LIKE_ESCAPE) {
+                pattern.append(LIKE_ESCAPE);
+            }
+            pattern.append(c);
+        }
+        return pattern.append('%').toString();
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+}
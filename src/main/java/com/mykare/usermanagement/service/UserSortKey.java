@@ -0,0 +1,33 @@
+package com.mykare.usermanagement.service;
+
+import java.util.Locale;
+
+/**
+ * Columns the admin user listing can be ordered by. Each one is unique, so it is a total order
+ * for keyset pagination, and indexed, so a page never has to scan or sort the table: {@code id}
+ * is the primary key, and {@code email} is unique because its normalized form is
+ * ({@code uk_users_email_normalized}) and is served by the non-unique {@code idx_users_email} (V4).
+ */
+enum UserSortKey {
+    ID("id"),
+    EMAIL("email");
+
+    private final String property;
+
+    UserSortKey(String property) {
+        this.property = property;
+    }
+
+    String property() {
+        return property;
+    }
+
+    static UserSortKey from(String value) {
+        for (UserSortKey key : values()) {
+            if (key.property.equals(value.toLowerCase(Locale.ROOT))) {
+                return key;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported sort key: " + value);
+    }
+}
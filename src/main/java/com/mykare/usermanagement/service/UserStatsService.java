@@ -0,0 +1,281 @@
+package com.mykare.usermanagement.service;
+
+import com.mykare.usermanagement.dto.UserCount;
+import com.mykare.usermanagement.dto.UserStats;
+import com.mykare.usermanagement.event.UserCountryChangedEvent;
+import com.mykare.usermanagement.event.UserDeletedEvent;
+import com.mykare.usermanagement.event.UserRegisteredEvent;
+import com.mykare.usermanagement.event.UserRoleChangedEvent;
+import com.mykare.usermanagement.event.UsersImportedEvent;
+import com.mykare.usermanagement.model.Role;
+import com.mykare.usermanagement.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Counts of users by role, country and gender, served from memory.
+ * <p>
+ * The counters are seeded with one GROUP BY at startup and then moved by the user lifecycle
+ * events as they commit, so reads never touch the database. Every event but a bulk import says
+ * what the row looked like before and after, so it moves the counters directly; an import marks
+ * them stale and they are reconciled against the database within
+ * {@code users.stats.stale-check-interval-ms}. All counters are also reconciled every
+ * {@code users.stats.reconcile-interval} to correct any other drift.
+ * <p>
+ * Reconciliation replaces the counters with the query result while holding the write side of
+ * a lock whose read side every event update holds, so no update is half applied. Events that
+ * commit while the query runs may or may not be in its result; they are counted and logged, and
+ * the error they can cause is limited to them and is not carried into later reconciliations.
+ * Null attributes are counted as {@value #UNKNOWN}.
+ */
+@Slf4j
+@Service
+@Profile("!reactive")
+public class UserStatsService {
+
+    static final String UNKNOWN = "UNKNOWN";
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration reconcileInterval;
+    private final Counter corrections;
+
+    // A lock rather than synchronized, so a virtual thread waiting on the count query can unmount
+    private final ReentrantLock reconcileLock = new ReentrantLock();
+    // Read side held by event updates and reads, write side by the swap in reconcile()
+    private final ReentrantReadWriteLock countersLock = new ReentrantReadWriteLock();
+    private final LongAdder eventsApplied = new LongAdder();
+    private final LongAdder total = new LongAdder();
+    private final Dimension byRole = new Dimension();
+    private final Dimension byCountry = new Dimension();
+    private final Dimension byGender = new Dimension();
+    private final AtomicBoolean stale = new AtomicBoolean();
+    private volatile Instant reconciledAt = Instant.EPOCH;
+
+    public UserStatsService(UserRepository userRepository,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry,
+                            @Value("${users.stats.reconcile-interval}") Duration reconcileInterval) {
+        this.userRepository = userRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.reconcileInterval = reconcileInterval;
+        this.corrections = Counter.builder("users.stats.corrections")
+                .description("Counters that reconciliation found out of step with the database")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void seed() {
+        reconcile();
+    }
+
+    /**
+     * @return the current counts; does not query the database.
+     */
+    public UserStats getStats() {
+        countersLock.readLock().lock();
+        try {
+            return UserStats.builder()
+                    .total(total.sum())
+                    .byRole(byRole.snapshot())
+                    .byCountry(byCountry.snapshot())
+                    .byGender(byGender.snapshot())
+                    .reconciledAt(reconciledAt)
+                    .build();
+        } finally {
+            countersLock.readLock().unlock();
+        }
+    }
+
+    public long getTotal() {
+        return total.sum();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserRegistered(UserRegisteredEvent event) {
+        update(() -> apply(event.role(), event.country(), event.gender(), 1));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        update(() -> apply(event.role(), event.country(), event.gender(), -1));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRoleChanged(UserRoleChangedEvent event) {
+        update(() -> {
+            byRole.add(key(event.previousRole()), -1);
+            byRole.add(key(event.newRole()), 1);
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCountryChanged(UserCountryChangedEvent event) {
+        update(() -> {
+            byCountry.add(key(event.previousCountry()), -1);
+            byCountry.add(key(event.newCountry()), 1);
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUsersImported(UsersImportedEvent event) {
+        stale.set(true);
+    }
+
+    @Scheduled(initialDelayString = "${users.stats.stale-check-interval-ms}",
+            fixedDelayString = "${users.stats.stale-check-interval-ms}")
+    void reconcileIfDue() {
+        if (stale.get() || Instant.now().isAfter(reconciledAt.plus(reconcileInterval))) {
+            reconcile();
+        }
+    }
+
+    /**
+     * Replaces every counter with the result of one GROUP BY over the users table.
+     */
+    void reconcile() {
+        reconcileLock.lock();
+        try {
+            boolean seeding = reconciledAt.equals(Instant.EPOCH);
+            // Cleared first, so imports that commit while the query runs mark the counters stale again
+            stale.set(false);
+            long eventsBefore = eventsApplied.sum();
+
+            List<UserCount> counts = transactionTemplate.execute(status -> userRepository.countByRoleCountryAndGender());
+            long actualTotal = 0;
+            Map<String, Long> roles = new HashMap<>();
+            Map<String, Long> countries = new HashMap<>();
+            Map<String, Long> genders = new HashMap<>();
+            for (UserCount count : counts) {
+                actualTotal += count.count();
+                roles.merge(key(count.role()), count.count(), Long::sum);
+                countries.merge(key(count.country()), count.count(), Long::sum);
+                genders.merge(key(count.gender()), count.count(), Long::sum);
+            }
+
+            int corrected = 0;
+            long racing;
+            countersLock.writeLock().lock();
+            try {
+                racing = eventsApplied.sum() - eventsBefore;
+                if (actualTotal != total.sum()) {
+                    total.reset();
+                    total.add(actualTotal);
+                    corrected++;
+                }
+                corrected += byRole.replace(roles);
+                corrected += byCountry.replace(countries);
+                corrected += byGender.replace(genders);
+                reconciledAt = Instant.now();
+            } finally {
+                countersLock.writeLock().unlock();
+            }
+            if (racing > 0) {
+                log.debug("{} user events committed while the statistics were being counted", racing);
+            }
+
+            if (seeding) {
+                log.info("Loaded user statistics for {} users", actualTotal);
+            } else if (corrected > 0) {
+                corrections.increment(corrected);
+                log.info("Reconciled user statistics: {} users, {} counters corrected", actualTotal, corrected);
+            }
+        } finally {
+            reconcileLock.unlock();
+        }
+    }
+
+    /** Applies one event's changes to the counters, never in the middle of a reconciliation swap. */
+    private void update(Runnable change) {
+        countersLock.readLock().lock();
+        try {
+            change.run();
+            eventsApplied.increment();
+        } finally {
+            countersLock.readLock().unlock();
+        }
+    }
+
+    private void apply(Role role, String country, String gender, long delta) {
+        total.add(delta);
+        byRole.add(key(role), delta);
+        byCountry.add(key(country), delta);
+        byGender.add(key(gender), delta);
+    }
+
+    private static String key(Role role) {
+        return role == null ? UNKNOWN : role.name();
+    }
+
+    private static String key(String value) {
+        return value == null ? UNKNOWN : value;
+    }
+
+    /** Counters for the values of one attribute. */
+    private static final class Dimension {
+
+        private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+
+        void add(String key, long delta) {
+            counters.computeIfAbsent(key, k -> new LongAdder()).add(delta);
+        }
+
+        /** @return the non-zero counts, sorted by key. */
+        Map<String, Long> snapshot() {
+            Map<String, Long> snapshot = new TreeMap<>();
+            counters.forEach((key, counter) -> {
+                long value = counter.sum();
+                if (value != 0) {
+                    snapshot.put(key, value);
+                }
+            });
+            return snapshot;
+        }
+
+        /**
+         * Sets every counter to its value in {@code actual}, and those not in it to zero. Callers
+         * must hold off concurrent updates.
+         *
+         * @return the number of counters that had to be corrected.
+         */
+        int replace(Map<String, Long> actual) {
+            Set<String> keys = new HashSet<>(counters.keySet());
+            keys.addAll(actual.keySet());
+            int corrected = 0;
+            for (String key : keys) {
+                long value = actual.getOrDefault(key, 0L);
+                LongAdder counter = counters.computeIfAbsent(key, k -> new LongAdder());
+                if (counter.sum() != value) {
+                    counter.reset();
+                    counter.add(value);
+                    corrected++;
+                }
+            }
+            return corrected;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.mykare.usermanagement.service.geo;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Bounded, TTL-evicting cache in front of another {@link GeoIpResolver}.
+ * Successful lookups are kept for {@code ttl}; failed lookups are remembered for the
+ * shorter {@code failureTtl} and rethrown to callers in the meantime, so an unhealthy
+ * provider is not called again for every request. A {@link GeoIpUnavailableException} is not
+ * remembered: no call was made, and the address should be looked up as soon as the provider is
+ * available again. Concurrent misses for the same address share a single in-flight call to the
+ * delegate.
+ */
+public class CachingGeoIpResolver implements GeoIpResolver {
+
+    private final GeoIpResolver delegate;
+    private final AsyncCache<String, Lookup> cache;
+
+    public CachingGeoIpResolver(GeoIpResolver delegate, long maximumSize, Duration ttl, Duration failureTtl) {
+        this.delegate = delegate;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new LookupExpiry(ttl, failureTtl))
+                .recordStats()
+                .buildAsync();
+    }
+
+    /**
+     * Registers hit, miss, eviction and size meters for this cache under the given name.
+     */
+    public CachingGeoIpResolver bindTo(MeterRegistry meterRegistry, String cacheName) {
+        CaffeineCacheMetrics.monitor(meterRegistry, cache.synchronous(), cacheName);
+        return this;
+    }
+
+    @Override
+    public Optional<String> resolveCountry(String ipAddress) {
+        CompletableFuture<Lookup> pending = new CompletableFuture<>();
+        CompletableFuture<Lookup> future = cache.get(ipAddress, (key, executor) -> pending);
+        if (future == pending) {
+            // This caller won the race for the key and performs the lookup outside the map's lock.
+            // Any failure, errors included, must complete the future: callers waiting on it would
+            // block forever otherwise, and a failed future is dropped from the cache.
+            try {
+                pending.complete(load(ipAddress));
+            } catch (Throwable e) {
+                pending.completeExceptionally(e);
+            }
+        }
+        Lookup lookup;
+        try {
+            lookup = future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+        return lookup.unwrap();
+    }
+
+    /**
+     * @return Cumulative hit, miss and eviction statistics.
+     */
+    public CacheStats stats() {
+        return cache.synchronous().stats();
+    }
+
+    private Lookup load(String ipAddress) {
+        try {
+            return new Lookup(delegate.resolveCountry(ipAddress), null);
+        } catch (GeoIpUnavailableException e) {
+            // Rethrown so the future fails and is dropped instead of cached for failureTtl
+            throw e;
+        } catch (RuntimeException e) {
+            return new Lookup(null, e);
+        }
+    }
+
+    private record Lookup(Optional<String> country, RuntimeException failure) {
+
+        Optional<String> unwrap() {
+            if (failure != null) {
+                throw failure;
+            }
+            return country;
+        }
+    }
+
+    private record LookupExpiry(Duration ttl, Duration failureTtl) implements Expiry<String, Lookup> {
+
+        @Override
+        public long expireAfterCreate(String key, Lookup value, long currentTime) {
+            return (value.failure() != null ? failureTtl : ttl).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Lookup value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Lookup value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.mykare.usermanagement.service.geo;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable IPv4 range to country index held in packed primitive arrays.
+ * Range bounds are stored with the sign bit flipped so that plain signed
+ * comparisons follow unsigned address order. A lookup is a binary search
+ * over the sorted range starts and does not allocate.
+ *
+ * <p>The dataset is a CSV file with one {@code start,end,country} line per range,
+ * where start and end are inclusive dotted IPv4 addresses or unsigned integers.
+ * Blank lines and lines starting with {@code #} are ignored.
+ */
+public final class GeoIpIndex {
+
+    private static final int NOT_AN_ADDRESS = -1;
+
+    private final int[] starts;
+    private final int[] ends;
+    private final short[] countryIds;
+    private final String[] countries;
+
+    private GeoIpIndex(int[] starts, int[] ends, short[] countryIds, String[] countries) {
+        this.starts = starts;
+        this.ends = ends;
+        this.countryIds = countryIds;
+        this.countries = countries;
+    }
+
+    /**
+     * Loads an index from the given dataset file.
+     *
+     * @throws IOException              if the file cannot be read.
+     * @throws IllegalArgumentException if a line is malformed.
+     */
+    public static GeoIpIndex load(Path dataset) throws IOException {
+        List<long[]> ranges = new ArrayList<>();
+        Map<String, Integer> countryIds = new HashMap<>();
+        List<String> countries = new ArrayList<>();
+
+        try (BufferedReader reader = Files.newBufferedReader(dataset, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.strip();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] parts = line.split(",", 3);
+                if (parts.length != 3) {
+                    throw new IllegalArgumentException("Malformed line " + lineNumber + " in " + dataset);
+                }
+                long start = parseBound(parts[0].strip(), lineNumber);
+                long end = parseBound(parts[1].strip(), lineNumber);
+                if (end < start) {
+                    throw new IllegalArgumentException("Range end before start on line " + lineNumber);
+                }
+                String country = parts[2].strip();
+                Integer id = countryIds.get(country);
+                if (id == null) {
+                    id = countries.size();
+                    if (id > Short.MAX_VALUE) {
+                        throw new IllegalArgumentException("Too many distinct countries in " + dataset);
+                    }
+                    countryIds.put(country, id);
+                    countries.add(country);
+                }
+                ranges.add(new long[]{start, end, id});
+            }
+        }
+
+        ranges.sort((a, b) -> Long.compare(a[0], b[0]));
+        int size = ranges.size();
+        int[] starts = new int[size];
+        int[] ends = new int[size];
+        short[] ids = new short[size];
+        for (int i = 0; i < size; i++) {
+            long[] range = ranges.get(i);
+            if (i > 0 && range[0] <= ranges.get(i - 1)[1]) {
+                throw new IllegalArgumentException("Overlapping ranges in " + dataset + " at " + range[0]);
+            }
+            starts[i] = toSortable(range[0]);
+            ends[i] = toSortable(range[1]);
+            ids[i] = (short) range[2];
+        }
+        return new GeoIpIndex(starts, ends, ids, countries.toArray(String[]::new));
+    }
+
+    /**
+     * @param ipAddress Dotted IPv4 address.
+     * @return The country of the range containing the address, or {@code null} if none does.
+     */
+    public String lookup(String ipAddress) {
+        long address = parseIpv4(ipAddress);
+        if (address == NOT_AN_ADDRESS) {
+            return null;
+        }
+        int key = toSortable(address);
+        int low = 0;
+        int high = starts.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (starts[mid] <= key) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        // high is now the last range starting at or before the address
+        if (high < 0 || key > ends[high]) {
+            return null;
+        }
+        return countries[countryIds[high]];
+    }
+
+    /**
+     * @return Number of ranges in the index.
+     */
+    public int size() {
+        return starts.length;
+    }
+
+    private static int toSortable(long address) {
+        return (int) address ^ Integer.MIN_VALUE;
+    }
+
+    private static long parseBound(String value, int lineNumber) {
+        long address = value.indexOf('.') >= 0 ? parseIpv4(value) : parseInteger(value);
+        if (address == NOT_AN_ADDRESS) {
+            throw new IllegalArgumentException("Invalid address '" + value + "' on line " + lineNumber);
+        }
+        return address;
+    }
+
+    private static long parseInteger(String value) {
+        try {
+            long address = Long.parseLong(value);
+            return address >= 0 && address <= 0xFFFFFFFFL ? address : NOT_AN_ADDRESS;
+        } catch (NumberFormatException e) {
+            return NOT_AN_ADDRESS;
+        }
+    }
+
+    /**
+     * Parses a dotted IPv4 address without allocating.
+     *
+     * @return The address as an unsigned value, or {@link #NOT_AN_ADDRESS} if it is not valid IPv4.
+     */
+    static long parseIpv4(String value) {
+        if (value == null) {
+            return NOT_AN_ADDRESS;
+        }
+        long address = 0;
+        int octet = 0;
+        int digits = 0;
+        int dots = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= '0' && c <= '9') {
+                octet = octet * 10 + (c - '0');
+                if (++digits > 3 || octet > 255) {
+                    return NOT_AN_ADDRESS;
+                }
+            } else if (c == '.' && digits > 0 && dots < 3) {
+                address = (address << 8) | octet;
+                octet = 0;
+                digits = 0;
+                dots++;
+            } else {
+                return NOT_AN_ADDRESS;
+            }
+        }
+        if (dots != 3 || digits == 0) {
+            return NOT_AN_ADDRESS;
+        }
+        return (address << 8) | octet;
+    }
+}
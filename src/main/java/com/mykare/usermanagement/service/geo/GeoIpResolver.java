@@ -0,0 +1,17 @@
+package com.mykare.usermanagement.service.geo;
+
+import java.util.Optional;
+
+/**
+ * Resolves the country an IP address belongs to.
+ * Implementations return an empty result when the address is not covered and
+ * throw when the lookup itself could not be performed, so callers can retry.
+ */
+public interface GeoIpResolver {
+
+    /**
+     * @param ipAddress The IP address to resolve.
+     * @return The country name, or empty if the address is unknown to this resolver.
+     */
+    Optional<String> resolveCountry(String ipAddress);
+}
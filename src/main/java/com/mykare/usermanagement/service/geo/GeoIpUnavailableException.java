@@ -0,0 +1,12 @@
+package com.mykare.usermanagement.service.geo;
+
+/**
+ * Thrown when a lookup is rejected without being attempted because the provider
+ * is considered unhealthy or too many lookups are already in progress.
+ */
+public class GeoIpUnavailableException extends RuntimeException {
+
+    public GeoIpUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
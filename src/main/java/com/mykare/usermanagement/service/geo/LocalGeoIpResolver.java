@@ -0,0 +1,69 @@
+package com.mykare.usermanagement.service.geo;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Optional;
+
+/**
+ * {@link GeoIpResolver} that answers from an in-memory {@link GeoIpIndex} loaded from a local dataset file.
+ * The file is polled for changes and a new index is swapped in atomically once it has loaded,
+ * so lookups keep being served from the previous index while a reload is in progress.
+ * Addresses that are not covered by the dataset are passed to the optional fallback resolver.
+ */
+@Slf4j
+public class LocalGeoIpResolver implements GeoIpResolver {
+
+    private final Path dataset;
+    private final GeoIpResolver fallback;
+
+    private volatile GeoIpIndex index;
+    private FileTime loadedModifiedTime;
+
+    /**
+     * @param dataset  Path to the IP range dataset, see {@link GeoIpIndex} for the format.
+     * @param fallback Resolver consulted for addresses missing from the dataset, or {@code null} for none.
+     * @throws IOException if the initial load fails.
+     */
+    public LocalGeoIpResolver(Path dataset, GeoIpResolver fallback) throws IOException {
+        this.dataset = dataset;
+        this.fallback = fallback;
+        this.loadedModifiedTime = Files.getLastModifiedTime(dataset);
+        this.index = GeoIpIndex.load(dataset);
+        log.info("Loaded {} GeoIP ranges from {}", index.size(), dataset);
+    }
+
+    @Override
+    public Optional<String> resolveCountry(String ipAddress) {
+        String country = index.lookup(ipAddress);
+        if (country != null) {
+            return Optional.of(country);
+        }
+        return fallback != null ? fallback.resolveCountry(ipAddress) : Optional.empty();
+    }
+
+    /**
+     * Reloads the dataset if the file has been modified since it was last loaded.
+     * A dataset that fails to load is logged and the current index is kept.
+     */
+    @Scheduled(fixedDelayString = "${geo.resolver.reload-interval-ms}",
+            initialDelayString = "${geo.resolver.reload-interval-ms}")
+    public synchronized void reloadIfChanged() {
+        try {
+            FileTime modifiedTime = Files.getLastModifiedTime(dataset);
+            if (modifiedTime.equals(loadedModifiedTime)) {
+                return;
+            }
+            GeoIpIndex reloaded = GeoIpIndex.load(dataset);
+            index = reloaded;
+            loadedModifiedTime = modifiedTime;
+            log.info("Reloaded {} GeoIP ranges from {}", reloaded.size(), dataset);
+        } catch (IOException | IllegalArgumentException e) {
+            log.error("Failed to reload GeoIP dataset {}, keeping the current index", dataset, e);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.mykare.usermanagement.service.geo;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * {@link GeoIpResolver} backed by the ip-api.com HTTP API, or a service with the same
+ * response format at {@code baseUrl}.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class RemoteGeoIpResolver implements GeoIpResolver {
+
+    private static final Pattern FAILED_STATUS = Pattern.compile("\"status\"\\s*:\\s*\"fail\"");
+
+    private final RestTemplate restTemplate;
+    private final String baseUrl;
+
+    /**
+     * @throws IllegalStateException if the response cannot be parsed.
+     */
+    @Override
+    public Optional<String> resolveCountry(String ipAddress) {
+        return parseCountry(restTemplate.getForObject(baseUrl + ipAddress, String.class), ipAddress);
+    }
+
+    /**
+     * Reads the country from an ip-api.com response body.
+     *
+     * @throws IllegalStateException if the response cannot be parsed.
+     */
+    static Optional<String> parseCountry(String countryResponse, String ipAddress) {
+        if (countryResponse != null && FAILED_STATUS.matcher(countryResponse).find()) {
+            log.debug("ip-api.com has no country for IP {}: {}", ipAddress, countryResponse);
+            return Optional.empty();
+        }
+        if (countryResponse == null || !countryResponse.contains("\"country\"")) {
+            throw new IllegalStateException("Could not parse country from response: " + countryResponse);
+        }
+        String country = countryResponse.split("\"country\"\\s*:\\s*\"")[1].split("\"")[0];
+        log.debug("Fetched country {} for IP {}", country, ipAddress);
+        return Optional.of(country);
+    }
+}
@@ -0,0 +1,34 @@
+package com.mykare.usermanagement.service.geo;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Optional;
+
+/**
+ * Guards another {@link GeoIpResolver} with a circuit breaker and a bulkhead.
+ * While the breaker is open, or when the bulkhead has no free permits, lookups fail
+ * immediately with {@link GeoIpUnavailableException} instead of waiting on the provider.
+ */
+@RequiredArgsConstructor
+public class ResilientGeoIpResolver implements GeoIpResolver {
+
+    private final GeoIpResolver delegate;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+
+    @Override
+    public Optional<String> resolveCountry(String ipAddress) {
+        try {
+            return circuitBreaker.executeSupplier(
+                    Bulkhead.decorateSupplier(bulkhead, () -> delegate.resolveCountry(ipAddress)));
+        } catch (CallNotPermittedException e) {
+            throw new GeoIpUnavailableException("Circuit breaker " + circuitBreaker.getName() + " is open", e);
+        } catch (BulkheadFullException e) {
+            throw new GeoIpUnavailableException("Bulkhead " + bulkhead.getName() + " is full", e);
+        }
+    }
+}
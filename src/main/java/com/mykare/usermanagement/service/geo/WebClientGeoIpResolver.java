@@ -0,0 +1,32 @@
+package com.mykare.usermanagement.service.geo;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.util.Optional;
+
+/**
+ * Non-blocking variant of {@link RemoteGeoIpResolver} for the reactive stack: the same ip-api.com
+ * request and response parsing over {@link WebClient}, so no thread waits for the response.
+ */
+@RequiredArgsConstructor
+public class WebClientGeoIpResolver {
+
+    private final WebClient webClient;
+    private final String baseUrl;
+
+    /**
+     * @param ipAddress The IP address to resolve.
+     * @return The country name, or empty if the address is unknown; fails if the lookup could not
+     * be performed or the response cannot be parsed.
+     */
+    public Mono<Optional<String>> resolveCountry(String ipAddress) {
+        return webClient.get()
+                .uri(baseUrl + ipAddress)
+                .retrieve()
+                .bodyToMono(String.class)
+                .defaultIfEmpty("")
+                .map(response -> RemoteGeoIpResolver.parseCountry(response, ipAddress));
+    }
+}
@@ -0,0 +1,19 @@
+-- "if not exists" lets a database created by Hibernate's ddl-auto be baselined at version 0 and
+-- then brought up to date by these migrations.
+create sequence if not exists users_seq start with 1 increment by 50;
+
+create table if not exists users (
+    id bigint not null,
+    country varchar(255),
+    email varchar(255) not null,
+    email_normalized varchar(255) not null,
+    enrichment_attempts integer not null,
+    enrichment_status enum ('COMPLETED', 'FAILED', 'PENDING'),
+    gender varchar(255),
+    ip_address varchar(255),
+    name varchar(255),
+    password varchar(255),
+    role enum ('ADMIN', 'USER'),
+    version bigint,
+    primary key (id)
+);
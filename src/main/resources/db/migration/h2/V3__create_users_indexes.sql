@@ -0,0 +1,9 @@
+-- H2 cannot build indexes without locking the table; see the postgresql migrations for the
+-- non-blocking variant.
+alter table users add constraint if not exists uk_users_email_normalized unique (email_normalized);
+
+-- Between them these lead with every combination of the admin search's equality filters
+create index if not exists idx_users_country_role_gender on users (country, role, gender, id);
+create index if not exists idx_users_role_gender on users (role, gender, id);
+create index if not exists idx_users_gender_country on users (gender, country, id);
+create index if not exists idx_users_name on users (name, id);
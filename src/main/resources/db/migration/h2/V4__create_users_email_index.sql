@@ -0,0 +1,4 @@
+-- Email-sorted admin pages seek and order on the display email, which V3 left unindexed. Schemas
+-- baselined from ddl-auto may already have Hibernate's unique index on it; this one is added anyway
+-- so both kinds of schema serve those pages the same way.
+create index if not exists idx_users_email on users (email);
@@ -0,0 +1,10 @@
+-- Built concurrently so reads and writes continue while a large users table is indexed. Flyway
+-- runs this script outside a transaction because every statement in it is concurrent. If a build
+-- fails it leaves an INVALID index behind, which must be dropped before the migration is retried.
+create unique index concurrently if not exists uk_users_email_normalized on users (email_normalized);
+
+-- Between them these lead with every combination of the admin search's equality filters
+create index concurrently if not exists idx_users_country_role_gender on users (country, role, gender, id);
+create index concurrently if not exists idx_users_role_gender on users (role, gender, id);
+create index concurrently if not exists idx_users_gender_country on users (gender, country, id);
+create index concurrently if not exists idx_users_name on users (name, id);
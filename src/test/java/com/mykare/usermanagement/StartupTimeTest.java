@@ -0,0 +1,39 @@
+package com.mykare.usermanagement;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Boots the application against an empty database, so the measured time includes applying every
+ * migration, and fails if it is not ready within {@code startup.time-budget}.
+ */
+class StartupTimeTest {
+
+    @Test
+    void testStartsWithinBudget() {
+        AtomicReference<Duration> timeToReady = new AtomicReference<>();
+        ApplicationListener<ApplicationReadyEvent> listener = event -> timeToReady.set(event.getTimeTaken());
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(UsermanagementApplication.class)
+                .listeners(listener)
+                .run("--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:" + UUID.randomUUID(),
+                        "--spring.jpa.show-sql=false")) {
+            Duration budget = context.getEnvironment().getRequiredProperty("startup.time-budget", Duration.class);
+            assertEquals(4, context.getBean(Flyway.class).info().applied().length);
+            assertNotNull(timeToReady.get());
+            assertTrue(timeToReady.get().compareTo(budget) <= 0,
+                    "Ready after " + timeToReady.get().toMillis() + " ms, budget is " + budget.toMillis() + " ms");
+        }
+    }
+}
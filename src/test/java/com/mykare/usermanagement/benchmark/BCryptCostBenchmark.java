@@ -0,0 +1,62 @@
+package com.mykare.usermanagement.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Reports BCrypt throughput on this machine for each cost factor, using one thread per core.
+ * Run with {@code mvn test -Pbenchmark -Dtest=BCryptCostBenchmark}; the cost range can be
+ * narrowed with {@code -Dbenchmark.bcrypt.min=} and {@code -Dbenchmark.bcrypt.max=}.
+ */
+@Tag("benchmark")
+class BCryptCostBenchmark {
+
+    private static final long MIN_DURATION_NANOS = 2_000_000_000L;
+
+    @Test
+    void hashesPerSecondPerCore() throws Exception {
+        int minCost = Integer.getInteger("benchmark.bcrypt.min", 8);
+        int maxCost = Integer.getInteger("benchmark.bcrypt.max", 14);
+        int cores = Runtime.getRuntime().availableProcessors();
+
+        System.out.printf("%nBCrypt throughput with %d threads%n", cores);
+        System.out.printf("%-6s %14s %16s %14s%n", "cost", "ms/hash", "hashes/s", "hashes/s/core");
+        ExecutorService executor = Executors.newFixedThreadPool(cores);
+        try {
+            for (int cost = minCost; cost <= maxCost; cost++) {
+                BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(cost);
+                encoder.encode("Warmup@123");
+
+                long start = System.nanoTime();
+                List<Future<Integer>> workers = new ArrayList<>();
+                for (int i = 0; i < cores; i++) {
+                    workers.add(executor.submit(() -> {
+                        int hashes = 0;
+                        while (System.nanoTime() - start < MIN_DURATION_NANOS || hashes == 0) {
+                            encoder.encode("Benchmark@123");
+                            hashes++;
+                        }
+                        return hashes;
+                    }));
+                }
+                long total = 0;
+                for (Future<Integer> worker : workers) {
+                    total += worker.get();
+                }
+                double seconds = (System.nanoTime() - start) / 1e9;
+                double perSecond = total / seconds;
+                System.out.printf("%-6d %14.2f %16.1f %14.1f%n",
+                        cost, cores * 1000 / perSecond, perSecond, perSecond / cores);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
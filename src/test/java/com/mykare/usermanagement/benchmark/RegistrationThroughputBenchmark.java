@@ -0,0 +1,183 @@
+package com.mykare.usermanagement.benchmark;
+
+import com.mykare.usermanagement.UsermanagementApplication;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Finds the highest registration rate each threading mode sustains while the p99 latency stays
+ * within a fixed target: Tomcat and the service layer on platform threads, then on virtual threads
+ * ({@code spring.threads.virtual.enabled}). Each mode runs in a fresh application with its own
+ * database; geo lookups go to a local stand-in for ip-api.com that answers after a fixed delay.
+ * <p>
+ * Load is open-loop: requests are sent on a fixed schedule whether or not earlier ones have
+ * finished, and latency is measured from the scheduled send time, so a saturated server shows up as
+ * growing latency rather than as a slower client. The rate is raised step by step until the p99
+ * exceeds the target or more than 1% of requests fail. BCrypt runs at a low fixed cost so the
+ * hashing pool does not cap both modes at the same rate.
+ * Run with {@code mvn test -Pbenchmark -Dtest=RegistrationThroughputBenchmark}; tune with
+ * {@code -Dbenchmark.registration.p99-ms=}, {@code -Dbenchmark.registration.step-seconds=},
+ * {@code -Dbenchmark.registration.start-rate=} and {@code -Dbenchmark.registration.geo-delay-ms=}.
+ */
+@Tag("benchmark")
+class RegistrationThroughputBenchmark {
+
+    private static final double RATE_GROWTH = 1.5;
+    private static final double MAX_ERROR_RATE = 0.01;
+
+    private final long p99TargetMillis = Long.getLong("benchmark.registration.p99-ms", 250);
+    private final int stepSeconds = Integer.getInteger("benchmark.registration.step-seconds", 5);
+    private final int startRate = Integer.getInteger("benchmark.registration.start-rate", 20);
+    private final long geoDelayMillis = Long.getLong("benchmark.registration.geo-delay-ms", 50);
+
+    private final AtomicInteger sequence = new AtomicInteger();
+
+    /** Outcome of one rate step. */
+    private record Step(int rate, int sent, int failed, double achievedRate, long p50Millis, long p99Millis) {
+
+        boolean sustained(long p99TargetMillis) {
+            return p99Millis <= p99TargetMillis && failed <= sent * MAX_ERROR_RATE;
+        }
+    }
+
+    @Test
+    void platformVersusVirtualThreads() throws Exception {
+        HttpServer geoService = startGeoService();
+        try {
+            String geoUrl = "http://127.0.0.1:" + geoService.getAddress().getPort() + "/json/";
+            int platform = maxSustainedRate("platform", false, geoUrl);
+            int virtual = maxSustainedRate("virtual", true, geoUrl);
+
+            System.out.printf("%nMax sustained registrations/s at p99 <= %d ms%n", p99TargetMillis);
+            System.out.printf("%-10s %8d%n%-10s %8d%n", "platform", platform, "virtual", virtual);
+        } finally {
+            geoService.stop(0);
+        }
+    }
+
+    private int maxSustainedRate(String mode, boolean virtualThreads, String geoUrl) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(UsermanagementApplication.class)
+                .run("--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:" + UUID.randomUUID(),
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.com.mykare=WARN",
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        "--security.password.bcrypt.strength=4",
+                        "--client-ip.trusted-proxies=127.0.0.1",
+                        "--geo.resolver.remote-url=" + geoUrl);
+             HttpClient client = HttpClient.newBuilder()
+                     .executor(Executors.newVirtualThreadPerTaskExecutor())
+                     .connectTimeout(Duration.ofSeconds(5))
+                     .build()) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            URI register = URI.create("http://localhost:" + port + "/auth/register");
+
+            // Warm up the request path before measuring
+            runStep(client, register, startRate, 2);
+
+            System.out.printf("%n%s threads%n", mode);
+            System.out.printf("%8s %8s %8s %12s %10s %10s%n", "rate/s", "sent", "failed", "achieved/s", "p50 ms", "p99 ms");
+            int best = 0;
+            for (double rate = startRate; ; rate *= RATE_GROWTH) {
+                Step step = runStep(client, register, (int) rate, stepSeconds);
+                System.out.printf("%8d %8d %8d %12.1f %10d %10d%n", step.rate(), step.sent(), step.failed(),
+                        step.achievedRate(), step.p50Millis(), step.p99Millis());
+                if (!step.sustained(p99TargetMillis)) {
+                    return best;
+                }
+                best = step.rate();
+            }
+        }
+    }
+
+    private Step runStep(HttpClient client, URI register, int rate, int seconds) {
+        int requests = rate * seconds;
+        long intervalNanos = 1_000_000_000L / rate;
+        long[] latencies = new long[requests];
+        AtomicInteger failed = new AtomicInteger();
+        List<CompletableFuture<Void>> responses = new ArrayList<>(requests);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            long scheduled = start + i * intervalNanos;
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            int n = i;
+            responses.add(client.sendAsync(registerRequest(register), HttpResponse.BodyHandlers.discarding())
+                    .handle((response, error) -> {
+                        latencies[n] = System.nanoTime() - scheduled;
+                        if (error != null || response.statusCode() != 200) {
+                            failed.incrementAndGet();
+                        }
+                        return null;
+                    }));
+        }
+        CompletableFuture.allOf(responses.toArray(CompletableFuture[]::new)).join();
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+        Arrays.sort(latencies);
+        return new Step(rate, requests, failed.get(), requests / elapsedSeconds,
+                percentileMillis(latencies, 0.50), percentileMillis(latencies, 0.99));
+    }
+
+    private HttpRequest registerRequest(URI register) {
+        int n = sequence.incrementAndGet();
+        String body = """
+                {"name":"Load User","email":"load%d@example.com","gender":"Male","password":"Password@123"}
+                """.formatted(n);
+        return HttpRequest.newBuilder(register)
+                .header("Content-Type", "application/json")
+                .header("X-Forwarded-For", "198.18." + (n >> 8 & 0xff) + "." + (n & 0xff))
+                .timeout(Duration.ofSeconds(30))
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static long percentileMillis(long[] sortedNanos, double percentile) {
+        int index = (int) Math.ceil(percentile * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(index, 0)] / 1_000_000;
+    }
+
+    private HttpServer startGeoService() throws Exception {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/json/", exchange -> {
+            try {
+                Thread.sleep(geoDelayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = "{\"status\":\"success\",\"country\":\"Testland\"}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        return server;
+    }
+}
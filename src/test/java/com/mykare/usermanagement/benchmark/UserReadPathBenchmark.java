@@ -0,0 +1,93 @@
+package com.mykare.usermanagement.benchmark;
+
+import com.mykare.usermanagement.dto.UserResponse;
+import com.mykare.usermanagement.model.Role;
+import com.mykare.usermanagement.model.User;
+import com.mykare.usermanagement.repository.UserRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Compares the admin page read path before and after switching to constructor projections:
+ * loading managed {@link User} entities and copying them into {@link UserResponse}, versus
+ * selecting straight into {@link UserResponse}. Single-user reads load the entity through the
+ * natural-id and second-level caches instead, and are measured on that path alone.
+ * Reports latency and heap allocation per call.
+ * Run with {@code mvn test -Pbenchmark -Dtest=UserReadPathBenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+class UserReadPathBenchmark {
+
+    private static final int USERS = 2_000;
+    private static final int PAGE_SIZE = 100;
+    private static final int WARMUP = 2_000;
+    private static final int ITERATIONS = 10_000;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void entityVersusProjection() {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            users.add(User.builder()
+                    .name("Bench User " + i)
+                    .email("bench" + i + "@example.com")
+                    .gender(i % 2 == 0 ? "Male" : "Female")
+                    .password("{bcrypt}$2a$10$abcdefghijklmnopqrstuuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ01")
+                    .ipAddress("203.0.113." + (i % 256))
+                    .country("IN")
+                    .role(Role.USER)
+                    .build());
+        }
+        userRepository.saveAll(users);
+
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        String email = "bench" + (USERS / 2) + "@example.com";
+        Sort byId = Sort.by("id");
+
+        System.out.printf("%n%-28s %12s %14s%n", "path", "us/call", "bytes/call");
+        run("by email, cached entity", () -> readOnly.execute(status ->
+                userRepository.findByEmail(email).map(UserResponse::fromEntity).orElseThrow()));
+        run("page of " + PAGE_SIZE + ", entity", () -> readOnly.execute(status ->
+                userRepository.findAll(PageRequest.of(0, PAGE_SIZE, byId)).getContent().stream()
+                        .map(UserResponse::fromEntity).toList()));
+        run("page of " + PAGE_SIZE + ", projection", () -> readOnly.execute(status ->
+                userRepository.findResponses(byId, Limit.of(PAGE_SIZE))));
+    }
+
+    private static void run(String name, Supplier<?> call) {
+        for (int i = 0; i < WARMUP; i++) {
+            call.get();
+        }
+        long thread = Thread.currentThread().threadId();
+        long bytesBefore = THREADS.getThreadAllocatedBytes(thread);
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            call.get();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = THREADS.getThreadAllocatedBytes(thread) - bytesBefore;
+        System.out.printf("%-28s %12.1f %14d%n", name, elapsed / 1e3 / ITERATIONS, allocated / ITERATIONS);
+    }
+}
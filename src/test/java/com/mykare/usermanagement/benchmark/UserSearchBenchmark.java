@@ -0,0 +1,99 @@
+package com.mykare.usermanagement.benchmark;
+
+import com.mykare.usermanagement.dto.UserSearchCriteria;
+import com.mykare.usermanagement.model.Role;
+import com.mykare.usermanagement.service.CapturingStatementInspector;
+import com.mykare.usermanagement.service.UserSearchPlans;
+import com.mykare.usermanagement.service.UserSearchService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Runs the admin user search against a million users and prints, for each filter combination,
+ * the index H2 chose and the latency of the first page.
+ * Run with {@code mvn test -Pbenchmark -Dtest=UserSearchBenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.mykare.usermanagement.service.CapturingStatementInspector"
+})
+class UserSearchBenchmark {
+
+    private static final int USERS = 1_000_000;
+    private static final int INSERT_BATCH = 10_000;
+    private static final int PAGE_SIZE = 50;
+    private static final int WARMUP = 200;
+    private static final int ITERATIONS = 1_000;
+    private static final String[] COUNTRIES = {"IN", "US", "DE", "BR", "JP", "GB", "FR", "NG", "AU", "CA"};
+    private static final String[] GENDERS = {"Male", "Female", "Other"};
+    private static final Pattern INDEX = Pattern.compile("/\\* ([^:*]+)");
+
+    @Autowired
+    private UserSearchService userSearchService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void searchAtOneMillionUsers() {
+        seed();
+
+        Map<String, UserSearchCriteria> cases = new LinkedHashMap<>();
+        cases.put("country", UserSearchCriteria.builder().country("JP").build());
+        cases.put("role", UserSearchCriteria.builder().role(Role.ADMIN).build());
+        cases.put("gender", UserSearchCriteria.builder().gender("Other").build());
+        cases.put("country+role", UserSearchCriteria.builder().country("JP").role(Role.ADMIN).build());
+        cases.put("role+gender", UserSearchCriteria.builder().role(Role.ADMIN).gender("Other").build());
+        cases.put("gender+country", UserSearchCriteria.builder().gender("Other").country("JP").build());
+        cases.put("country+role+gender", UserSearchCriteria.builder().country("JP").role(Role.ADMIN).gender("Other").build());
+        cases.put("name prefix", UserSearchCriteria.builder().namePrefix("User 4242").build());
+        cases.put("email prefix", UserSearchCriteria.builder().emailPrefix("USER4242").build());
+        cases.put("country+name prefix", UserSearchCriteria.builder().country("JP").namePrefix("User 4242").build());
+
+        System.out.printf("%n%-22s %-40s %10s%n", "filters", "index", "us/page");
+        cases.forEach((name, criteria) -> {
+            for (int i = 0; i < WARMUP; i++) {
+                userSearchService.search(criteria, null, PAGE_SIZE);
+            }
+            long start = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++) {
+                userSearchService.search(criteria, null, PAGE_SIZE);
+            }
+            long elapsed = System.nanoTime() - start;
+
+            String plan = UserSearchPlans.explain(jdbcTemplate, CapturingStatementInspector.last("from users"), criteria);
+            Matcher index = INDEX.matcher(plan);
+            System.out.printf("%-22s %-40s %10.1f%n", name, index.find() ? index.group(1).strip() : "?",
+                    elapsed / 1e3 / ITERATIONS);
+            CapturingStatementInspector.clear();
+        });
+    }
+
+    private void seed() {
+        String sql = "insert into users (id, name, email, email_normalized, gender, password, ip_address, country, "
+                + "role, enrichment_status, enrichment_attempts, version) values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0, 0)";
+        for (int from = 0; from < USERS; from += INSERT_BATCH) {
+            List<Object[]> batch = new ArrayList<>(INSERT_BATCH);
+            for (int i = from; i < from + INSERT_BATCH; i++) {
+                String email = "user" + i + "@example.com";
+                batch.add(new Object[]{100_000_000L + i, "User " + i, email, email, GENDERS[i % GENDERS.length],
+                        "{noop}password", "UNKNOWN", COUNTRIES[i % COUNTRIES.length],
+                        (i % 100 == 0 ? Role.ADMIN : Role.USER).name(), "COMPLETED"});
+            }
+            jdbcTemplate.batchUpdate(sql, batch);
+        }
+        jdbcTemplate.execute("ANALYZE");
+    }
+}
@@ -0,0 +1,88 @@
+package com.mykare.usermanagement.config;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.FlywayException;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmailNormalizationMigrationTest {
+
+    @Test
+    void testBaselinesAndBackfillsExistingUsers() {
+        DataSource dataSource = legacyDatabase("Alice@Example.com", " bob@example.com", "carol@example.com");
+
+        migrate(dataSource);
+
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        assertEquals(List.of("alice@example.com", "bob@example.com", "carol@example.com"),
+                jdbc.queryForList("select email_normalized from users order by id", String.class));
+        assertThrows(Exception.class, () -> jdbc.update("insert into users (id, email, enrichment_attempts) "
+                + "values (10, 'dave@example.com', 0)"));
+        assertThrows(Exception.class, () -> jdbc.update("insert into users (id, email, email_normalized, enrichment_attempts) "
+                + "values (11, 'ALICE@example.com', 'alice@example.com', 0)"));
+    }
+
+    @Test
+    void testRefusesToMigrateOnCaseCollisions() {
+        DataSource dataSource = legacyDatabase("Bob@Example.com", "bob@example.com", "carol@example.com");
+
+        FlywayException ex = assertThrows(FlywayException.class, () -> migrate(dataSource));
+        Throwable cause = ex;
+        while (!(cause instanceof IllegalStateException) && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        assertTrue(cause.getMessage().contains("bob@example.com"), cause.getMessage());
+    }
+
+    @Test
+    void testCreatesSchemaOnEmptyDatabase() {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+
+        migrate(dataSource);
+
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.update("insert into users (id, email, email_normalized, enrichment_attempts) "
+                + "values (1, 'Alice@Example.com', 'alice@example.com', 0)");
+        assertThrows(Exception.class, () -> jdbc.update("insert into users (id, email, email_normalized, enrichment_attempts) "
+                + "values (2, 'alice@example.com', 'alice@example.com', 0)"));
+        assertEquals(List.of("IDX_USERS_COUNTRY_ROLE_GENDER", "IDX_USERS_EMAIL", "IDX_USERS_GENDER_COUNTRY", "IDX_USERS_NAME",
+                        "IDX_USERS_ROLE_GENDER"),
+                jdbc.queryForList("select index_name from information_schema.indexes "
+                        + "where table_name = 'USERS' and index_name like 'IDX_%' order by index_name", String.class));
+    }
+
+    private static void migrate(DataSource dataSource) {
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration/h2")
+                .javaMigrations(new EmailNormalizationMigration())
+                .baselineOnMigrate(true)
+                .baselineVersion("0")
+                .load()
+                .migrate();
+    }
+
+    /**
+     * A users table as Hibernate's ddl-auto created it before {@code email_normalized} existed.
+     */
+    private static DataSource legacyDatabase(String... emails) {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("create sequence users_seq start with 1 increment by 50");
+        jdbc.execute("create table users (id bigint primary key, country varchar(255), email varchar(255) not null unique, "
+                + "enrichment_attempts integer not null, enrichment_status enum ('COMPLETED','FAILED','PENDING'), "
+                + "gender varchar(255), ip_address varchar(255), name varchar(255), password varchar(255), "
+                + "role enum ('ADMIN','USER'), version bigint)");
+        for (int i = 0; i < emails.length; i++) {
+            jdbc.update("insert into users (id, email, enrichment_attempts) values (?, ?, 0)", i + 1, emails[i]);
+        }
+        return dataSource;
+    }
+}
@@ -0,0 +1,66 @@
+package com.mykare.usermanagement.config;
+
+import com.mykare.usermanagement.dto.RegisterRequest;
+import com.mykare.usermanagement.dto.UserCount;
+import com.mykare.usermanagement.dto.UserIdentity;
+import com.mykare.usermanagement.dto.UserResponse;
+import com.mykare.usermanagement.model.Role;
+import com.mykare.usermanagement.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NativeRuntimeHintsTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    NativeRuntimeHintsTest() {
+        new NativeRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void testPayloadsAreBoundAndValidated() throws Exception {
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(RegisterRequest.class.getMethod("getPassword")).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(RegisterRequest.class.getMethod("setPassword", String.class)).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(RegisterRequest.class)
+                .withMemberCategory(MemberCategory.DECLARED_FIELDS).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(UserResponse.class.getMethod("getEmail")).test(hints));
+    }
+
+    @Test
+    void testProjectionConstructorsAreInvocable() {
+        for (Class<?> projection : new Class<?>[]{UserResponse.class, UserCount.class, UserIdentity.class}) {
+            assertTrue(RuntimeHintsPredicates.reflection().onType(projection)
+                    .withMemberCategory(MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS).test(hints), projection.getName());
+        }
+    }
+
+    @Test
+    void testEntityAndResourcesAreRegistered() throws Exception {
+        assertTrue(RuntimeHintsPredicates.reflection().onField(User.class.getDeclaredField("emailNormalized")).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(User.class.getDeclaredMethod("syncEmailNormalized")).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(Role.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.resource().forResource("db/migration/h2/V1__create_users_table.sql").test(hints));
+        assertTrue(RuntimeHintsPredicates.resource().forResource("db/migration/postgresql/V3__create_users_indexes.sql").test(hints));
+        assertTrue(RuntimeHintsPredicates.resource()
+                .forResource("META-INF/resources/webjars/swagger-ui/" + swaggerUiVersion() + "/index.html").test(hints));
+    }
+
+    /** The version of the swagger-ui webjar on the classpath, which names its resource directory. */
+    private static String swaggerUiVersion() throws IOException {
+        Properties pom = new Properties();
+        try (InputStream in = NativeRuntimeHintsTest.class.getClassLoader()
+                .getResourceAsStream("META-INF/maven/org.webjars/swagger-ui/pom.properties")) {
+            assertNotNull(in, "swagger-ui webjar is not on the classpath");
+            pom.load(in);
+        }
+        return pom.getProperty("version");
+    }
+}
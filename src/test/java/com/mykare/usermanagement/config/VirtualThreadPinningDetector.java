@@ -0,0 +1,116 @@
+package com.mykare.usermanagement.config;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+/**
+ * Records the {@code jdk.VirtualThreadPinned} JFR event, which the JVM emits when a virtual
+ * thread blocks while it cannot unmount from its carrier, typically inside a {@code synchronized}
+ * block or method. Each pinning is attributed to the code path whose frames appear in its stack:
+ * JDBC/H2 (Hibernate, Hikari, the H2 driver), RestTemplate (Spring's HTTP client and Apache
+ * HttpClient) or this application.
+ */
+class VirtualThreadPinningDetector implements AutoCloseable {
+
+    static final String JDBC = "JDBC/H2";
+    static final String REST_TEMPLATE = "RestTemplate";
+    static final String APPLICATION = "application";
+    static final String OTHER = "other";
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int STACK_DEPTH = 40;
+    private static final Map<String, List<String>> PATHS = Map.of(
+            JDBC, List.of("org.h2.", "com.zaxxer.hikari.", "org.hibernate.", "java.sql."),
+            REST_TEMPLATE, List.of("org.springframework.web.client.", "org.springframework.http.client.", "org.apache.hc."),
+            APPLICATION, List.of("com.mykare."));
+
+    /** One pinned section: the path it was attributed to, how long the thread was pinned and its stack. */
+    record Pinning(String path, Duration duration, List<String> frames) {
+    }
+
+    private final RecordingStream stream = new RecordingStream();
+    private final List<Pinning> pinnings = new CopyOnWriteArrayList<>();
+    private boolean closed;
+
+    VirtualThreadPinningDetector() {
+        stream.enable(PINNED_EVENT).withThreshold(Duration.ZERO).withStackTrace();
+        stream.onEvent(PINNED_EVENT, event -> pinnings.add(toPinning(event)));
+        stream.startAsync();
+    }
+
+    /**
+     * Stops recording once every event emitted so far has been delivered.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        stream.stop();
+        stream.close();
+    }
+
+    List<Pinning> pinnings() {
+        return List.copyOf(pinnings);
+    }
+
+    List<Pinning> pinnings(String path) {
+        return pinnings.stream().filter(pinning -> pinning.path().equals(path)).toList();
+    }
+
+    /**
+     * @return One line per path with the number of pinned sections and their total duration,
+     * followed by the top non-JDK frames of each distinct pinned stack.
+     */
+    String report() {
+        if (pinnings.isEmpty()) {
+            return "No virtual thread pinning recorded";
+        }
+        Map<String, List<Pinning>> byPath = new TreeMap<>(pinnings.stream()
+                .collect(Collectors.groupingBy(Pinning::path)));
+        StringBuilder report = new StringBuilder("Virtual thread pinning:");
+        byPath.forEach((path, found) -> {
+            Duration total = found.stream().map(Pinning::duration).reduce(Duration.ZERO, Duration::plus);
+            report.append(String.format("%n  %-12s %5d pinned, %d ms total", path, found.size(), total.toMillis()));
+            found.stream()
+                    .map(pinning -> pinning.frames().stream()
+                            .dropWhile(frame -> frame.startsWith("java.") || frame.startsWith("jdk."))
+                            .limit(STACK_DEPTH).collect(Collectors.joining("\n        ")))
+                    .distinct()
+                    .forEach(stack -> report.append("\n      at ").append(stack));
+        });
+        return report.toString();
+    }
+
+    private static Pinning toPinning(RecordedEvent event) {
+        List<String> frames = event.getStackTrace() == null ? List.of() : event.getStackTrace().getFrames().stream()
+                .map(VirtualThreadPinningDetector::describe)
+                .toList();
+        return new Pinning(classify(frames), event.getDuration(), frames);
+    }
+
+    private static String classify(List<String> frames) {
+        for (String frame : frames) {
+            for (Map.Entry<String, List<String>> path : PATHS.entrySet()) {
+                if (path.getValue().stream().anyMatch(frame::startsWith)) {
+                    return path.getKey();
+                }
+            }
+        }
+        return OTHER;
+    }
+
+    private static String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                + ":" + frame.getLineNumber();
+    }
+}
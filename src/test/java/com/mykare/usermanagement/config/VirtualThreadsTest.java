@@ -0,0 +1,189 @@
+package com.mykare.usermanagement.config;
+
+import com.mykare.usermanagement.dto.LoginRequest;
+import com.mykare.usermanagement.dto.RegisterRequest;
+import com.mykare.usermanagement.model.EnrichmentStatus;
+import com.mykare.usermanagement.model.User;
+import com.mykare.usermanagement.repository.UserRepository;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.tomcat.util.threads.VirtualThreadExecutor;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs registration, login and geo enrichment with {@code spring.threads.virtual.enabled}, against
+ * a local stand-in for ip-api.com, while {@link VirtualThreadPinningDetector} records every
+ * pinned virtual thread. The JDBC/H2 and RestTemplate paths must not pin.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.threads.virtual.enabled=true",
+        "spring.jpa.show-sql=false",
+        "client-ip.trusted-proxies=127.0.0.1",
+        "spring.datasource.hikari.maximum-pool-size=2",
+        "geo.http.max-connections-per-route=4",
+        "geo.bulkhead.max-concurrent-calls=8",
+        "geo.enrichment.sweep-interval-ms=500"})
+class VirtualThreadsTest {
+
+    private static final int USERS = 40;
+    private static final String PASSWORD = "Password@123";
+
+    private static HttpServer geoService;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private ServletWebServerApplicationContext context;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @DynamicPropertySource
+    static void geoService(DynamicPropertyRegistry registry) throws IOException {
+        geoService = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        geoService.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        geoService.createContext("/json/", exchange -> {
+            try {
+                // Slow enough that lookups queue for the connection pool
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = "{\"status\":\"success\",\"country\":\"Testland\"}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        geoService.start();
+        registry.add("geo.resolver.remote-url",
+                () -> "http://127.0.0.1:" + geoService.getAddress().getPort() + "/json/");
+    }
+
+    @AfterAll
+    static void stopGeoService() {
+        geoService.stop(0);
+    }
+
+    @Test
+    void testTomcatRunsRequestsOnVirtualThreads() {
+        TomcatWebServer webServer = (TomcatWebServer) context.getWebServer();
+        assertInstanceOf(VirtualThreadExecutor.class,
+                webServer.getTomcat().getConnector().getProtocolHandler().getExecutor());
+
+        ResponseEntity<String> response = restTemplate.getForEntity("/actuator/health", String.class);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+    }
+
+    @Test
+    void testDetectorReportsSynchronizedPinning() throws Exception {
+        Object monitor = new Object();
+        try (VirtualThreadPinningDetector detector = new VirtualThreadPinningDetector()) {
+            Thread.ofVirtual().start(() -> {
+                synchronized (monitor) {
+                    try {
+                        Thread.sleep(50);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }).join();
+            awaitPinning(detector);
+            detector.close();
+
+            assertFalse(detector.pinnings(VirtualThreadPinningDetector.APPLICATION).isEmpty(), detector.report());
+        }
+    }
+
+    @Test
+    void testRegistrationLoginAndEnrichmentDoNotPin() throws Exception {
+        VirtualThreadPinningDetector detector = new VirtualThreadPinningDetector();
+        try (detector; ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<ResponseEntity<String>>> registrations = new ArrayList<>();
+            for (int i = 0; i < USERS; i++) {
+                int n = i;
+                registrations.add(clients.submit(() -> register(n)));
+            }
+            for (Future<ResponseEntity<String>> registration : registrations) {
+                assertEquals(HttpStatus.OK, registration.get().getStatusCode());
+            }
+
+            List<Future<ResponseEntity<String>>> logins = new ArrayList<>();
+            for (int i = 0; i < USERS; i++) {
+                int n = i;
+                logins.add(clients.submit(() -> restTemplate.postForEntity("/auth/login",
+                        new LoginRequest(email(n), PASSWORD), String.class)));
+            }
+            for (Future<ResponseEntity<String>> login : logins) {
+                assertEquals(HttpStatus.OK, login.get().getStatusCode());
+            }
+            for (int i = 0; i < USERS; i++) {
+                assertEquals("Testland", awaitEnriched(email(i)).getCountry());
+            }
+        } finally {
+            System.out.println(detector.report());
+        }
+
+        assertEquals(List.of(), detector.pinnings(VirtualThreadPinningDetector.JDBC), detector.report());
+        assertEquals(List.of(), detector.pinnings(VirtualThreadPinningDetector.REST_TEMPLATE), detector.report());
+    }
+
+    private ResponseEntity<String> register(int n) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add("X-Forwarded-For", "198.51.100." + n);
+        RegisterRequest request = RegisterRequest.builder()
+                .name("Virtual User " + n)
+                .email(email(n))
+                .gender(n % 2 == 0 ? "Male" : "Female")
+                .password(PASSWORD)
+                .build();
+        return restTemplate.postForEntity("/auth/register", new HttpEntity<>(request, headers), String.class);
+    }
+
+    private static String email(int n) {
+        return "virtual" + n + "@example.com";
+    }
+
+    private User awaitEnriched(String email) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            User user = userRepository.findByEmail(email).orElseThrow();
+            if (user.getEnrichmentStatus() == EnrichmentStatus.COMPLETED) {
+                return user;
+            }
+            Thread.sleep(100);
+        }
+        fail("User " + email + " was never enriched");
+        return null;
+    }
+
+    private static void awaitPinning(VirtualThreadPinningDetector detector) throws InterruptedException {
+        for (int i = 0; i < 50 && detector.pinnings().isEmpty(); i++) {
+            Thread.sleep(100);
+        }
+    }
+}
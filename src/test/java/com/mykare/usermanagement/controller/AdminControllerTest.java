@@ -1,14 +1,22 @@
 package com.mykare.usermanagement.controller;
 
+import com.mykare.usermanagement.repository.UserRepository;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -18,6 +26,9 @@ class AdminControllerTest {
     @Autowired
     private WebApplicationContext context;
 
+    @Autowired
+    private UserRepository userRepository;
+
     private MockMvc mockMvc;
 
     @Test
@@ -30,6 +41,80 @@ class AdminControllerTest {
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON));
     }
 
+    @Test
+    @WithMockUser(username = "admin@mykare.com", roles = {"ADMIN"})
+    void testGetAllUsersReturnsNextCursorHeader() throws Exception {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+
+        mockMvc.perform(get("/admin/users").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1));
+
+        mockMvc.perform(get("/admin/users").param("after", "%%%"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(username = "admin@mykare.com", roles = {"ADMIN"})
+    void testExportUsersStreamsNdjson() throws Exception {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+
+        MvcResult result = mockMvc.perform(get("/admin/users/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/x-ndjson;charset=UTF-8"))
+                .andReturn().getResponse().getContentAsString();
+        String[] lines = body.split("\n");
+        assertEquals(userRepository.count(), lines.length);
+        assertTrue(lines[0].startsWith("{") && lines[0].contains("\"email\""));
+    }
+
+    @Test
+    @WithMockUser(username = "admin@mykare.com", roles = {"ADMIN"})
+    void testExportUsersStreamsGzippedCsv() throws Exception {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+
+        MvcResult result = mockMvc.perform(get("/admin/users/export")
+                        .param("format", "csv")
+                        .header("Accept-Encoding", "gzip"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        byte[] compressed = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andReturn().getResponse().getContentAsByteArray();
+        String csv;
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            csv = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        String[] lines = csv.split("\r\n");
+        assertEquals("id,name,email,gender,ipAddress,country,role,enrichmentStatus", lines[0]);
+        assertEquals(userRepository.count() + 1, lines.length);
+
+        mockMvc.perform(get("/admin/users/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(username = "admin@mykare.com", roles = {"ADMIN"})
+    void testImportUsersFromCsv() throws Exception {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+
+        String csv = "name,email,password,gender\r\nBulk User,bulk@example.com,Password@123,Male\r\n";
+
+        mockMvc.perform(post("/admin/users/import")
+                        .contentType("text/csv")
+                        .content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.failed").value(0));
+        assertTrue(userRepository.existsByEmail("bulk@example.com"));
+    }
+
     @Test
     @WithMockUser(username = "admin@mykare.com", roles = {"ADMIN"})
     void testDeleteUserCannotDeleteSelf() throws Exception {
@@ -54,4 +139,22 @@ class AdminControllerTest {
                 .andExpect(content().string("Cannot change your own role"));
     }
 
+    @Test
+    @WithMockUser(username = "admin@mykare.com", roles = {"ADMIN"})
+    void testBulkOperationsCannotTargetSelf() throws Exception {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+
+        mockMvc.perform(post("/admin/users/bulk/role")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"filter\": {\"emails\": [\"ADMIN@mykare.com\"]}, \"role\": \"USER\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Cannot change your own role"));
+
+        mockMvc.perform(post("/admin/users/bulk/delete")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"emails\": [\"admin@mykare.com\"]}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Cannot delete the currently authenticated admin"));
+    }
+
 }
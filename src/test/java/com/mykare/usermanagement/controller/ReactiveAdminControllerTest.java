@@ -0,0 +1,229 @@
+package com.mykare.usermanagement.controller;
+
+import com.mykare.usermanagement.dto.LoginRequest;
+import com.mykare.usermanagement.dto.LoginResponse;
+import com.mykare.usermanagement.model.EnrichmentStatus;
+import com.mykare.usermanagement.model.Role;
+import com.mykare.usermanagement.model.User;
+import com.mykare.usermanagement.dto.UserStats;
+import com.mykare.usermanagement.repository.ReactiveUserRepository;
+import com.mykare.usermanagement.service.ReactiveAdminService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+
+import static org.springframework.security.test.web.reactive.server.SecurityMockServerConfigurers.mockUser;
+import static org.springframework.security.test.web.reactive.server.SecurityMockServerConfigurers.springSecurity;
+
+@SpringBootTest
+@ActiveProfiles("reactive")
+class ReactiveAdminControllerTest {
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private ReactiveUserRepository userRepository;
+
+    @Autowired
+    private ReactiveAdminService adminService;
+
+    @MockitoSpyBean
+    private PasswordEncoder passwordEncoder;
+
+    private WebTestClient webTestClient;
+
+    @BeforeEach
+    void setUp() {
+        webTestClient = WebTestClient.bindToApplicationContext(context)
+                .apply(springSecurity())
+                .configureClient()
+                .build();
+        if (userRepository.findByEmail("reactive.paging@mykare.com").blockOptional().isEmpty()) {
+            User user = new User();
+            user.setName("Reactive Paging");
+            user.setEmail("reactive.paging@mykare.com");
+            user.setPassword("unused");
+            user.setRole(Role.USER);
+            userRepository.insert(user).block();
+        }
+    }
+
+    @Test
+    void testGetAllUsersReturnsNextCursorHeader() {
+        webTestClient.mutateWith(mockUser("admin@mykare.com").roles("ADMIN"))
+                .get().uri("/admin/users?limit=1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().exists(AdminController.NEXT_CURSOR_HEADER)
+                .expectBody().jsonPath("$.length()").isEqualTo(1);
+
+        webTestClient.mutateWith(mockUser("admin@mykare.com").roles("ADMIN"))
+                .get().uri("/admin/users?after={cursor}", "%%%")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void testAdminEndpointsRequireAdminRole() {
+        webTestClient.mutateWith(mockUser("user@mykare.com").roles("USER"))
+                .get().uri("/admin/users")
+                .exchange()
+                .expectStatus().isForbidden();
+
+        webTestClient.get().uri("/admin/users")
+                .exchange()
+                .expectStatus().isUnauthorized();
+    }
+
+    @Test
+    void testAccessTokenAuthenticatesAdminRequests() {
+        LoginRequest loginRequest = new LoginRequest();
+        loginRequest.setEmail("admin@mykare.com");
+        loginRequest.setPassword("Admin@123");
+
+        LoginResponse login = webTestClient.post().uri("/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(loginRequest)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(LoginResponse.class)
+                .returnResult().getResponseBody();
+        assertNotNull(login);
+
+        webTestClient.get().uri("/admin/users/stats")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + login.getAccessToken())
+                .exchange()
+                .expectStatus().isOk();
+
+        webTestClient.get().uri("/admin/users/stats")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer not-a-token")
+                .exchange()
+                .expectStatus().isUnauthorized()
+                .expectHeader().valueEquals(HttpHeaders.WWW_AUTHENTICATE, "Bearer error=\"invalid_token\"");
+    }
+
+    @Test
+    void testUnknownUserIsStillHashed() {
+        webTestClient.get().uri("/admin/users/stats")
+                .headers(headers -> headers.setBasicAuth("nobody@mykare.com", "Unknown@123"))
+                .exchange()
+                .expectStatus().isUnauthorized();
+
+        verify(passwordEncoder).matches(eq("Unknown@123"), anyString());
+    }
+
+    @Test
+    void testStatsAreSharedBetweenRequests() {
+        UserStats first = adminService.getStats().block();
+        UserStats second = adminService.getStats().block();
+
+        assertNotNull(first);
+        assertSame(first, second);
+    }
+
+    @Test
+    void testExportUsersStreamsNdjson() {
+        List<String> lines = webTestClient.mutateWith(mockUser("admin@mykare.com").roles("ADMIN"))
+                .get().uri("/admin/users/export")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith("application/x-ndjson")
+                .returnResult(String.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+
+        assertNotNull(lines);
+        assertEquals(userRepository.count().block(), lines.size());
+        assertTrue(lines.get(0).startsWith("{") && lines.get(0).contains("\"email\""));
+    }
+
+    @Test
+    void testImportUsersFromCsv() {
+        String csv = "name,email,password,gender\r\n"
+                + "Reactive Bulk One,reactive.bulk1@example.com,Password@123,Male\r\n"
+                + "Reactive Bulk Two,reactive.bulk2@example.com,Password@123,Female\r\n"
+                + "Reactive Paging,Reactive.Paging@mykare.com,Password@123,Male\r\n"
+                + "No Password,reactive.bulk3@example.com,,Male\r\n";
+
+        webTestClient.mutateWith(mockUser("admin@mykare.com").roles("ADMIN"))
+                .post().uri("/admin/users/import")
+                .contentType(MediaType.parseMediaType("text/csv"))
+                .bodyValue(csv)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.received").isEqualTo(4)
+                .jsonPath("$.imported").isEqualTo(2)
+                .jsonPath("$.failed").isEqualTo(2)
+                .jsonPath("$.errors[0].line").isEqualTo(5)
+                .jsonPath("$.errors[1].line").isEqualTo(4)
+                .jsonPath("$.errors[1].message").isEqualTo("Email already registered");
+
+        User imported = userRepository.findByEmail("reactive.bulk2@example.com").block();
+        assertNotNull(imported);
+        assertEquals(Role.USER, imported.getRole());
+        assertEquals(EnrichmentStatus.COMPLETED, imported.getEnrichmentStatus());
+        assertTrue(passwordEncoder.matches("Password@123", imported.getPassword()));
+        assertNotEquals(imported.getId(), userRepository.findByEmail("reactive.bulk1@example.com").block().getId());
+    }
+
+    @Test
+    void testImportUsersFromGzipNdjson() throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(body)) {
+            gzip.write(("{\"name\":\"Reactive Gzip\",\"email\":\"reactive.gzip@example.com\","
+                    + "\"password\":\"Password@123\",\"gender\":\"Female\"}\n").getBytes(StandardCharsets.UTF_8));
+        }
+
+        webTestClient.mutateWith(mockUser("admin@mykare.com").roles("ADMIN"))
+                .post().uri("/admin/users/import")
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .bodyValue(body.toByteArray())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.imported").isEqualTo(1)
+                .jsonPath("$.failed").isEqualTo(0);
+        assertEquals(Boolean.TRUE, userRepository.existsByEmail("reactive.gzip@example.com").block());
+    }
+
+    @Test
+    void testImportRejectsCsvWithoutHeader() {
+        webTestClient.mutateWith(mockUser("admin@mykare.com").roles("ADMIN"))
+                .post().uri("/admin/users/import")
+                .contentType(MediaType.parseMediaType("text/csv"))
+                .bodyValue("Someone,someone@example.com,Password@123,Male\r\n")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void testCannotDeleteOwnAccount() {
+        webTestClient.mutateWith(mockUser("admin@mykare.com").roles("ADMIN"))
+                .delete().uri("/admin/users/{email}", "admin@mykare.com")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+}
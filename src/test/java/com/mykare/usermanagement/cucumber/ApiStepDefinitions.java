@@ -3,13 +3,16 @@ package com.mykare.usermanagement.cucumber;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mykare.usermanagement.dto.UserResponse;
+import com.mykare.usermanagement.repository.ReactiveUserRepository;
 import com.mykare.usermanagement.repository.UserRepository;
 import io.cucumber.java.en.Given;
 import io.cucumber.java.en.Then;
 import io.cucumber.java.en.When;
 import io.cucumber.java.Before;
+import io.cucumber.spring.CucumberContextConfiguration;
 import com.mykare.usermanagement.model.Role;
 import com.mykare.usermanagement.model.User;
+import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.HttpHeaders;
@@ -23,14 +26,26 @@ import java.util.List;
 import java.util.HashMap;
 import java.util.Map;
 
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+
+/**
+ * Step definitions for the features, and the Spring context they run in. Keeping both in one class
+ * lets Spring's test context inject it in AOT mode too, where only the test instance is autowired.
+ * With {@code spring.profiles.active=reactive} the same features run against the reactive stack,
+ * and users are seeded through its R2DBC repository instead of the JPA one.
+ */
+@CucumberContextConfiguration
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 public class ApiStepDefinitions {
 
     @Autowired
     private WebTestClient webTestClient;
-    @Autowired
+    @Autowired(required = false)
     private UserRepository userRepository;
+    @Autowired(required = false)
+    private ReactiveUserRepository reactiveUserRepository;
 
     @Autowired
     private PasswordEncoder passwordEncoder;
@@ -40,9 +55,33 @@ public class ApiStepDefinitions {
     private String username;
     private String password;
 
+    /**
+     * Spring's test AOT processing only generates contexts for classes a JUnit engine reports, and
+     * the Cucumber engine reports features rather than classes. This Jupiter test makes the class
+     * visible to it, and checks that the context configuration class received its dependencies.
+     */
+    @Test
+    void contextLoads() {
+        assertNotNull(webTestClient);
+        assertNotNull(passwordEncoder);
+        assertTrue(userRepository != null || reactiveUserRepository != null);
+    }
+
     @Before
     public void setup() {
-        userRepository.deleteAll();
+        if (userRepository != null) {
+            userRepository.deleteAll();
+        } else {
+            reactiveUserRepository.deleteAll().block();
+        }
+    }
+
+    private void save(User user) {
+        if (userRepository != null) {
+            userRepository.save(user);
+        } else {
+            reactiveUserRepository.insert(user).block();
+        }
     }
 
     @Given("I have a new user with name {string} and email {string} and password {string} and gender {string}")
@@ -100,7 +139,7 @@ public class ApiStepDefinitions {
         user.setName("Regular User");
         user.setGender("UNKNOWN");
         user.setRole(Role.valueOf(role.toUpperCase()));
-        userRepository.save(user);
+        save(user);
     }
 
     @When("I send a GET request to {string} with basic authentication")
@@ -171,6 +210,6 @@ public class ApiStepDefinitions {
         user.setEmail(email);
         user.setPassword(passwordEncoder.encode(password));
         user.setRole(Role.valueOf(role.toUpperCase()));
-        userRepository.save(user);
+        save(user);
     }
 }
\ No newline at end of file
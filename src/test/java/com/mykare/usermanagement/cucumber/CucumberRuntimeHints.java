@@ -0,0 +1,26 @@
+package com.mykare.usermanagement.cucumber;
+
+import io.cucumber.core.plugin.JsonFormatter;
+import io.cucumber.core.plugin.PrettyFormatter;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.test.context.aot.TestRuntimeHintsRegistrar;
+
+/**
+ * Hints for running the Cucumber features in a native test image. Cucumber loads the feature
+ * files and scans for glue classes as classpath resources, then instantiates the glue and the
+ * configured plugins and invokes the step definitions reflectively.
+ */
+class CucumberRuntimeHints implements TestRuntimeHintsRegistrar {
+
+    @Override
+    public void registerHints(RuntimeHints hints, Class<?> testClass, ClassLoader classLoader) {
+        hints.resources().registerPattern("features/*.feature");
+        hints.resources().registerPattern("com/mykare/usermanagement/cucumber/*.class");
+        hints.reflection().registerType(ApiStepDefinitions.class, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                MemberCategory.INVOKE_DECLARED_METHODS, MemberCategory.DECLARED_FIELDS);
+        for (Class<?> plugin : new Class<?>[]{PrettyFormatter.class, JsonFormatter.class}) {
+            hints.reflection().registerType(plugin, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+        }
+    }
+}
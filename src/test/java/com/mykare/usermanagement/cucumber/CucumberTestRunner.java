@@ -1,16 +1,22 @@
 package com.mykare.usermanagement.cucumber;
 
-import io.cucumber.junit.Cucumber;
-import io.cucumber.junit.CucumberOptions;
-import org.junit.runner.RunWith;
+import org.junit.platform.suite.api.ConfigurationParameter;
+import org.junit.platform.suite.api.IncludeEngines;
+import org.junit.platform.suite.api.SelectClasspathResource;
+import org.junit.platform.suite.api.Suite;
 
+import static io.cucumber.junit.platform.engine.Constants.GLUE_PROPERTY_NAME;
+import static io.cucumber.junit.platform.engine.Constants.PLUGIN_PROPERTY_NAME;
 
-@RunWith(Cucumber.class)
-@CucumberOptions(
-        features = "src/test/resources/features",
-        glue = "com.mykare.usermanagement.cucumber",
-        plugin = {"pretty", "json:target/cucumber-report.json"},
-        publish = true
-)
+/**
+ * Runs the features on the JUnit Platform. Reports are only written locally; publishing them to
+ * reports.cucumber.io uploads every run to a public service, so it is opt-in with
+ * {@code -Dcucumber.publish.enabled=true}.
+ */
+@Suite
+@IncludeEngines("cucumber")
+@SelectClasspathResource("features")
+@ConfigurationParameter(key = GLUE_PROPERTY_NAME, value = "com.mykare.usermanagement.cucumber")
+@ConfigurationParameter(key = PLUGIN_PROPERTY_NAME, value = "pretty, json:target/cucumber-report.json")
 public class CucumberTestRunner {
 }
@@ -0,0 +1,148 @@
+package com.mykare.usermanagement.repository;
+
+import com.mykare.usermanagement.model.Role;
+import com.mykare.usermanagement.model.User;
+import com.mykare.usermanagement.service.AdminService;
+import com.mykare.usermanagement.service.CapturingStatementInspector;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.mykare.usermanagement.service.CapturingStatementInspector")
+class UserRepositoryCacheTest {
+
+    /** Statements that address one user by email: natural-id loads and the single-user writes. */
+    private static final Pattern BY_EMAIL = Pattern.compile("email_normalized\\s*=\\s*\\?");
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AdminService adminService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void clearCache() {
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void testEmailLookupIsServedFromNaturalIdCache() {
+        User saved = saveUser("cached-entity@example.com");
+        double hits = naturalIdHits();
+
+        assertEquals(saved.getId(), userRepository.findByEmail("Cached-Entity@example.com").orElseThrow().getId());
+        assertTrue(entityManagerFactory.getCache().contains(User.class, saved.getId()));
+        userRepository.findByEmail("cached-entity@example.com").orElseThrow();
+
+        assertTrue(naturalIdHits() > hits);
+    }
+
+    @Test
+    void testRoleUpdateEvictsCachedUser() {
+        User saved = saveUser("cached-role@example.com");
+        assertEquals(Role.USER, userRepository.findByEmail("cached-role@example.com").orElseThrow().getRole());
+        assertTrue(entityManagerFactory.getCache().contains(User.class, saved.getId()));
+
+        adminService.updateUserRole("cached-role@example.com", Role.ADMIN);
+
+        assertFalse(entityManagerFactory.getCache().contains(User.class, saved.getId()));
+        assertEquals(Role.ADMIN, userRepository.findByEmail("cached-role@example.com").orElseThrow().getRole());
+        assertEquals(Role.ADMIN, userRepository.findById(saved.getId()).orElseThrow().getRole());
+    }
+
+    @Test
+    void testDeleteEvictsCachedUser() {
+        User saved = saveUser("cached-delete@example.com");
+        userRepository.findByEmail("cached-delete@example.com").orElseThrow();
+        userRepository.findById(saved.getId()).orElseThrow();
+
+        adminService.deleteUserByEmail("cached-delete@example.com");
+
+        assertFalse(entityManagerFactory.getCache().contains(User.class, saved.getId()));
+        assertTrue(userRepository.findByEmail("cached-delete@example.com").isEmpty());
+        assertTrue(userRepository.findById(saved.getId()).isEmpty());
+    }
+
+    @Test
+    void testSingleUserWritesKeepOtherUsersCached() {
+        User bystander = saveUser("cached-bystander@example.com");
+        saveUser("cached-target@example.com");
+        userRepository.findByEmail("cached-bystander@example.com").orElseThrow();
+        userRepository.findByEmail("cached-target@example.com").orElseThrow();
+
+        adminService.updateUserRole("cached-target@example.com", Role.ADMIN);
+        assertTrue(userRepository.updatePassword("cached-target@example.com", "{noop}rehashed"));
+        adminService.deleteUserByEmail("cached-target@example.com");
+
+        assertTrue(entityManagerFactory.getCache().contains(User.class, bystander.getId()));
+        double naturalIdHits = naturalIdHits();
+        double entityHits = entityHits();
+        assertEquals(bystander.getId(), userRepository.findByEmail("cached-bystander@example.com").orElseThrow().getId());
+        assertTrue(naturalIdHits() > naturalIdHits);
+        assertTrue(entityHits() > entityHits);
+    }
+
+    @Test
+    void testSingleUserWritesAreOneStatementWithAColdCache() {
+        User saved = saveUser("cached-cold@example.com");
+        entityManagerFactory.getCache().evictAll();
+        CapturingStatementInspector.clear();
+
+        adminService.updateUserRole("cached-cold@example.com", Role.ADMIN, saved.getVersion());
+        adminService.deleteUserByEmail("cached-cold@example.com", saved.getVersion() + 1);
+
+        List<String> statements = CapturingStatementInspector.matching(BY_EMAIL);
+        assertEquals(2, statements.size(), statements::toString);
+        assertTrue(statements.get(0).startsWith("select") && statements.get(0).contains("update users"), statements.get(0));
+        assertTrue(statements.get(1).startsWith("select") && statements.get(1).contains("delete from users"), statements.get(1));
+        assertTrue(userRepository.findById(saved.getId()).isEmpty());
+    }
+
+    @Test
+    void testPasswordUpgradeRefreshesCachedUser() {
+        User saved = saveUser("cached-password@example.com");
+        userRepository.findByEmail("cached-password@example.com").orElseThrow();
+
+        assertTrue(userRepository.updatePassword("cached-password@example.com", "{noop}rehashed"));
+
+        User reloaded = userRepository.findById(saved.getId()).orElseThrow();
+        assertEquals("{noop}rehashed", reloaded.getPassword());
+        assertEquals(saved.getVersion() + 1, reloaded.getVersion());
+        assertFalse(userRepository.updatePassword("missing-password@example.com", "{noop}rehashed"));
+    }
+
+    private User saveUser(String email) {
+        return userRepository.save(User.builder()
+                .name("Cached User")
+                .email(email)
+                .gender("Female")
+                .password("{noop}password")
+                .role(Role.USER)
+                .build());
+    }
+
+    private double entityHits() {
+        return meterRegistry.get("cache.gets").tag("cache", User.CACHE_REGION).tag("result", "hit")
+                .functionCounter().count();
+    }
+
+    private double naturalIdHits() {
+        return meterRegistry.get("cache.gets").tag("cache", User.NATURAL_ID_CACHE_REGION).tag("result", "hit")
+                .functionCounter().count();
+    }
+}
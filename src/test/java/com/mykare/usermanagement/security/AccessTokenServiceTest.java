@@ -0,0 +1,82 @@
+package com.mykare.usermanagement.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccessTokenServiceTest {
+
+    private static final String OLD_KEY = "old:" + "b2xkLXNpZ25pbmcta2V5LWZvci10ZXN0cy0xMjM0NTY3ODkw";
+    private static final String NEW_KEY = "new:" + "bmV3LXNpZ25pbmcta2V5LWZvci10ZXN0cy0xMjM0NTY3ODkw";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Clock clock = Clock.fixed(Instant.parse("2025-01-01T00:00:00Z"), ZoneOffset.UTC);
+
+    @Test
+    void testIssuedTokenVerifies() {
+        AccessTokenService service = service(NEW_KEY, "new", clock);
+
+        AccessTokenService.IssuedToken issued = service.issue("admin@mykare.com", "ADMIN");
+        var claims = service.verify(issued.token()).orElseThrow();
+
+        assertEquals("admin@mykare.com", claims.email());
+        assertEquals("ADMIN", claims.role());
+        assertEquals(Instant.parse("2025-01-01T00:15:00Z"), claims.expiresAt());
+    }
+
+    @Test
+    void testTamperedTokenIsRejected() {
+        AccessTokenService service = service(NEW_KEY, "new", clock);
+        String token = service.issue("user@mykare.com", "USER").token();
+
+        String[] parts = token.split("\\.");
+        String forgedPayload = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("{\"sub\":\"user@mykare.com\",\"role\":\"ADMIN\",\"exp\":9999999999}".getBytes());
+
+        assertTrue(service.verify(parts[0] + "." + forgedPayload + "." + parts[2]).isEmpty());
+        assertTrue(service.verify("not-a-token").isEmpty());
+        assertTrue(service.verify("a.b.c").isEmpty());
+    }
+
+    @Test
+    void testExpiredTokenIsRejected() {
+        String token = service(NEW_KEY, "new", clock).issue("user@mykare.com", "USER").token();
+        Clock later = Clock.offset(clock, Duration.ofMinutes(16));
+
+        assertTrue(service(NEW_KEY, "new", later).verify(token).isEmpty());
+    }
+
+    @Test
+    void testTokensSignedWithRotatedKeyStayValid() {
+        String oldToken = service(OLD_KEY, "old", clock).issue("user@mykare.com", "USER").token();
+        AccessTokenService rotated = service(OLD_KEY + "," + NEW_KEY, "new", clock);
+
+        assertTrue(rotated.verify(oldToken).isPresent());
+        assertTrue(service(NEW_KEY, "new", clock).verify(oldToken).isEmpty());
+    }
+
+    @Test
+    void testShortOrMissingKeysAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> service("short:c2hvcnQ=", "short", clock));
+        assertThrows(IllegalArgumentException.class, () -> service(NEW_KEY, "missing", clock));
+        assertThrows(IllegalArgumentException.class, () -> service("", "", clock));
+    }
+
+    @Test
+    void testActiveKeyDefaultsToFirstConfiguredKey() {
+        String token = service(NEW_KEY + "," + OLD_KEY, "", clock).issue("user@mykare.com", "USER").token();
+
+        assertTrue(service(NEW_KEY, "new", clock).verify(token).isPresent());
+    }
+
+    private AccessTokenService service(String keys, String activeKeyId, Clock clock) {
+        return new AccessTokenService(objectMapper, keys, activeKeyId, Duration.ofMinutes(15), clock);
+    }
+}
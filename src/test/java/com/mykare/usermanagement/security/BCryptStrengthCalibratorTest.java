@@ -0,0 +1,24 @@
+package com.mykare.usermanagement.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BCryptStrengthCalibratorTest {
+
+    @Test
+    void testPicksHighestStrengthWithinTarget() {
+        // 10 ms at cost 10 doubles to 20, 40, 80, 160 ms
+        int strength = BCryptStrengthCalibrator.calibrate(Duration.ofMillis(100), 10, 16, cost -> 10_000_000L);
+
+        assertEquals(13, strength);
+    }
+
+    @Test
+    void testStaysWithinBounds() {
+        assertEquals(10, BCryptStrengthCalibrator.calibrate(Duration.ofMillis(100), 10, 16, cost -> 500_000_000L));
+        assertEquals(12, BCryptStrengthCalibrator.calibrate(Duration.ofSeconds(10), 10, 12, cost -> 1_000_000L));
+    }
+}
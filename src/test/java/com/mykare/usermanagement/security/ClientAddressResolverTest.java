@@ -0,0 +1,58 @@
+package com.mykare.usermanagement.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClientAddressResolverTest {
+
+    private final ClientAddressResolver resolver = new ClientAddressResolver("10.0.0.0/8, 127.0.0.1");
+
+    @Test
+    void testUntrustedPeerHeadersAreIgnored() {
+        MockHttpServletRequest request = request("203.0.113.7");
+        request.addHeader("X-Forwarded-For", "198.51.100.1");
+
+        assertEquals("203.0.113.7", resolver.resolve(request));
+    }
+
+    @Test
+    void testXForwardedForSkipsTrustedProxies() {
+        MockHttpServletRequest request = request("10.0.0.2");
+        request.addHeader("X-Forwarded-For", "198.51.100.99, 198.51.100.1, 10.0.0.5");
+
+        assertEquals("198.51.100.1", resolver.resolve(request));
+    }
+
+    @Test
+    void testForwardedHeaderTakesPrecedence() {
+        MockHttpServletRequest request = request("127.0.0.1");
+        request.addHeader("Forwarded", "for=\"[2001:db8::17]:4711\";proto=https, for=10.1.2.3");
+        request.addHeader("X-Forwarded-For", "198.51.100.1");
+
+        assertEquals("2001:db8::17", resolver.resolve(request));
+    }
+
+    @Test
+    void testObfuscatedIdentifierStopsTheChain() {
+        MockHttpServletRequest request = request("10.0.0.2");
+        request.addHeader("Forwarded", "for=_hidden, for=10.0.0.9");
+
+        assertEquals("10.0.0.9", resolver.resolve(request));
+    }
+
+    @Test
+    void testNoTrustedProxiesConfigured() {
+        MockHttpServletRequest request = request("10.0.0.2");
+        request.addHeader("X-Forwarded-For", "198.51.100.1");
+
+        assertEquals("10.0.0.2", new ClientAddressResolver("").resolve(request));
+    }
+
+    private MockHttpServletRequest request(String remoteAddress) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/auth/register");
+        request.setRemoteAddr(remoteAddress);
+        return request;
+    }
+}
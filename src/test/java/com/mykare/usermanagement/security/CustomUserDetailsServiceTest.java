@@ -0,0 +1,151 @@
+package com.mykare.usermanagement.security;
+
+import com.mykare.usermanagement.dto.LoginRequest;
+import com.mykare.usermanagement.model.Role;
+import com.mykare.usermanagement.model.User;
+import com.mykare.usermanagement.repository.UserRepository;
+import com.mykare.usermanagement.service.AdminService;
+import com.mykare.usermanagement.service.AuthService;
+import com.mykare.usermanagement.service.EmailMembershipFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.CredentialsContainer;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+class CustomUserDetailsServiceTest {
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private AdminService adminService;
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void testCachedUserSurvivesCredentialErasure() {
+        saveUser("cached@example.com", Role.USER);
+
+        UserDetails first = userDetailsService.loadUserByUsername("cached@example.com");
+        ((CredentialsContainer) first).eraseCredentials();
+        UserDetails second = userDetailsService.loadUserByUsername("cached@example.com");
+
+        assertNotNull(second.getPassword());
+        assertTrue(meterRegistry.get("cache.gets").tag("cache", "security.user.details").tag("result", "hit")
+                .functionCounter().count() >= 1);
+    }
+
+    @Test
+    void testRoleChangeAndDeletionEvictCachedUser() {
+        saveUser("evict@example.com", Role.USER);
+        assertTrue(hasRole(userDetailsService.loadUserByUsername("evict@example.com"), "ROLE_USER"));
+
+        adminService.updateUserRole("evict@example.com", Role.ADMIN);
+        assertTrue(hasRole(userDetailsService.loadUserByUsername("evict@example.com"), "ROLE_ADMIN"));
+
+        adminService.deleteUserByEmail("evict@example.com");
+        assertThrows(UsernameNotFoundException.class,
+                () -> userDetailsService.loadUserByUsername("evict@example.com"));
+    }
+
+    @Test
+    void testFailedLoadDoesNotBlockLaterLogins() {
+        UserRepository failingRepository = mock(UserRepository.class);
+        EmailMembershipFilter filter = mock(EmailMembershipFilter.class);
+        when(filter.mightContain(anyString())).thenReturn(true);
+        when(failingRepository.findByEmail("flaky@example.com"))
+                .thenThrow(new StackOverflowError())
+                .thenReturn(Optional.of(User.builder()
+                        .email("flaky@example.com")
+                        .password("{noop}Password@123")
+                        .role(Role.USER)
+                        .build()));
+        CustomUserDetailsService service = new CustomUserDetailsService(failingRepository, Runnable::run, filter,
+                new SimpleMeterRegistry(), 10, Duration.ofMinutes(1));
+
+        assertThrows(StackOverflowError.class, () -> service.loadUserByUsername("flaky@example.com"));
+        UserDetails user = assertTimeoutPreemptively(Duration.ofSeconds(5),
+                () -> service.loadUserByUsername("flaky@example.com"));
+        assertEquals("flaky@example.com", user.getUsername());
+    }
+
+    @Test
+    void testUnknownUserIsRejectedByFilterButStillHashed() {
+        double absent = meterRegistry.get("users.email.filter.checks").tag("result", "absent").counter().count();
+        long hashes = meterRegistry.find("security.hashing.duration").tag("operation", "matches").timers().stream()
+                .mapToLong(timer -> timer.count()).sum();
+
+        assertThrows(RuntimeException.class, () -> authService.login(LoginRequest.builder()
+                .email("nobody@example.com")
+                .password("Password@123")
+                .build()));
+
+        assertEquals(absent + 1, meterRegistry.get("users.email.filter.checks").tag("result", "absent").counter().count());
+        assertEquals(hashes + 1, meterRegistry.get("security.hashing.duration").tag("operation", "matches").timer().count());
+    }
+
+    @Test
+    void testLegacyHashIsUpgradedAfterLogin() throws InterruptedException {
+        String legacyHash = new BCryptPasswordEncoder(4).encode("Password@123");
+        userRepository.save(User.builder()
+                .name("Legacy User")
+                .email("legacy@example.com")
+                .gender("Male")
+                .password(legacyHash)
+                .role(Role.USER)
+                .build());
+
+        authService.login(LoginRequest.builder()
+                .email("legacy@example.com")
+                .password("Password@123")
+                .build());
+
+        String upgraded = legacyHash;
+        for (int i = 0; i < 50 && upgraded.equals(legacyHash); i++) {
+            Thread.sleep(100);
+            upgraded = userRepository.findByEmail("legacy@example.com").orElseThrow().getPassword();
+        }
+        assertTrue(upgraded.startsWith("{bcrypt}$2a$"), upgraded);
+        assertFalse(upgraded.startsWith("{bcrypt}$2a$04$"), upgraded);
+
+        authService.login(LoginRequest.builder()
+                .email("legacy@example.com")
+                .password("Password@123")
+                .build());
+    }
+
+    private void saveUser(String email, Role role) {
+        userRepository.save(User.builder()
+                .name("Cached User")
+                .email(email)
+                .gender("Female")
+                .password(new BCryptPasswordEncoder(4).encode("Password@123"))
+                .role(role)
+                .build());
+    }
+
+    private static boolean hasRole(UserDetails user, String role) {
+        return user.getAuthorities().stream().anyMatch(authority -> authority.getAuthority().equals(role));
+    }
+}
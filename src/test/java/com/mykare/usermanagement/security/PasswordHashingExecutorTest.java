@@ -0,0 +1,85 @@
+package com.mykare.usermanagement.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHashingExecutorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void testRunsTaskAndRecordsTimers() {
+        PasswordHashingExecutor executor = new PasswordHashingExecutor(meterRegistry, 1, 1, 1);
+
+        assertEquals("hash", executor.execute("encode", () -> "hash"));
+
+        assertEquals(1, meterRegistry.get("security.hashing.duration").tag("operation", "encode").timer().count());
+        assertEquals(1, meterRegistry.get("security.hashing.queue.wait").tag("operation", "encode").timer().count());
+        executor.shutdown();
+    }
+
+    @Test
+    void testExecuteAllReturnsResultsInOrder() {
+        PasswordHashingExecutor executor = new PasswordHashingExecutor(meterRegistry, 2, 1, 1);
+        List<Supplier<Integer>> tasks = IntStream.range(0, 20)
+                .<Supplier<Integer>>mapToObj(i -> () -> i * i)
+                .toList();
+
+        assertEquals(IntStream.range(0, 20).map(i -> i * i).boxed().toList(), executor.executeAll("import", tasks));
+        assertEquals(20, meterRegistry.get("security.hashing.duration").tag("operation", "import").timer().count());
+        executor.shutdown();
+    }
+
+    @Test
+    void testRejectsWhenQueueIsFull() throws InterruptedException {
+        PasswordHashingExecutor executor = new PasswordHashingExecutor(meterRegistry, 1, 1, 3);
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Thread busy = Thread.ofPlatform().start(() -> executor.execute("encode", () -> {
+            running.countDown();
+            await(release);
+            return "busy";
+        }));
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        Thread queued = Thread.ofPlatform().start(() -> executor.execute("encode", () -> "queued"));
+        while (meterRegistry.get("security.hashing.queue.size").gauge().value() < 1) {
+            Thread.onSpinWait();
+        }
+
+        HashingCapacityExceededException e = assertThrows(HashingCapacityExceededException.class,
+                () -> executor.execute("matches", () -> true));
+        assertEquals(3, e.getRetryAfterSeconds());
+        assertEquals(1, meterRegistry.get("security.hashing.rejected").counter().count());
+
+        release.countDown();
+        busy.join();
+        queued.join();
+        executor.shutdown();
+    }
+
+    @Test
+    void testPropagatesTaskFailures() {
+        PasswordHashingExecutor executor = new PasswordHashingExecutor(meterRegistry, 1, 1, 1);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> executor.execute("encode", () -> { throw new IllegalArgumentException("bad hash"); }));
+        executor.shutdown();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
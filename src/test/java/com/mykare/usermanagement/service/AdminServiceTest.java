@@ -1,19 +1,33 @@
 package com.mykare.usermanagement.service;
 
+import com.mykare.usermanagement.dto.BulkOperationResult;
+import com.mykare.usermanagement.dto.BulkUserFilter;
+import com.mykare.usermanagement.dto.UserPage;
+import com.mykare.usermanagement.dto.UserResponse;
+import com.mykare.usermanagement.event.UserDeletedEvent;
+import com.mykare.usermanagement.event.UserRoleChangedEvent;
 import com.mykare.usermanagement.model.Role;
 import com.mykare.usermanagement.model.User;
 import com.mykare.usermanagement.repository.UserRepository;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest
 @Transactional
+@RecordApplicationEvents
 class AdminServiceTest {
 
     @Autowired
@@ -22,6 +36,11 @@ class AdminServiceTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ApplicationEvents events;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
 
     @Test
     void testGetAllUsers() {
@@ -33,10 +52,58 @@ class AdminServiceTest {
                 .build();
         userRepository.save(user);
 
-        List<?> users = adminService.getAllUsers();
+        List<?> users = adminService.getUsers(null, null, "id", "asc").getUsers();
         assertFalse(users.isEmpty());
     }
 
+    @Test
+    void testGetUsersPagesThroughAllUsersByEmail() {
+        for (int i = 0; i < 5; i++) {
+            userRepository.save(User.builder()
+                    .name("Page User " + i)
+                    .email("page" + i + "@example.com")
+                    .gender("Male")
+                    .role(Role.USER)
+                    .build());
+        }
+
+        List<String> emails = new ArrayList<>();
+        String cursor = null;
+        do {
+            UserPage page = adminService.getUsers(cursor, 2, "email", "desc");
+            assertTrue(page.getUsers().size() <= 2);
+            page.getUsers().forEach(user -> emails.add(user.getEmail()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(userRepository.count(), emails.size());
+        List<String> expected = new ArrayList<>(emails);
+        expected.sort(Comparator.reverseOrder());
+        assertEquals(expected, emails);
+        assertTrue(emails.containsAll(List.of("page0@example.com", "page4@example.com")));
+    }
+
+    @Test
+    void testEmailPagesSeekTheEmailIndex() {
+        String plan = jdbcTemplate.queryForObject(
+                "EXPLAIN select id from users where email > ? order by email asc fetch first 2 rows only",
+                String.class, "page@example.com");
+
+        assertTrue(plan.toLowerCase().contains("idx_users_email"), plan);
+    }
+
+    @Test
+    void testGetUsersRejectsCursorForAnotherSort() {
+        userRepository.save(User.builder().name("A").email("a@example.com").gender("Male").role(Role.USER).build());
+        userRepository.save(User.builder().name("B").email("b@example.com").gender("Male").role(Role.USER).build());
+
+        String cursor = adminService.getUsers(null, 1, "id", "asc").getNextCursor();
+
+        assertNotNull(cursor);
+        assertThrows(IllegalArgumentException.class, () -> adminService.getUsers(cursor, 1, "email", "asc"));
+        assertThrows(IllegalArgumentException.class, () -> adminService.getUsers("not-a-cursor", 1, "id", "asc"));
+    }
+
     @Test
     void testDeleteUserByEmail() {
         User user = User.builder()
@@ -93,4 +160,71 @@ class AdminServiceTest {
 
         assertEquals(Role.ADMIN, userRepository.findByEmail("admin@gmail.com").get().getRole());
     }
+
+    @Test
+    void testUpdateUserRoleRejectsStaleVersion() {
+        userRepository.save(User.builder().name("V").email("versioned@example.com").gender("Male").role(Role.USER).build());
+        Long version = adminService.getUserByEmail("versioned@example.com").getVersion();
+
+        adminService.updateUserRole("versioned@example.com", Role.ADMIN, version);
+        UserResponse updated = adminService.getUserByEmail("versioned@example.com");
+        assertEquals(Role.ADMIN, updated.getRole());
+        assertEquals(version + 1, updated.getVersion());
+
+        assertThrows(OptimisticLockingFailureException.class,
+                () -> adminService.updateUserRole("versioned@example.com", Role.USER, version));
+        assertThrows(OptimisticLockingFailureException.class,
+                () -> adminService.deleteUserByEmail("versioned@example.com", version));
+        assertThrows(UsernameNotFoundException.class,
+                () -> adminService.deleteUserByEmail("missing@example.com", version));
+
+        adminService.deleteUserByEmail("versioned@example.com", updated.getVersion());
+        assertFalse(userRepository.existsByEmail("versioned@example.com"));
+    }
+
+    @Test
+    void testSingleUserMutationsPublishCompleteEvents() {
+        User saved = userRepository.save(User.builder()
+                .name("Evented").email("evented@example.com").gender("Female").country("IN").role(Role.USER).build());
+
+        adminService.updateUserRole("Evented@example.com", Role.ADMIN);
+        adminService.deleteUserByEmail("evented@example.com");
+
+        assertEquals(List.of(new UserRoleChangedEvent(saved.getId(), "evented@example.com", Role.USER, Role.ADMIN, "IN", "Female")),
+                events.stream(UserRoleChangedEvent.class).toList());
+        assertEquals(List.of(new UserDeletedEvent(saved.getId(), "evented@example.com", Role.ADMIN, "IN", "Female")),
+                events.stream(UserDeletedEvent.class).toList());
+    }
+
+    @Test
+    void testBulkUpdateRoleByCountrySkipsExcludedEmail() {
+        for (String email : List.of("in1@example.com", "in2@example.com", "in3@example.com", "self@example.com")) {
+            userRepository.save(User.builder().name("IN").email(email).gender("Male").country("IN").role(Role.USER).build());
+        }
+        userRepository.save(User.builder().name("US").email("us1@example.com").gender("Male").country("US").role(Role.USER).build());
+
+        BulkOperationResult result = adminService.bulkUpdateRole(
+                BulkUserFilter.builder().country("IN").build(), Role.ADMIN, "self@example.com");
+
+        assertEquals(3, result.getMatched());
+        assertEquals(3, result.getAffected());
+        assertEquals(Role.ADMIN, adminService.getUserByEmail("in3@example.com").getRole());
+        assertEquals(Role.USER, adminService.getUserByEmail("self@example.com").getRole());
+        assertEquals(Role.USER, adminService.getUserByEmail("us1@example.com").getRole());
+    }
+
+    @Test
+    void testBulkDeleteByEmails() {
+        userRepository.save(User.builder().name("A").email("bulk-a@example.com").gender("Male").role(Role.USER).build());
+        userRepository.save(User.builder().name("B").email("bulk-b@example.com").gender("Male").role(Role.USER).build());
+
+        BulkOperationResult result = adminService.bulkDelete(BulkUserFilter.builder()
+                .emails(List.of("bulk-a@example.com", "bulk-b@example.com", "missing@example.com"))
+                .build(), "admin@mykare.com");
+
+        assertEquals(2, result.getAffected());
+        assertFalse(userRepository.existsByEmail("bulk-a@example.com"));
+        assertThrows(IllegalArgumentException.class,
+                () -> adminService.bulkDelete(BulkUserFilter.builder().build(), "admin@mykare.com"));
+    }
 }
@@ -6,7 +6,7 @@ import com.mykare.usermanagement.repository.UserRepository;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.transaction.annotation.Transactional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -22,7 +22,7 @@ class AuthServiceTest {
     private UserRepository userRepository;
 
     @Autowired
-    private BCryptPasswordEncoder passwordEncoder;
+    private PasswordEncoder passwordEncoder;
 
     @Test
     void testRegisterUser_Success() {
@@ -71,6 +71,30 @@ class AuthServiceTest {
         assertEquals("login@example.com", response.getEmail());
     }
 
+    @Test
+    void testEmailsAreCaseInsensitive() {
+        authService.registerUser(RegisterRequest.builder()
+                .name("Case User")
+                .email("Case.User@Example.com")
+                .gender("Female")
+                .password("secret")
+                .build());
+
+        assertThrows(RuntimeException.class, () -> authService.registerUser(RegisterRequest.builder()
+                .name("Case User")
+                .email("case.user@example.com")
+                .gender("Female")
+                .password("secret")
+                .build()));
+        assertTrue(userRepository.existsByEmail("CASE.USER@EXAMPLE.COM"));
+
+        var response = authService.login(LoginRequest.builder()
+                .email("case.user@EXAMPLE.com")
+                .password("secret")
+                .build());
+        assertEquals("Case.User@Example.com", response.getEmail());
+    }
+
     @Test
     void testLogin_InvalidCredentials() {
         LoginRequest loginRequest = LoginRequest.builder()
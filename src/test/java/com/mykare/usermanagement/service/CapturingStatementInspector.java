@@ -0,0 +1,49 @@
+package com.mykare.usermanagement.service;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Records the SQL Hibernate sends, so tests can run EXPLAIN on the exact statements a query produced.
+ */
+public class CapturingStatementInspector implements StatementInspector {
+
+    private static final List<String> STATEMENTS = new ArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        synchronized (STATEMENTS) {
+            STATEMENTS.add(sql);
+        }
+        return sql;
+    }
+
+    public static void clear() {
+        synchronized (STATEMENTS) {
+            STATEMENTS.clear();
+        }
+    }
+
+    /**
+     * @return Every recorded statement matching {@code pattern}, oldest first.
+     */
+    public static List<String> matching(Pattern pattern) {
+        synchronized (STATEMENTS) {
+            return STATEMENTS.stream()
+                    .filter(sql -> pattern.matcher(sql).find())
+                    .toList();
+        }
+    }
+
+    public static String last(String fragment) {
+        synchronized (STATEMENTS) {
+            return STATEMENTS.reversed().stream()
+                    .filter(sql -> sql.contains(fragment))
+                    .findFirst()
+                    .orElseThrow(() -> new AssertionError("No statement containing " + fragment));
+        }
+    }
+}
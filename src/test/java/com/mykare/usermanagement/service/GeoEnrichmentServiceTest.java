@@ -0,0 +1,105 @@
+package com.mykare.usermanagement.service;
+
+import com.mykare.usermanagement.dto.RegisterRequest;
+import com.mykare.usermanagement.model.EnrichmentStatus;
+import com.mykare.usermanagement.model.User;
+import com.mykare.usermanagement.repository.UserRepository;
+import com.mykare.usermanagement.service.geo.GeoIpResolver;
+import com.mykare.usermanagement.service.geo.GeoIpUnavailableException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(properties = "geo.enrichment.max-attempts=1")
+class GeoEnrichmentServiceTest {
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @MockitoBean
+    private GeoIpResolver geoIpResolver;
+
+    @Test
+    void testRegisteredUserIsEnrichedInBackground() throws InterruptedException {
+        when(geoIpResolver.resolveCountry("8.8.8.8")).thenReturn(Optional.of("United States"));
+
+        authService.registerUser(registerRequest("enriched@example.com"), "8.8.8.8");
+
+        User user = awaitStatus("enriched@example.com", EnrichmentStatus.COMPLETED);
+        assertEquals("8.8.8.8", user.getIpAddress());
+        assertEquals("United States", user.getCountry());
+    }
+
+    @Test
+    void testFailedLookupIsDeadLettered() throws InterruptedException {
+        when(geoIpResolver.resolveCountry("9.9.9.9")).thenThrow(new IllegalStateException("provider down"));
+
+        authService.registerUser(registerRequest("deadletter@example.com"), "9.9.9.9");
+
+        User user = awaitStatus("deadletter@example.com", EnrichmentStatus.FAILED);
+        assertEquals("UNKNOWN", user.getCountry());
+        assertEquals(1, user.getEnrichmentAttempts());
+    }
+
+    @Test
+    void testRejectedLookupLeavesUserPending() throws InterruptedException {
+        when(geoIpResolver.resolveCountry("7.7.7.7"))
+                .thenThrow(new GeoIpUnavailableException("Circuit breaker geoIp is open", null));
+        double deferred = meterRegistry.counter("geo.enrichment.deferred").count();
+
+        authService.registerUser(registerRequest("deferred@example.com"), "7.7.7.7");
+
+        for (int i = 0; i < 50 && meterRegistry.counter("geo.enrichment.deferred").count() == deferred; i++) {
+            Thread.sleep(100);
+        }
+        User user = userRepository.findByEmail("deferred@example.com").orElseThrow();
+        assertEquals(deferred + 1, meterRegistry.counter("geo.enrichment.deferred").count());
+        assertEquals(EnrichmentStatus.PENDING, user.getEnrichmentStatus());
+        assertEquals(0, user.getEnrichmentAttempts());
+    }
+
+    @Test
+    void testUserWithoutAddressIsNotQueued() {
+        authService.registerUser(registerRequest("noaddress@example.com"));
+
+        User user = userRepository.findByEmail("noaddress@example.com").orElseThrow();
+        assertEquals(EnrichmentStatus.COMPLETED, user.getEnrichmentStatus());
+        assertEquals("UNKNOWN", user.getIpAddress());
+        verifyNoInteractions(geoIpResolver);
+    }
+
+    private RegisterRequest registerRequest(String email) {
+        return RegisterRequest.builder()
+                .name("Geo User")
+                .email(email)
+                .gender("Male")
+                .password("Password@123")
+                .build();
+    }
+
+    private User awaitStatus(String email, EnrichmentStatus expected) throws InterruptedException {
+        for (int i = 0; i < 50; i++) {
+            User user = userRepository.findByEmail(email).orElseThrow();
+            if (user.getEnrichmentStatus() == expected) {
+                return user;
+            }
+            Thread.sleep(100);
+        }
+        fail("User " + email + " never reached " + expected);
+        return null;
+    }
+}
@@ -0,0 +1,83 @@
+package com.mykare.usermanagement.service;
+
+import com.mykare.usermanagement.dto.UserImportError;
+import com.mykare.usermanagement.dto.UserImportReport;
+import com.mykare.usermanagement.model.User;
+import com.mykare.usermanagement.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "admin.import.chunk-size=2")
+class UserImportServiceTest {
+
+    @Autowired
+    private UserImportService userImportService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Test
+    void testImportsNdjsonAndReportsRowErrors() throws IOException {
+        String body = """
+                {"name":"Import One","email":"import1@example.com","password":"Password@123","gender":"Male"}
+                {"name":"Import Two","email":"import2@example.com","password":"Password@123","gender":"Female"}
+
+                {"name":"Bad Email","email":"not-an-email","password":"Password@123","gender":"Male"}
+                {"name":"Import One Again","email":"import1@example.com","password":"Password@123","gender":"Male"}
+                {"name":"Broken",
+                {"name":"Import Three","email":"import3@example.com","password":"Password@123","gender":"Male"}
+                """;
+
+        UserImportReport report = userImportService.importUsers(UserDataFormat.NDJSON, stream(body));
+
+        assertEquals(6, report.getReceived());
+        assertEquals(3, report.getImported());
+        assertEquals(3, report.getFailed());
+        assertEquals(List.of(4L, 5L, 6L), report.getErrors().stream().map(UserImportError::getLine).toList());
+        assertEquals("Invalid email", report.getErrors().get(0).getMessage());
+        assertEquals("Email already registered", report.getErrors().get(1).getMessage());
+        assertTrue(report.getErrors().get(2).getMessage().startsWith("Malformed JSON"));
+        assertTrue(report.getRowsPerSecond() > 0);
+
+        User imported = userRepository.findByEmail("import3@example.com").orElseThrow();
+        assertTrue(passwordEncoder.matches("Password@123", imported.getPassword()));
+    }
+
+    @Test
+    void testImportsCsvWithQuotedCells() throws IOException {
+        String body = "email,name,gender,password\r\n"
+                + "csv1@example.com,\"Doe, Jane\",Female,Password@123\r\n"
+                + "csv2@example.com,\"The \"\"Second\"\"\",Male,Password@123\r\n"
+                + "csv3@example.com,Weak Password,Male,password\r\n";
+
+        UserImportReport report = userImportService.importUsers(UserDataFormat.CSV, stream(body));
+
+        assertEquals(2, report.getImported());
+        assertEquals(1, report.getFailed());
+        assertEquals(4, report.getErrors().getFirst().getLine());
+        assertEquals("Doe, Jane", userRepository.findByEmail("csv1@example.com").orElseThrow().getName());
+        assertEquals("The \"Second\"", userRepository.findByEmail("csv2@example.com").orElseThrow().getName());
+    }
+
+    @Test
+    void testRejectsCsvWithoutRequiredHeader() {
+        assertThrows(IllegalArgumentException.class,
+                () -> userImportService.importUsers(UserDataFormat.CSV, stream("email,name\r\na@example.com,A\r\n")));
+    }
+
+    private static ByteArrayInputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,34 @@
+package com.mykare.usermanagement.service;
+
+import com.mykare.usermanagement.dto.UserSearchCriteria;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs EXPLAIN on statements produced by {@link UserSearchService}.
+ */
+public final class UserSearchPlans {
+
+    private UserSearchPlans() {
+    }
+
+    /**
+     * Binds the criteria in the order the service adds its predicates, and any remaining
+     * placeholders (cursor, row limit) to a small number.
+     */
+    public static String explain(JdbcTemplate jdbcTemplate, String sql, UserSearchCriteria criteria) {
+        List<Object> args = new ArrayList<>();
+        if (criteria.getCountry() != null) args.add(criteria.getCountry());
+        if (criteria.getRole() != null) args.add(criteria.getRole().name());
+        if (criteria.getGender() != null) args.add(criteria.getGender());
+        if (criteria.getNamePrefix() != null) args.add(criteria.getNamePrefix() + "%");
+        if (criteria.getEmailPrefix() != null) args.add(criteria.getEmailPrefix() + "%");
+        long placeholders = sql.chars().filter(c -> c == '?').count();
+        while (args.size() < placeholders) {
+            args.add(11);
+        }
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class, args.toArray());
+    }
+}
@@ -0,0 +1,104 @@
+package com.mykare.usermanagement.service;
+
+import com.mykare.usermanagement.dto.UserPage;
+import com.mykare.usermanagement.dto.UserResponse;
+import com.mykare.usermanagement.dto.UserSearchCriteria;
+import com.mykare.usermanagement.model.Role;
+import com.mykare.usermanagement.model.User;
+import com.mykare.usermanagement.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.mykare.usermanagement.service.CapturingStatementInspector")
+@Transactional
+class UserSearchServiceTest {
+
+    @Autowired
+    private UserSearchService userSearchService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() {
+        String[] countries = {"IN", "US", "DE"};
+        String[] genders = {"Male", "Female"};
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            users.add(User.builder()
+                    .name((i % 2 == 0 ? "Search " : "Other ") + i)
+                    .email("Search" + i + "@example.com")
+                    .gender(genders[i % genders.length])
+                    .password("{noop}password")
+                    .ipAddress("UNKNOWN")
+                    .country(countries[i % countries.length])
+                    .role(i % 5 == 0 ? Role.ADMIN : Role.USER)
+                    .build());
+        }
+        userRepository.saveAll(users);
+        userRepository.flush();
+    }
+
+    @Test
+    void testCombinesFiltersAndPages() {
+        UserSearchCriteria criteria = UserSearchCriteria.builder()
+                .country("IN")
+                .role(Role.USER)
+                .gender("Male")
+                .namePrefix("Search")
+                .build();
+
+        List<UserResponse> found = new ArrayList<>();
+        String cursor = null;
+        do {
+            UserPage page = userSearchService.search(criteria, cursor, 3);
+            found.addAll(page.getUsers());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        // i % 6 == 0 and not a multiple of 5, for i below 60
+        assertEquals(List.of(6, 12, 18, 24, 36, 42, 48, 54), found.stream()
+                .map(user -> Integer.parseInt(user.getName().substring("Search ".length())))
+                .toList());
+        assertTrue(found.stream().allMatch(user -> user.getCountry().equals("IN") && user.getRole() == Role.USER));
+    }
+
+    @Test
+    void testEmailPrefixIsCaseInsensitiveAndEscaped() {
+        assertEquals(11, userSearchService.search(UserSearchCriteria.builder().emailPrefix("SEARCH1").build(), null, 50)
+                .getUsers().size());
+        assertTrue(userSearchService.search(UserSearchCriteria.builder().emailPrefix("search_").build(), null, 50)
+                .getUsers().isEmpty());
+    }
+
+    @Test
+    void testEveryFilterCombinationUsesAnIndex() {
+        for (int mask = 1; mask < 1 << 5; mask++) {
+            UserSearchCriteria criteria = UserSearchCriteria.builder()
+                    .country((mask & 1) != 0 ? "IN" : null)
+                    .role((mask & 2) != 0 ? Role.USER : null)
+                    .gender((mask & 4) != 0 ? "Male" : null)
+                    .namePrefix((mask & 8) != 0 ? "Search 1" : null)
+                    .emailPrefix((mask & 16) != 0 ? "search1" : null)
+                    .build();
+            CapturingStatementInspector.clear();
+            userSearchService.search(criteria, null, 10);
+
+            String plan = UserSearchPlans.explain(jdbcTemplate, CapturingStatementInspector.last("from users"), criteria);
+            assertFalse(plan.contains("tableScan"), "Full scan for filter combination " + mask + ":\n" + plan);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.mykare.usermanagement.service;
+
+import com.mykare.usermanagement.dto.BulkUserFilter;
+import com.mykare.usermanagement.dto.RegisterRequest;
+import com.mykare.usermanagement.dto.UserStats;
+import com.mykare.usermanagement.model.Role;
+import com.mykare.usermanagement.model.User;
+import com.mykare.usermanagement.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class UserStatsServiceTest {
+
+    @Autowired
+    private UserStatsService userStatsService;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private AdminService adminService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void reconcile() {
+        userStatsService.reconcile();
+    }
+
+    @Test
+    void testRegistrationAndBulkChangesMoveCounters() {
+        long total = userStatsService.getTotal();
+        long admins = count(userStatsService.getStats(), "role", Role.ADMIN.name());
+
+        authService.registerUser(RegisterRequest.builder()
+                .name("Stats User")
+                .email("stats-registered@example.com")
+                .gender("Nonbinary")
+                .password("Password@123")
+                .build());
+        assertEquals(total + 1, userStatsService.getTotal());
+        assertEquals(1, count(userStatsService.getStats(), "gender", "Nonbinary"));
+
+        BulkUserFilter filter = BulkUserFilter.builder()
+                .emails(List.of("stats-registered@example.com"))
+                .build();
+        adminService.bulkUpdateRole(filter, Role.ADMIN, "admin@example.com");
+        assertEquals(admins + 1, count(userStatsService.getStats(), "role", Role.ADMIN.name()));
+
+        adminService.bulkDelete(filter, "admin@example.com");
+        assertEquals(total, userStatsService.getTotal());
+        assertEquals(0, count(userStatsService.getStats(), "gender", "Nonbinary"));
+        assertEquals(admins, count(userStatsService.getStats(), "role", Role.ADMIN.name()));
+    }
+
+    @Test
+    void testSingleUserRoleChangeAndDeleteMoveCounters() {
+        userRepository.save(User.builder()
+                .name("Stats User")
+                .email("stats-deleted@example.com")
+                .gender("Female")
+                .country("ZZ")
+                .role(Role.USER)
+                .build());
+        userStatsService.reconcile();
+        assertEquals(1, count(userStatsService.getStats(), "country", "ZZ"));
+        long admins = count(userStatsService.getStats(), "role", Role.ADMIN.name());
+
+        adminService.updateUserRole("stats-deleted@example.com", Role.ADMIN);
+        assertEquals(admins + 1, count(userStatsService.getStats(), "role", Role.ADMIN.name()));
+
+        adminService.deleteUserByEmail("stats-deleted@example.com");
+        assertEquals(0, count(userStatsService.getStats(), "country", "ZZ"));
+        assertEquals(admins, count(userStatsService.getStats(), "role", Role.ADMIN.name()));
+
+        // The events left the counters exact, so reconciling finds nothing to correct
+        double corrections = meterRegistry.get("users.stats.corrections").counter().count();
+        userStatsService.reconcile();
+        assertEquals(corrections, meterRegistry.get("users.stats.corrections").counter().count());
+    }
+
+    @Test
+    void testReconciliationCorrectsDrift() {
+        double corrections = meterRegistry.get("users.stats.corrections").counter().count();
+        long total = userStatsService.getTotal();
+
+        // Saved without an event, so the counters do not see it until reconciled
+        User saved = userRepository.save(User.builder()
+                .name("Stats User")
+                .email("stats-drift@example.com")
+                .gender("Male")
+                .country("YY")
+                .role(Role.USER)
+                .build());
+        assertEquals(total, userStatsService.getTotal());
+
+        userStatsService.reconcile();
+        assertEquals(total + 1, userStatsService.getTotal());
+        assertEquals(1, count(userStatsService.getStats(), "country", "YY"));
+        assertTrue(meterRegistry.get("users.stats.corrections").counter().count() > corrections);
+
+        userRepository.delete(saved);
+        userStatsService.reconcile();
+    }
+
+    private static long count(UserStats stats, String dimension, String value) {
+        var counts = switch (dimension) {
+            case "role" -> stats.getByRole();
+            case "country" -> stats.getByCountry();
+            default -> stats.getByGender();
+        };
+        return counts.getOrDefault(value, 0L);
+    }
+}
@@ -0,0 +1,114 @@
+package com.mykare.usermanagement.service.geo;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachingGeoIpResolverTest {
+
+    @Test
+    void testRepeatedLookupsHitTheCache() {
+        AtomicInteger calls = new AtomicInteger();
+        CachingGeoIpResolver resolver = new CachingGeoIpResolver(ip -> {
+            calls.incrementAndGet();
+            return Optional.of("India");
+        }, 100, Duration.ofHours(1), Duration.ofSeconds(30));
+
+        assertEquals(Optional.of("India"), resolver.resolveCountry("49.36.0.1"));
+        assertEquals(Optional.of("India"), resolver.resolveCountry("49.36.0.1"));
+
+        assertEquals(1, calls.get());
+        assertEquals(1, resolver.stats().hitCount());
+        assertEquals(1, resolver.stats().missCount());
+    }
+
+    @Test
+    void testFailuresAreCachedForFailureTtl() throws InterruptedException {
+        AtomicInteger calls = new AtomicInteger();
+        CachingGeoIpResolver resolver = new CachingGeoIpResolver(ip -> {
+            calls.incrementAndGet();
+            throw new IllegalStateException("provider down");
+        }, 100, Duration.ofHours(1), Duration.ofMillis(100));
+
+        assertThrows(IllegalStateException.class, () -> resolver.resolveCountry("49.36.0.1"));
+        assertThrows(IllegalStateException.class, () -> resolver.resolveCountry("49.36.0.1"));
+        assertEquals(1, calls.get());
+
+        Thread.sleep(200);
+        assertThrows(IllegalStateException.class, () -> resolver.resolveCountry("49.36.0.1"));
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void testRejectedLookupsAreNotCached() {
+        AtomicInteger calls = new AtomicInteger();
+        CachingGeoIpResolver resolver = new CachingGeoIpResolver(ip -> {
+            if (calls.incrementAndGet() == 1) {
+                throw new GeoIpUnavailableException("Circuit breaker geoIp is open", null);
+            }
+            return Optional.of("India");
+        }, 100, Duration.ofHours(1), Duration.ofSeconds(30));
+
+        assertThrows(GeoIpUnavailableException.class, () -> resolver.resolveCountry("49.36.0.1"));
+        assertEquals(Optional.of("India"), resolver.resolveCountry("49.36.0.1"));
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void testFailedLookupDoesNotBlockLaterCallers() {
+        AtomicInteger calls = new AtomicInteger();
+        CachingGeoIpResolver resolver = new CachingGeoIpResolver(ip -> {
+            if (calls.incrementAndGet() == 1) {
+                throw new StackOverflowError();
+            }
+            return Optional.of("India");
+        }, 100, Duration.ofHours(1), Duration.ofSeconds(30));
+
+        assertThrows(StackOverflowError.class, () -> resolver.resolveCountry("49.36.0.1"));
+        assertEquals(Optional.of("India"), assertTimeoutPreemptively(Duration.ofSeconds(5),
+                () -> resolver.resolveCountry("49.36.0.1")));
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void testConcurrentMissesShareOneLookup() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        CachingGeoIpResolver resolver = new CachingGeoIpResolver(ip -> {
+            calls.incrementAndGet();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return Optional.of("India");
+        }, 100, Duration.ofHours(1), Duration.ofSeconds(30));
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Optional<String>>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> resolver.resolveCountry("49.36.0.1")));
+            }
+            Thread.sleep(200);
+            release.countDown();
+            for (Future<Optional<String>> result : results) {
+                assertEquals(Optional.of("India"), result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, calls.get());
+    }
+}
@@ -0,0 +1,81 @@
+package com.mykare.usermanagement.service.geo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalGeoIpResolverTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testLookupWithinAndOutsideRanges() throws IOException {
+        Path dataset = writeDataset("""
+                # start,end,country
+                1.0.0.0,1.0.0.255,Australia
+                8.8.8.0,8.8.8.255,United States
+                3232235520,3232301055,Private
+                255.255.255.0,255.255.255.255,Broadcast
+                """);
+        LocalGeoIpResolver resolver = new LocalGeoIpResolver(dataset, null);
+
+        assertEquals(Optional.of("Australia"), resolver.resolveCountry("1.0.0.0"));
+        assertEquals(Optional.of("Australia"), resolver.resolveCountry("1.0.0.255"));
+        assertEquals(Optional.of("United States"), resolver.resolveCountry("8.8.8.8"));
+        assertEquals(Optional.of("Private"), resolver.resolveCountry("192.168.10.1"));
+        assertEquals(Optional.of("Broadcast"), resolver.resolveCountry("255.255.255.255"));
+        assertEquals(Optional.empty(), resolver.resolveCountry("1.0.1.0"));
+        assertEquals(Optional.empty(), resolver.resolveCountry("0.0.0.1"));
+        assertEquals(Optional.empty(), resolver.resolveCountry("UNKNOWN"));
+        assertEquals(Optional.empty(), resolver.resolveCountry("2001:db8::1"));
+        assertEquals(Optional.empty(), resolver.resolveCountry("1.2.3.256"));
+    }
+
+    @Test
+    void testFallbackOnlyForUncoveredAddresses() throws IOException {
+        Path dataset = writeDataset("8.8.8.0,8.8.8.255,United States\n");
+        LocalGeoIpResolver resolver = new LocalGeoIpResolver(dataset, ip -> Optional.of("Remote"));
+
+        assertEquals(Optional.of("United States"), resolver.resolveCountry("8.8.8.8"));
+        assertEquals(Optional.of("Remote"), resolver.resolveCountry("9.9.9.9"));
+    }
+
+    @Test
+    void testReloadSwapsIndexAndKeepsOldOneOnError() throws IOException {
+        Path dataset = writeDataset("8.8.8.0,8.8.8.255,United States\n");
+        LocalGeoIpResolver resolver = new LocalGeoIpResolver(dataset, null);
+
+        Files.writeString(dataset, "8.8.8.0,8.8.8.255,Somewhere Else\n");
+        Files.setLastModifiedTime(dataset, FileTime.fromMillis(System.currentTimeMillis() + 1000));
+        resolver.reloadIfChanged();
+        assertEquals(Optional.of("Somewhere Else"), resolver.resolveCountry("8.8.8.8"));
+
+        Files.writeString(dataset, "not,a,range\n");
+        Files.setLastModifiedTime(dataset, FileTime.fromMillis(System.currentTimeMillis() + 2000));
+        resolver.reloadIfChanged();
+        assertEquals(Optional.of("Somewhere Else"), resolver.resolveCountry("8.8.8.8"));
+    }
+
+    @Test
+    void testOverlappingRangesAreRejected() throws IOException {
+        Path dataset = writeDataset("""
+                8.8.8.0,8.8.8.255,United States
+                8.8.8.128,8.8.9.0,Elsewhere
+                """);
+        assertThrows(IllegalArgumentException.class, () -> new LocalGeoIpResolver(dataset, null));
+    }
+
+    private Path writeDataset(String content) throws IOException {
+        Path dataset = tempDir.resolve("geoip.csv");
+        Files.writeString(dataset, content);
+        return dataset;
+    }
+}
@@ -0,0 +1,70 @@
+package com.mykare.usermanagement.service.geo;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResilientGeoIpResolverTest {
+
+    private final CircuitBreaker circuitBreaker = CircuitBreaker.of("test", CircuitBreakerConfig.custom()
+            .slidingWindowSize(4)
+            .minimumNumberOfCalls(4)
+            .failureRateThreshold(50)
+            .waitDurationInOpenState(Duration.ofMinutes(1))
+            .build());
+
+    @Test
+    void testOpenBreakerFailsFastWithoutCallingProvider() {
+        AtomicInteger calls = new AtomicInteger();
+        ResilientGeoIpResolver resolver = new ResilientGeoIpResolver(ip -> {
+            calls.incrementAndGet();
+            throw new IllegalStateException("timeout");
+        }, circuitBreaker, Bulkhead.ofDefaults("test"));
+
+        for (int i = 0; i < 4; i++) {
+            assertThrows(IllegalStateException.class, () -> resolver.resolveCountry("8.8.8.8"));
+        }
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+
+        assertThrows(GeoIpUnavailableException.class, () -> resolver.resolveCountry("8.8.8.8"));
+        assertEquals(4, calls.get());
+    }
+
+    @Test
+    void testBulkheadRejectsCallsOverTheLimit() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Bulkhead bulkhead = Bulkhead.of("test", BulkheadConfig.custom()
+                .maxConcurrentCalls(1)
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+        ResilientGeoIpResolver resolver = new ResilientGeoIpResolver(ip -> {
+            entered.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return Optional.of("India");
+        }, circuitBreaker, bulkhead);
+
+        Thread first = Thread.ofPlatform().start(() -> resolver.resolveCountry("8.8.8.8"));
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+        assertThrows(GeoIpUnavailableException.class, () -> resolver.resolveCountry("1.1.1.1"));
+
+        release.countDown();
+        first.join();
+        assertEquals(Optional.of("India"), resolver.resolveCountry("1.1.1.1"));
+    }
+}